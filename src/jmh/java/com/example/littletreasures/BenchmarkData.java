@@ -0,0 +1,52 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.example.littletreasures.data.HotelProperties;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Data shared by the benchmarks.
+ */
+public final class BenchmarkData {
+
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Load the bundled hotel data.
+	 * @return the hotel properties
+	 */
+	public static HotelProperties loadHotels() {
+		try {
+			return new Binder(ConfigurationPropertySources
+				.from(new YamlPropertySourceLoader().load("hotels", new ClassPathResource("hotels.yml"))))
+				.bindOrCreate("treasures", HotelProperties.class);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+}
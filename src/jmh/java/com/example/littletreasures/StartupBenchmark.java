@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark for the time from launching the application until it first responds to
+ * {@code GET /hotels}. The {@code jar} packaging is the executable jar and the
+ * {@code fast-start} packaging is the AOT processed jar with its class data sharing
+ * archive. Both are created by {@code mvn -Pfast-start package}. Run with
+ * {@code -bm ss} and several iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+	private static final Path TARGET = Path.of("target");
+
+	@Param({ "jar", "fast-start" })
+	public String packaging;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private Process process;
+
+	@Benchmark
+	public int timeToFirstResponse() throws Exception {
+		int port = getFreePort();
+		this.process = new ProcessBuilder(getCommand(port)).directory(getDirectory().toFile())
+			.redirectErrorStream(true)
+			.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+			.start();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/hotels")).build();
+		while (true) {
+			try {
+				return this.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+			}
+			catch (ConnectException ex) {
+				if (!this.process.isAlive()) {
+					throw new IllegalStateException("Application exited with " + this.process.exitValue());
+				}
+				Thread.sleep(5);
+			}
+		}
+	}
+
+	@TearDown(Level.Invocation)
+	public void stop() throws InterruptedException {
+		if (this.process != null) {
+			this.process.destroy();
+			this.process.waitFor();
+		}
+	}
+
+	private List<String> getCommand(int port) throws IOException {
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		if (isFastStart()) {
+			command.add("-XX:SharedArchiveFile=application.jsa");
+			command.add("-Dspring.aot.enabled=true");
+		}
+		command.add("-jar");
+		command.add(getJar().getFileName().toString());
+		command.add("--server.port=" + port);
+		return command;
+	}
+
+	private Path getDirectory() {
+		return (isFastStart()) ? TARGET.resolve("fast-start") : TARGET;
+	}
+
+	private Path getJar() throws IOException {
+		try (Stream<Path> files = Files.list(getDirectory())) {
+			String suffix = (isFastStart()) ? "-fast-start.jar" : ".jar";
+			return files.filter((file) -> file.getFileName().toString().endsWith(suffix))
+				.findFirst()
+				.orElseThrow(() -> new IllegalStateException("Run 'mvn -Pfast-start package' first"));
+		}
+	}
+
+	private boolean isFastStart() {
+		return "fast-start".equals(this.packaging);
+	}
+
+	private static int getFreePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.example.littletreasures.BenchmarkData;
+import com.example.littletreasures.data.Hotel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.io.ByteArrayResource;
+
+/**
+ * Benchmarks for creating a {@link HotelsSnapshot} by binding hotel data YAML compared
+ * to reading a compiled {@link HotelDataFile}, using the sample hotels copied until the
+ * data holds the given number of hotels.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HotelDataFileBenchmark {
+
+	@Param({ "32", "2000" })
+	public int hotels;
+
+	private byte[] yaml;
+
+	private byte[] compiled;
+
+	@Setup
+	public void setup() throws IOException {
+		List<Hotel> sample = BenchmarkData.loadHotels().hotels();
+		StringBuilder yaml = new StringBuilder("treasures:\n  file-version: 1\n  hotels:\n");
+		for (int i = 0; i < this.hotels; i++) {
+			Hotel hotel = sample.get(i % sample.size());
+			yaml.append("  - name: \"").append(hotel.name()).append(" ").append(i).append("\"\n");
+			yaml.append("    address: \"").append(hotel.address()).append("\"\n");
+			yaml.append("    rooms: ").append(hotel.rooms()).append("\n");
+			yaml.append("    opened: \"").append(hotel.opened()).append("\"\n");
+			yaml.append("    operator: \"").append(hotel.operator()).append("\"\n");
+			yaml.append("    geographic-order: \"").append(hotel.geographicOrder()).append("\"\n");
+			if (hotel.architects() != null) {
+				yaml.append("    architects:\n");
+				hotel.architects().forEach((architect) -> yaml.append("    - \"").append(architect).append("\"\n"));
+			}
+		}
+		this.yaml = yaml.toString().getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		HotelDataFile.write(HotelsYaml.load(new ByteArrayResource(this.yaml)), "source", outputStream);
+		this.compiled = outputStream.toByteArray();
+	}
+
+	@Benchmark
+	public HotelsSnapshot bindYaml() throws IOException {
+		return new HotelsSnapshot(HotelsYaml.load(new ByteArrayResource(this.yaml)));
+	}
+
+	@Benchmark
+	public HotelsSnapshot readCompiled() throws IOException {
+		return HotelDataFile.read(new ByteArrayInputStream(this.compiled), "source");
+	}
+
+}
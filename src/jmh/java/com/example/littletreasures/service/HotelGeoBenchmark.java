@@ -0,0 +1,69 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.example.littletreasures.data.Hotel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link HotelGeoIndex} queries over hotels spread randomly across a
+ * 20km square around the Las Vegas Strip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HotelGeoBenchmark {
+
+	@Param({ "50000" })
+	public int hotels;
+
+	private HotelGeoIndex index;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		List<Hotel> hotels = new ArrayList<>(this.hotels);
+		for (int i = 0; i < this.hotels; i++) {
+			hotels.add(new Hotel("h" + i, "a", null, 1, "1990", "o", null, null, "strip",
+					36.03 + random.nextDouble() * 0.18, -115.28 + random.nextDouble() * 0.22));
+		}
+		this.index = new HotelGeoIndex(hotels);
+	}
+
+	@Benchmark
+	public List<Hotel> findWithin500m() {
+		return this.index.findWithin(36.1126, -115.1767, 500, 20);
+	}
+
+	@Benchmark
+	public List<Hotel> findNearest10() {
+		return this.index.findNearest(36.1126, -115.1767, 10);
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.example.littletreasures.BenchmarkData;
+import com.example.littletreasures.data.Hotel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link HotelSearchIndex} lookups over the sample hotels copied until
+ * the index holds the given number of hotels.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HotelSearchBenchmark {
+
+	@Param({ "22", "50000" })
+	public int hotels;
+
+	@Param({ "f", "flamingo", "las vegas", "caesars pal" })
+	public String query;
+
+	private HotelSearchIndex index;
+
+	@Setup
+	public void setup() {
+		List<Hotel> sample = BenchmarkData.loadHotels().hotels();
+		List<Hotel> hotels = new ArrayList<>(this.hotels);
+		for (int i = 0; i < this.hotels; i++) {
+			Hotel hotel = sample.get(i % sample.size());
+			String name = (i < sample.size()) ? hotel.name() : hotel.name() + " " + i;
+			hotels.add(new Hotel(name, hotel.address(), hotel.image(), hotel.rooms(), hotel.opened(),
+					hotel.operator(), hotel.theme(), hotel.architects(), hotel.geographicOrder()));
+		}
+		this.index = new HotelSearchIndex(hotels);
+	}
+
+	@Benchmark
+	public List<Hotel> search() {
+		return this.index.search(this.query, 20);
+	}
+
+}
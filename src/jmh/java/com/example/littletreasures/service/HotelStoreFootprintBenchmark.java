@@ -0,0 +1,124 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import com.example.littletreasures.BenchmarkData;
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.data.HotelProperties;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Heap footprint of the hotels and name and geographic order lookups, measured as the
+ * heap retained after a full GC. Hotels are copied from the sample hotels with new
+ * {@link String} instances for every value, as binding creates them. The {@code maps}
+ * benchmark builds the case-insensitive and multi-value maps previously used by
+ * {@link HotelsService} and the {@code store} benchmark builds a {@link HotelStore}.
+ * Run with {@code -bm ss} and read the {@code bytes} counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HotelStoreFootprintBenchmark {
+
+	@Param({ "1000000" })
+	public int hotels;
+
+	private List<Hotel> sample;
+
+	@Setup
+	public void setup() {
+		this.sample = BenchmarkData.loadHotels().hotels();
+	}
+
+	@Benchmark
+	public Object maps(Footprint footprint) {
+		long before = usedHeap();
+		List<Hotel> hotels = List.copyOf(createHotels());
+		LinkedCaseInsensitiveMap<Hotel> byName = new LinkedCaseInsensitiveMap<>();
+		hotels.forEach((hotel) -> byName.put(hotel.name(), hotel));
+		MultiValueMap<String, Hotel> byGeographicOrder = new LinkedMultiValueMap<>();
+		hotels.forEach((hotel) -> byGeographicOrder.add(hotel.geographicOrder().toLowerCase(Locale.ROOT), hotel));
+		Object[] retained = { hotels, byName, byGeographicOrder };
+		footprint.bytes = usedHeap() - before;
+		return retained;
+	}
+
+	@Benchmark
+	public Object store(Footprint footprint) {
+		long before = usedHeap();
+		HotelStore store = new HotelStore(new HotelProperties(1, createHotels()).hotels());
+		footprint.bytes = usedHeap() - before;
+		return store;
+	}
+
+	private List<Hotel> createHotels() {
+		List<Hotel> hotels = new ArrayList<>(this.hotels);
+		for (int i = 0; i < this.hotels; i++) {
+			Hotel hotel = this.sample.get(i % this.sample.size());
+			hotels.add(new Hotel(hotel.name() + " " + i, copy(hotel.address()), copy(hotel.image()), hotel.rooms(),
+					copy(hotel.opened()), copy(hotel.operator()), copy(hotel.theme()),
+					copy(hotel.architects()), copy(hotel.geographicOrder()),
+					hotel.latitude(), hotel.longitude()));
+		}
+		return hotels;
+	}
+
+	private List<String> copy(List<String> values) {
+		return (values != null) ? values.stream().map(this::copy).toList() : null;
+	}
+
+	private String copy(String value) {
+		return (value != null) ? new String(value) : null;
+	}
+
+	private static long usedHeap() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	/**
+	 * Heap retained by the benchmarked structures.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+
+		public long bytes;
+
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.example.littletreasures.BenchmarkData;
+import com.example.littletreasures.data.Hotel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link HotelsService} lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HotelsServiceBenchmark {
+
+	private HotelsService service;
+
+	@Setup
+	public void setup() {
+		this.service = new HotelsService(BenchmarkData.loadHotels(), new SimpleMeterRegistry());
+	}
+
+	@Benchmark
+	public Hotel findByName() {
+		return this.service.findByName("bellagio");
+	}
+
+	@Benchmark
+	public List<Hotel> findByGeographicOrder() {
+		return this.service.findByGeographicOrder("center strip");
+	}
+
+	@Benchmark
+	public List<Hotel> getAll() {
+		return this.service.getAll();
+	}
+
+}
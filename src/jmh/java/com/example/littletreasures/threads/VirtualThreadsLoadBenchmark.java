@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.threads;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.example.littletreasures.LittleTreasuresApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.util.Assert;
+
+/**
+ * Benchmark comparing request handling on the Tomcat platform thread pool with request
+ * handling on virtual threads at high concurrency. Each operation is one request and
+ * every invocation keeps {@code concurrency} requests in flight. The {@code virtual}
+ * threads require Java 21 or later, run with {@code -p threads=platform} on older JVMs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VirtualThreadsLoadBenchmark {
+
+	private static final int REQUESTS = 2000;
+
+	private static final List<String> PATHS = List.of("/hotels", "/hotels/Bellagio",
+			"/hotels/search/geographicorder/south", "/images/Bellagio-front.jpg",
+			"/images/Bellagio-front.jpg?width=400", "/images/Bellagio-front.jpg/original");
+
+	@Param({ "platform", "virtual" })
+	public String threads;
+
+	@Param({ "1000" })
+	public int concurrency;
+
+	private ServletWebServerApplicationContext context;
+
+	private HttpClient client;
+
+	private List<HttpRequest> requests;
+
+	@Setup
+	public void start() {
+		boolean virtual = "virtual".equals(this.threads);
+		Assert.state(!virtual || VirtualThreads.isSupported(), "Virtual threads require Java 21 or later");
+		this.context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(
+				LittleTreasuresApplication.class)
+			.properties("server.port=0", "littletreasures.threads.virtual=" + virtual,
+					"littletreasures.thumbnails.rendering.queue-capacity=" + REQUESTS)
+			.run();
+		String base = "http://localhost:" + this.context.getWebServer().getPort();
+		this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		this.requests = PATHS.stream().map((path) -> HttpRequest.newBuilder(URI.create(base + path)).build()).toList();
+	}
+
+	@TearDown
+	public void stop() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(REQUESTS)
+	public int load() {
+		Semaphore permits = new Semaphore(this.concurrency);
+		AtomicInteger errors = new AtomicInteger();
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[REQUESTS];
+		for (int i = 0; i < REQUESTS; i++) {
+			permits.acquireUninterruptibly();
+			futures[i] = this.client.sendAsync(this.requests.get(i % this.requests.size()), HttpResponse.BodyHandlers.discarding())
+				.whenComplete((response, ex) -> {
+					if (ex != null || response.statusCode() >= 400) {
+						errors.incrementAndGet();
+					}
+					permits.release();
+				});
+		}
+		CompletableFuture.allOf(futures).handle((result, ex) -> null).join();
+		Assert.state(errors.get() == 0, () -> errors.get() + " of " + REQUESTS + " requests failed");
+		return REQUESTS;
+	}
+
+}
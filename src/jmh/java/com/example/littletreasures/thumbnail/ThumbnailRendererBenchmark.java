@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Benchmarks for creating a thumbnail from each bundled source image, comparing
+ * {@link ThumbnailRenderer} with the previous
+ * {@link Image#getScaledInstance(int, int, int)} implementation. The simulated slow
+ * operation of {@link ThumbnailService} is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ThumbnailRendererBenchmark {
+
+	private static final ThumbnailVariant VARIANT = new ThumbnailVariant(new ThumbnailVariant.Size(200, 200),
+			ThumbnailVariant.Fit.COVER, 75, ThumbnailVariant.Format.JPEG);
+
+	@Param({ "Ballyshotelcasino-lv cropped.jpg", "Bellagio-front.jpg", "Caesars Palace - Across Bellagio Lake.jpg",
+			"Circus circus-1.jpg", "Cosmopolitan - North - 2010-12-12.JPG", "Encore Las Vegas (2).JPG",
+			"Excalibur Hotel1.jpg", "Flamingohotelyay.jpg", "HarrahsLV.jpg", "I-1253044640.jpg",
+			"Las-Vegas-Trump-Hotel-7776.jpg", "LasVegas-MGMgrand.jpg", "Linq hotel.jpg", "Mirage2010.JPG",
+			"Planet-Hollywood-LV.JPG", "Resorts_World_Las_Vegas_May_2022.jpg",
+			"Sahara Hotel Casino Las Vegas (entrance).jpg", "The Cromwell Las Vegas.jpg", "The Palazzo at night.JPG",
+			"Tropicana Resort & Casino.JPG", "Venetian Las Vegas, NV.jpg", "Wynn 2 (2).jpg" })
+	public String image;
+
+	private byte[] source;
+
+	private ThumbnailRenderer renderer;
+
+	@Setup
+	public void setup() throws IOException {
+		this.source = new ClassPathResource("images/" + this.image).getContentAsByteArray();
+		this.renderer = new ThumbnailRenderer(new SimpleMeterRegistry());
+	}
+
+	@Benchmark
+	public byte[] render() throws IOException {
+		return this.renderer.render(this.source, VARIANT);
+	}
+
+	@Benchmark
+	public byte[] renderWithScaledInstance() throws IOException {
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(this.source));
+		Image resultingImage = image.getScaledInstance(200, 200, Image.SCALE_DEFAULT);
+		BufferedImage thumbnail = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+		thumbnail.getGraphics().drawImage(resultingImage, 0, 0, null);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(thumbnail, "jpg", out);
+		return out.toByteArray();
+	}
+
+}
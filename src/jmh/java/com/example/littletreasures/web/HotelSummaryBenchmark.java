@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.web;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.example.littletreasures.BenchmarkData;
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.service.HotelsService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmarks for {@link HotelSummary} mapping and JSON serialization. Run with the
+ * {@code gc} profiler, the normalized allocation rate of {@link #getAndSerialize()}
+ * should match {@link #serialize()} since cached summaries allocate nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HotelSummaryBenchmark {
+
+	private List<Hotel> hotels;
+
+	private HotelSummaries hotelSummaries;
+
+	private List<HotelSummary> summaries;
+
+	private ObjectMapper objectMapper;
+
+	@Setup
+	public void setup() {
+		HotelsService service = new HotelsService(BenchmarkData.loadHotels(), new SimpleMeterRegistry());
+		this.hotels = service.getAll();
+		this.hotelSummaries = new HotelSummaries(new ImageLinksProperties(null, "http://localhost:8080/images/"),
+				service);
+		this.summaries = this.hotelSummaries.get(this.hotels);
+		this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	}
+
+	@Benchmark
+	public void get(Blackhole blackhole) {
+		for (int i = 0; i < this.hotels.size(); i++) {
+			blackhole.consume(this.hotelSummaries.get(this.hotels.get(i)));
+		}
+	}
+
+	@Benchmark
+	public void create(Blackhole blackhole) {
+		for (int i = 0; i < this.hotels.size(); i++) {
+			blackhole.consume(HotelSummary.create(this.hotels.get(i), "http://localhost:8080/images/"));
+		}
+	}
+
+	@Benchmark
+	public byte[] serialize() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.summaries);
+	}
+
+	@Benchmark
+	public byte[] getAndSerialize() throws JsonProcessingException {
+		HotelSummary[] summaries = new HotelSummary[this.hotels.size()];
+		for (int i = 0; i < summaries.length; i++) {
+			summaries[i] = this.hotelSummaries.get(this.hotels.get(i));
+		}
+		return this.objectMapper.writeValueAsBytes(summaries);
+	}
+
+}
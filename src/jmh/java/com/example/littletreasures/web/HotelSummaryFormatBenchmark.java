@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.example.littletreasures.BenchmarkData;
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.service.HotelsService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Benchmarks comparing the JSON and binary encodings of all hotel summaries. The size of
+ * each encoding is printed during setup, encoding and decoding are measured separately.
+ * Bodies are decoded to a tree so that every format is read the same way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HotelSummaryFormatBenchmark {
+
+	private static final Set<HotelSummary.Field> ALL_FIELDS = EnumSet.allOf(HotelSummary.Field.class);
+
+	@Param({ "JSON", "CBOR", "SMILE", "PROTOBUF" })
+	private String format;
+
+	private List<Hotel> hotels;
+
+	private HotelSummaries summaries;
+
+	private HotelSummaryEncoder encoder;
+
+	private ObjectMapper objectMapper;
+
+	private ObjectReader reader;
+
+	private byte[] encoded;
+
+	@Setup
+	public void setup() throws IOException {
+		HotelsService service = new HotelsService(BenchmarkData.loadHotels(), new SimpleMeterRegistry());
+		this.hotels = service.getAll();
+		this.summaries = new HotelSummaries(new ImageLinksProperties(null, "http://localhost:8080/images/"),
+				service);
+		this.encoder = new HotelSummaryEncoder(this.summaries);
+		this.objectMapper = new ObjectMapper();
+		this.reader = createReader();
+		this.encoded = encode();
+		System.out.printf("%n%s: %d hotels encoded in %d bytes%n", this.format, this.hotels.size(),
+				this.encoded.length);
+	}
+
+	private ObjectReader createReader() throws IOException {
+		return switch (this.format) {
+			case "JSON" -> this.objectMapper.readerFor(JsonNode.class);
+			case "CBOR" -> new CBORMapper().readerFor(JsonNode.class);
+			case "SMILE" -> new SmileMapper().readerFor(JsonNode.class);
+			default -> {
+				ProtobufMapper mapper = new ProtobufMapper();
+				try (InputStream inputStream = new ClassPathResource(HotelSummaryEncoder.SCHEMA_LOCATION)
+					.getInputStream()) {
+					yield mapper.readerFor(JsonNode.class)
+						.with(mapper.schemaLoader().load(inputStream).withRootType("HotelSummaries"));
+				}
+			}
+		};
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		if (this.format.equals("JSON")) {
+			return this.objectMapper.writeValueAsBytes(this.summaries.get(this.hotels));
+		}
+		return this.encoder.encode(HotelSummaryEncoder.Format.valueOf(this.format), this.hotels, ALL_FIELDS);
+	}
+
+	@Benchmark
+	public JsonNode decode() throws IOException {
+		return this.reader.readValue(this.encoded);
+	}
+
+}
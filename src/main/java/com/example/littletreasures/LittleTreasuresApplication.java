@@ -19,17 +19,23 @@ package com.example.littletreasures;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 /**
  * Little Treasures main application entry point.
  */
 @SpringBootApplication
 @ConfigurationPropertiesScan
+@ImportRuntimeHints(LittleTreasuresRuntimeHints.class)
 public class LittleTreasuresApplication {
 
 	public static void main(String[] args) {
 		Startup.printAuthIfNecessary();
-		SpringApplication.run(LittleTreasuresApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(LittleTreasuresApplication.class, args);
+		if (Startup.isTrainingRun()) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures;
+
+import com.example.littletreasures.data.HotelProperties;
+import com.example.littletreasures.web.HotelSummary;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.boot.context.properties.bind.BindableRuntimeHintsRegistrar;
+
+/**
+ * {@link RuntimeHintsRegistrar} for the parts of the application that AOT processing
+ * cannot discover. {@link HotelProperties} is bound on demand rather than as a
+ * configuration properties bean, {@link HotelSummary} is serialized by Jackson and the
+ * hotel data, images and Protobuf schema are loaded as classpath resources.
+ */
+class LittleTreasuresRuntimeHints implements RuntimeHintsRegistrar {
+
+	private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+	@Override
+	public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+		BindableRuntimeHintsRegistrar.forTypes(HotelProperties.class).registerHints(hints, classLoader);
+		this.bindingRegistrar.registerReflectionHints(hints.reflection(), HotelSummary.class);
+		hints.resources().registerPattern("hotels.yml").registerPattern("hotels.bin").registerPattern("images/*");
+		hints.resources().registerPattern("proto/*.proto");
+	}
+
+}
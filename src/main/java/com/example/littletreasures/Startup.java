@@ -17,7 +17,8 @@
 package com.example.littletreasures;
 
 /**
- * Class called at startup to log AUTH message as required by IT.
+ * Class called at startup to log AUTH message as required by IT and to end class data
+ * sharing training runs.
  */
 final class Startup {
 
@@ -30,4 +31,13 @@ final class Startup {
 		}
 	}
 
+	/**
+	 * Return if this is a training run used to create a class data sharing archive, in
+	 * which case the application should exit as soon as it has started.
+	 * @return if this is a training run
+	 */
+	static boolean isTrainingRun() {
+		return Boolean.getBoolean("com.example.training");
+	}
+
 }
@@ -18,6 +18,8 @@ package com.example.littletreasures.data;
 
 import java.util.List;
 
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+
 /**
  * A single Hotel record.
  *
@@ -30,9 +32,28 @@ import java.util.List;
  * @param theme the hotel theme, or {@code null}
  * @param architects the architects of the hotel (if known)
  * @param geographicOrder the geographic order of the hotel (for example, "south strip")
+ * @param latitude the latitude of the hotel in degrees, or {@code null}
+ * @param longitude the longitude of the hotel in degrees, or {@code null}
  * @see HotelProperties
  */
 public record Hotel(String name, String address, String image, int rooms, String opened, String operator, String theme,
-		List<String> architects, String geographicOrder) {
+		List<String> architects, String geographicOrder, Double latitude, Double longitude) {
+
+	@ConstructorBinding
+	public Hotel {
+	}
+
+	public Hotel(String name, String address, String image, int rooms, String opened, String operator, String theme,
+			List<String> architects, String geographicOrder) {
+		this(name, address, image, rooms, opened, operator, theme, architects, geographicOrder, null, null);
+	}
+
+	/**
+	 * Return if the location of the hotel is known.
+	 * @return if the hotel has a latitude and longitude
+	 */
+	public boolean hasLocation() {
+		return this.latitude != null && this.longitude != null;
+	}
 
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.data;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary used to share values that repeat across hotels (opening years, operators,
+ * themes, architects and geographic orders) so that each distinct value is held once.
+ * Bound data creates a new instance for every occurrence of a value, which adds up for
+ * large data sets.
+ */
+final class HotelDictionary {
+
+	private final Map<String, String> values = new HashMap<>();
+
+	private final Map<List<String>, List<String>> architects = new HashMap<>();
+
+	/**
+	 * Return the given hotels with repeated values shared. Hotels that already use the
+	 * shared values are returned as they are.
+	 * @param hotels the hotels to encode
+	 * @return an immutable list of encoded hotels
+	 */
+	List<Hotel> encode(List<Hotel> hotels) {
+		return hotels.stream().map(this::encode).toList();
+	}
+
+	private Hotel encode(Hotel hotel) {
+		String opened = encode(hotel.opened());
+		String operator = encode(hotel.operator());
+		String theme = encode(hotel.theme());
+		List<String> architects = encodeArchitects(hotel.architects());
+		String geographicOrder = encode(hotel.geographicOrder());
+		if (opened == hotel.opened() && operator == hotel.operator() && theme == hotel.theme()
+				&& architects == hotel.architects() && geographicOrder == hotel.geographicOrder()) {
+			return hotel;
+		}
+		return new Hotel(hotel.name(), hotel.address(), hotel.image(), hotel.rooms(), opened, operator, theme,
+				architects, geographicOrder, hotel.latitude(), hotel.longitude());
+	}
+
+	private String encode(String value) {
+		return (value != null) ? this.values.computeIfAbsent(value, (key) -> key) : null;
+	}
+
+	private List<String> encodeArchitects(List<String> architects) {
+		if (architects == null) {
+			return null;
+		}
+		List<String> encoded = this.architects.get(architects);
+		if (encoded == null) {
+			encoded = architects.stream().map(this::encode).toList();
+			encoded = (isSame(encoded, architects)) ? architects : encoded;
+			this.architects.put(encoded, encoded);
+		}
+		return encoded;
+	}
+
+	private boolean isSame(List<String> encoded, List<String> architects) {
+		for (int i = 0; i < encoded.size(); i++) {
+			if (encoded.get(i) != architects.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -18,15 +18,19 @@ package com.example.littletreasures.data;
 
 import java.util.List;
 
-import org.springframework.boot.context.properties.ConfigurationProperties;
-
 /**
- * Data for all the {@link Hotel hotels} we know about.
+ * Data for all the {@link Hotel hotels} we know about. Values that repeat across hotels
+ * are shared so that large data sets hold each distinct value once. The data is bound
+ * from the {@code treasures} prefix on demand rather than as a configuration properties
+ * bean so that it is not bound when compiled hotel data is used.
  *
  * @param fileVersion the version of the loaded data
  * @param hotels the hotels
  */
-@ConfigurationProperties(prefix = "treasures")
 public record HotelProperties(int fileVersion, List<Hotel> hotels) {
 
+	public HotelProperties {
+		hotels = (hotels != null) ? new HotelDictionary().encode(hotels) : null;
+	}
+
 }
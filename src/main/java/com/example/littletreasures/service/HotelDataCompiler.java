@@ -0,0 +1,51 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.example.littletreasures.data.HotelProperties;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+/**
+ * Build step that validates the hotel data YAML and compiles it into a
+ * {@link HotelDataFile} so that the application can load the hotels and their indexes
+ * without binding the YAML. Run by the {@code compiled-hotels} Maven profile.
+ */
+public final class HotelDataCompiler {
+
+	private HotelDataCompiler() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		Assert.isTrue(args.length == 2, "Usage: HotelDataCompiler <source> <destination>");
+		Resource source = new FileSystemResource(args[0]);
+		Path destination = Path.of(args[1]);
+		HotelProperties properties = HotelsYaml.load(source);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		HotelDataFile.write(properties, HotelDataFile.getChecksum(source), outputStream);
+		Files.write(destination, outputStream.toByteArray());
+		System.out.println("Compiled " + properties.hotels().size() + " hotels to " + destination);
+	}
+
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.data.HotelProperties;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.log.LogMessage;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Binary hotel data file written at build time by {@link HotelDataCompiler}. The file
+ * holds the hotels, with every distinct value stored once, together with the name and
+ * geographic order indexes of their {@link HotelStore}. It also records the checksum of
+ * the YAML it was compiled from so that a file that is older than the YAML is not used.
+ */
+final class HotelDataFile {
+
+	/**
+	 * The classpath location of the compiled hotel data.
+	 */
+	static final String LOCATION = "hotels.bin";
+
+	private static final Log logger = LogFactory.getLog(HotelDataFile.class);
+
+	private static final int MAGIC = 0x4C544844;
+
+	private static final int FORMAT_VERSION = 2;
+
+	private static final int NONE = -1;
+
+	private HotelDataFile() {
+	}
+
+	/**
+	 * Load a snapshot from compiled hotel data if it exists and was compiled from the
+	 * given source.
+	 * @param data the compiled hotel data
+	 * @param source the YAML source of the hotel data
+	 * @return the snapshot or {@code null} if the hotel data should be loaded from the
+	 * YAML source
+	 */
+	static HotelsSnapshot load(Resource data, Resource source) {
+		if (!data.exists()) {
+			return null;
+		}
+		try (InputStream inputStream = data.getInputStream()) {
+			HotelsSnapshot snapshot = read(inputStream, getChecksum(source));
+			if (snapshot == null) {
+				logger.info(LogMessage.format("Ignoring %s as it was not compiled from %s", data, source));
+			}
+			return snapshot;
+		}
+		catch (Exception ex) {
+			logger.warn(LogMessage.format("Unable to load compiled hotel data from %s", data), ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Return the checksum of the YAML source of the hotel data.
+	 * @param source the YAML source
+	 * @return the checksum
+	 * @throws IOException if the source cannot be read
+	 */
+	static String getChecksum(Resource source) throws IOException {
+		try (InputStream inputStream = source.getInputStream()) {
+			return DigestUtils.md5DigestAsHex(inputStream);
+		}
+	}
+
+	/**
+	 * Validate the hotel data, build its indexes and write them.
+	 * @param properties the hotel data
+	 * @param sourceChecksum the checksum of the YAML source
+	 * @param outputStream the output stream
+	 * @throws IOException on write error
+	 */
+	static void write(HotelProperties properties, String sourceChecksum, OutputStream outputStream) throws IOException {
+		Assert.state(properties.hotels() != null, "No hotels found");
+		HotelsSnapshot snapshot = new HotelsSnapshot(properties);
+		HotelStore store = snapshot.getStore();
+		List<Hotel> hotels = store.getAll();
+		Values values = new Values();
+		hotels.forEach(values::add);
+		DataOutputStream out = new DataOutputStream(outputStream);
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		out.writeUTF(sourceChecksum);
+		out.writeInt(properties.fileVersion());
+		out.writeUTF(snapshot.getChecksum());
+		values.write(out);
+		out.writeInt(hotels.size());
+		for (Hotel hotel : hotels) {
+			writeHotel(out, values, hotel);
+		}
+		out.writeLong(store.getNameIndex().getSalt());
+		writeInts(out, store.getNameIndex().getSeeds());
+		writeInts(out, store.getNameIndex().getSlots());
+		Map<Hotel, Integer> ids = new IdentityHashMap<>();
+		hotels.forEach((hotel) -> ids.putIfAbsent(hotel, ids.size()));
+		out.writeInt(store.getGeographicOrders().size());
+		for (Map.Entry<String, List<Hotel>> entry : store.getGeographicOrders().entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeInt(entry.getValue().size());
+			for (Hotel hotel : entry.getValue()) {
+				out.writeInt(ids.get(hotel));
+			}
+		}
+		out.flush();
+	}
+
+	private static void writeHotel(DataOutputStream out, Values values, Hotel hotel) throws IOException {
+		out.writeInt(values.get(hotel.name()));
+		out.writeInt(values.get(hotel.address()));
+		out.writeInt(values.get(hotel.image()));
+		out.writeInt(hotel.rooms());
+		out.writeInt(values.get(hotel.opened()));
+		out.writeInt(values.get(hotel.operator()));
+		out.writeInt(values.get(hotel.theme()));
+		out.writeInt(values.get(hotel.architects()));
+		out.writeInt(values.get(hotel.geographicOrder()));
+		writeDouble(out, hotel.latitude());
+		writeDouble(out, hotel.longitude());
+	}
+
+	private static void writeDouble(DataOutputStream out, Double value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeDouble(value);
+		}
+	}
+
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+		out.writeInt(values.length);
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	/**
+	 * Read a snapshot from compiled hotel data.
+	 * @param inputStream the input stream
+	 * @param sourceChecksum the checksum of the YAML source
+	 * @return the snapshot or {@code null} if the data was compiled from a different
+	 * source
+	 * @throws IOException on read error
+	 */
+	static HotelsSnapshot read(InputStream inputStream, String sourceChecksum) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+		Assert.state(in.readInt() == MAGIC, "Not a compiled hotel data file");
+		Assert.state(in.readInt() == FORMAT_VERSION, "Unsupported compiled hotel data format");
+		if (!in.readUTF().equals(sourceChecksum)) {
+			return null;
+		}
+		Assert.state(in.readInt() == 1, "Only version 1 is supported");
+		String checksum = in.readUTF();
+		String[] strings = new String[in.readInt()];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = in.readUTF();
+		}
+		List<List<String>> lists = new ArrayList<>();
+		for (int count = in.readInt(); lists.size() < count;) {
+			String[] list = new String[in.readInt()];
+			for (int i = 0; i < list.length; i++) {
+				list[i] = strings[in.readInt()];
+			}
+			lists.add(List.of(list));
+		}
+		Hotel[] hotels = new Hotel[in.readInt()];
+		for (int id = 0; id < hotels.length; id++) {
+			hotels[id] = new Hotel(strings[in.readInt()], get(strings, in.readInt()), get(strings, in.readInt()),
+					in.readInt(), get(strings, in.readInt()), get(strings, in.readInt()), get(strings, in.readInt()),
+					get(lists, in.readInt()), get(strings, in.readInt()), readDouble(in), readDouble(in));
+		}
+		List<Hotel> all = List.of(hotels);
+		long salt = in.readLong();
+		HotelNameIndex nameIndex = new HotelNameIndex(salt, readInts(in, Integer.MAX_VALUE),
+				readInts(in, hotels.length));
+		Map<String, List<Hotel>> byGeographicOrder = new LinkedHashMap<>();
+		for (int count = in.readInt(); byGeographicOrder.size() < count;) {
+			String key = in.readUTF();
+			Hotel[] group = new Hotel[in.readInt()];
+			for (int i = 0; i < group.length; i++) {
+				group[i] = hotels[in.readInt()];
+			}
+			byGeographicOrder.put(key, List.of(group));
+		}
+		return new HotelsSnapshot(new HotelStore(all, nameIndex, byGeographicOrder), checksum);
+	}
+
+	private static String get(String[] strings, int index) {
+		return (index != NONE) ? strings[index] : null;
+	}
+
+	private static List<String> get(List<List<String>> lists, int index) {
+		return (index != NONE) ? lists.get(index) : null;
+	}
+
+	private static Double readDouble(DataInputStream in) throws IOException {
+		return (in.readBoolean()) ? in.readDouble() : null;
+	}
+
+	private static int[] readInts(DataInputStream in, int maxValue) throws IOException {
+		int[] values = new int[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readInt();
+			Assert.state(values[i] >= NONE && values[i] < maxValue, "Invalid compiled hotel data index");
+		}
+		return values;
+	}
+
+	/**
+	 * The distinct strings and architect lists of the written hotels.
+	 */
+	private static final class Values {
+
+		private final Map<String, Integer> strings = new LinkedHashMap<>();
+
+		private final Map<List<String>, Integer> lists = new LinkedHashMap<>();
+
+		void add(Hotel hotel) {
+			add(hotel.name());
+			add(hotel.address());
+			add(hotel.image());
+			add(hotel.opened());
+			add(hotel.operator());
+			add(hotel.theme());
+			add(hotel.geographicOrder());
+			if (hotel.architects() != null) {
+				hotel.architects().forEach(this::add);
+				this.lists.putIfAbsent(hotel.architects(), this.lists.size());
+			}
+		}
+
+		private void add(String value) {
+			if (value != null) {
+				this.strings.putIfAbsent(value, this.strings.size());
+			}
+		}
+
+		int get(String value) {
+			return (value != null) ? this.strings.get(value) : NONE;
+		}
+
+		int get(List<String> list) {
+			return (list != null) ? this.lists.get(list) : NONE;
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			out.writeInt(this.strings.size());
+			for (String value : this.strings.keySet()) {
+				out.writeUTF(value);
+			}
+			out.writeInt(this.lists.size());
+			for (List<String> list : this.lists.keySet()) {
+				out.writeInt(list.size());
+				for (String value : list) {
+					out.writeInt(get(value));
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.example.littletreasures.data.Hotel;
+
+/**
+ * Static k-d tree over the locations of hotels, used to find hotels within a radius or
+ * the hotels nearest to a point. The tree is stored as a permutation of the located
+ * hotels where the median of each range is the node splitting that range, alternating
+ * between latitude and longitude. Distances are great-circle distances in meters. The far
+ * side of a longitude split extends to the antimeridian, so it is only pruned when it is
+ * far from the point in both directions around the globe.
+ */
+class HotelGeoIndex {
+
+	static final double EARTH_RADIUS = 6_371_008.8;
+
+	private final Hotel[] hotels;
+
+	private final double[] latitudes;
+
+	private final double[] longitudes;
+
+	HotelGeoIndex(List<Hotel> hotels) {
+		Hotel[] located = hotels.stream().filter(Hotel::hasLocation).toArray(Hotel[]::new);
+		build(located, 0, located.length, 0);
+		this.hotels = located;
+		this.latitudes = new double[located.length];
+		this.longitudes = new double[located.length];
+		for (int i = 0; i < located.length; i++) {
+			this.latitudes[i] = Math.toRadians(located[i].latitude());
+			this.longitudes[i] = Math.toRadians(located[i].longitude());
+		}
+	}
+
+	private static void build(Hotel[] hotels, int from, int to, int depth) {
+		if (to - from <= 1) {
+			return;
+		}
+		Comparator<Hotel> comparator = (depth % 2 == 0) ? Comparator.comparingDouble(Hotel::latitude)
+				: Comparator.comparingDouble(Hotel::longitude);
+		Arrays.sort(hotels, from, to, comparator);
+		int mid = (from + to) >>> 1;
+		build(hotels, from, mid, depth + 1);
+		build(hotels, mid + 1, to, depth + 1);
+	}
+
+	/**
+	 * Return the hotels within a radius of a point.
+	 * @param latitude the latitude of the point in degrees
+	 * @param longitude the longitude of the point in degrees
+	 * @param radius the radius in meters
+	 * @param limit the maximum number of results
+	 * @return the hotels, nearest first
+	 */
+	List<Hotel> findWithin(double latitude, double longitude, double radius, int limit) {
+		Nearest nearest = new Nearest(limit, radius);
+		search(Math.toRadians(latitude), Math.toRadians(longitude), 0, this.hotels.length, 0, nearest);
+		return nearest.toList();
+	}
+
+	/**
+	 * Return the hotels nearest to a point.
+	 * @param latitude the latitude of the point in degrees
+	 * @param longitude the longitude of the point in degrees
+	 * @param count the number of hotels to return
+	 * @return the hotels, nearest first
+	 */
+	List<Hotel> findNearest(double latitude, double longitude, int count) {
+		return findWithin(latitude, longitude, Double.POSITIVE_INFINITY, count);
+	}
+
+	private void search(double latitude, double longitude, int from, int to, int depth, Nearest nearest) {
+		if (from >= to) {
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		nearest.offer(mid, distance(latitude, longitude, this.latitudes[mid], this.longitudes[mid]));
+		boolean splitOnLatitude = depth % 2 == 0;
+		double delta = (splitOnLatitude) ? latitude - this.latitudes[mid] : longitude - this.longitudes[mid];
+		boolean nearIsLow = delta < 0;
+		search(latitude, longitude, (nearIsLow) ? from : mid + 1, (nearIsLow) ? mid : to, depth + 1, nearest);
+		double bound = (splitOnLatitude) ? Math.abs(delta) * EARTH_RADIUS
+				: distanceToMeridian(latitude, Math.min(Math.abs(delta), Math.PI - Math.abs(longitude)));
+		if (bound <= nearest.getMaxDistance()) {
+			search(latitude, longitude, (nearIsLow) ? mid + 1 : from, (nearIsLow) ? to : mid, depth + 1, nearest);
+		}
+	}
+
+	/**
+	 * Return the haversine distance between two points.
+	 * @param latitude1 the latitude of the first point in radians
+	 * @param longitude1 the longitude of the first point in radians
+	 * @param latitude2 the latitude of the second point in radians
+	 * @param longitude2 the longitude of the second point in radians
+	 * @return the distance in meters
+	 */
+	static double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+		double sinLatitude = Math.sin((latitude2 - latitude1) / 2);
+		double sinLongitude = Math.sin((longitude2 - longitude1) / 2);
+		double a = sinLatitude * sinLatitude + Math.cos(latitude1) * Math.cos(latitude2) * sinLongitude * sinLongitude;
+		return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+	}
+
+	/**
+	 * Return the shortest distance from a point to any point whose longitude differs by
+	 * at least the given amount. This is the distance to the great circle of the nearest
+	 * such meridian.
+	 * @param latitude the latitude of the point in radians
+	 * @param longitudeDelta the difference in longitude in radians
+	 * @return the distance in meters
+	 */
+	private static double distanceToMeridian(double latitude, double longitudeDelta) {
+		if (longitudeDelta >= Math.PI / 2) {
+			return 0;
+		}
+		return EARTH_RADIUS * Math.asin(Math.cos(latitude) * Math.sin(longitudeDelta));
+	}
+
+	/**
+	 * Bounded collection of the nearest hotels found so far.
+	 */
+	private final class Nearest {
+
+		private final int limit;
+
+		private final double radius;
+
+		private final PriorityQueue<double[]> queue;
+
+		Nearest(int limit, double radius) {
+			this.limit = limit;
+			this.radius = radius;
+			this.queue = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(b[0], a[0]));
+		}
+
+		void offer(int index, double distance) {
+			if (distance <= this.radius && this.limit > 0) {
+				this.queue.offer(new double[] { distance, index });
+				if (this.queue.size() > this.limit) {
+					this.queue.poll();
+				}
+			}
+		}
+
+		double getMaxDistance() {
+			return (this.queue.size() < this.limit) ? this.radius : this.queue.peek()[0];
+		}
+
+		List<Hotel> toList() {
+			if (this.queue.isEmpty()) {
+				return Collections.emptyList();
+			}
+			List<Hotel> result = new ArrayList<>(this.queue.size());
+			while (!this.queue.isEmpty()) {
+				result.add(HotelGeoIndex.this.hotels[(int) this.queue.poll()[1]]);
+			}
+			Collections.reverse(result);
+			return Collections.unmodifiableList(result);
+		}
+
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.littletreasures.data.Hotel;
+
+import org.springframework.util.Assert;
+
+/**
+ * Perfect hash index of case-insensitive hotel names. Names are hashed into small buckets
+ * and each bucket is given a seed that places all of its names in distinct free slots, so
+ * a lookup is two hash calculations, a single slot read and one name comparison. When
+ * several hotels share a name the last one is indexed. If the names of a bucket cannot be
+ * placed within a bounded number of seeds, which happens when distinct names share a
+ * hash, the index is rebuilt with a different hash salt.
+ */
+final class HotelNameIndex {
+
+	private static final int BUCKET_SIZE = 4;
+
+	private static final long SEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	private static final int MAX_SEED = 1 << 16;
+
+	private static final int MAX_SALTS = 16;
+
+	private final long salt;
+
+	private final int[] seeds;
+
+	private final int[] slots;
+
+	HotelNameIndex(List<Hotel> hotels) {
+		this.seeds = new int[Math.max(1, (hotels.size() + BUCKET_SIZE - 1) / BUCKET_SIZE)];
+		this.slots = new int[Math.max(1, hotels.size() + hotels.size() / 4)];
+		this.salt = build(hotels);
+	}
+
+	HotelNameIndex(long salt, int[] seeds, int[] slots) {
+		Assert.isTrue(seeds.length > 0 && slots.length > 0, "Index must not be empty");
+		this.salt = salt;
+		this.seeds = seeds;
+		this.slots = slots;
+	}
+
+	private int build(List<Hotel> hotels) {
+		long[] hashes = new long[hotels.size()];
+		for (int salt = 0; salt < MAX_SALTS; salt++) {
+			for (int id = 0; id < hashes.length; id++) {
+				hashes[id] = hash(hotels.get(id).name(), salt);
+			}
+			if (tryBuild(hotels, hashes)) {
+				return salt;
+			}
+		}
+		throw new IllegalStateException("Unable to build hotel name index");
+	}
+
+	private boolean tryBuild(List<Hotel> hotels, long[] hashes) {
+		Arrays.fill(this.seeds, 0);
+		Arrays.fill(this.slots, -1);
+		int[][] buckets = createBuckets(hotels, hashes);
+		for (int[] bucket : sortBySize(buckets)) {
+			if (bucket.length > 0 && !place(bucket, hashes)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int[][] createBuckets(List<Hotel> hotels, long[] hashes) {
+		int[] sizes = new int[this.seeds.length];
+		for (long hash : hashes) {
+			sizes[getBucket(hash)]++;
+		}
+		int[][] buckets = new int[this.seeds.length][];
+		for (int bucket = 0; bucket < buckets.length; bucket++) {
+			buckets[bucket] = new int[sizes[bucket]];
+			sizes[bucket] = 0;
+		}
+		for (int id = hashes.length - 1; id >= 0; id--) {
+			int bucket = getBucket(hashes[id]);
+			if (!contains(buckets[bucket], sizes[bucket], hotels, hotels.get(id).name())) {
+				buckets[bucket][sizes[bucket]++] = id;
+			}
+		}
+		for (int bucket = 0; bucket < buckets.length; bucket++) {
+			buckets[bucket] = Arrays.copyOf(buckets[bucket], sizes[bucket]);
+		}
+		return buckets;
+	}
+
+	private boolean contains(int[] bucket, int size, List<Hotel> hotels, String name) {
+		for (int i = 0; i < size; i++) {
+			if (hotels.get(bucket[i]).name().equalsIgnoreCase(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int[][] sortBySize(int[][] buckets) {
+		int[][] sorted = buckets.clone();
+		Arrays.sort(sorted, (left, right) -> Integer.compare(right.length, left.length));
+		return sorted;
+	}
+
+	private boolean place(int[] bucket, long[] hashes) {
+		int[] placed = new int[bucket.length];
+		for (int seed = 1; seed <= MAX_SEED; seed++) {
+			if (tryPlace(bucket, hashes, seed, placed)) {
+				this.seeds[getBucket(hashes[bucket[0]])] = seed;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean tryPlace(int[] bucket, long[] hashes, int seed, int[] placed) {
+		for (int i = 0; i < bucket.length; i++) {
+			int slot = getSlot(hashes[bucket[i]], seed);
+			if (this.slots[slot] != -1) {
+				clear(placed, i);
+				return false;
+			}
+			this.slots[slot] = bucket[i];
+			placed[i] = slot;
+		}
+		return true;
+	}
+
+	private void clear(int[] placed, int count) {
+		for (int i = 0; i < count; i++) {
+			this.slots[placed[i]] = -1;
+		}
+	}
+
+	/**
+	 * Find the id of the hotel with the given case-insensitive name.
+	 * @param hotels the indexed hotels
+	 * @param name the hotel name
+	 * @return the hotel id or {@code -1}
+	 */
+	int find(List<Hotel> hotels, String name) {
+		long hash = hash(name, this.salt);
+		int id = this.slots[getSlot(hash, this.seeds[getBucket(hash)])];
+		return (id != -1 && hotels.get(id).name().equalsIgnoreCase(name)) ? id : -1;
+	}
+
+	long getSalt() {
+		return this.salt;
+	}
+
+	int[] getSeeds() {
+		return this.seeds;
+	}
+
+	int[] getSlots() {
+		return this.slots;
+	}
+
+	private int getBucket(long hash) {
+		return (int) Long.remainderUnsigned(hash, this.seeds.length);
+	}
+
+	private int getSlot(long hash, int seed) {
+		return (int) Long.remainderUnsigned(mix(hash + seed * SEED_MULTIPLIER), this.slots.length);
+	}
+
+	private static long hash(String name, long salt) {
+		long hash = mix(salt + name.length());
+		for (int i = 0; i < name.length(); i++) {
+			hash = (hash ^ Character.toLowerCase(Character.toUpperCase(name.charAt(i)))) * SEED_MULTIPLIER;
+			hash ^= hash >>> 29;
+		}
+		return mix(hash);
+	}
+
+	private static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB9FE1A85EC53L;
+		return hash ^ (hash >>> 33);
+	}
+
+}
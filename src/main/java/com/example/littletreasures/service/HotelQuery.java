@@ -0,0 +1,36 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+/**
+ * A query for hotels matching all the given criteria. Criteria that are {@code null} are
+ * ignored and text criteria are matched ignoring case.
+ *
+ * @param operator the operator of the hotel
+ * @param theme the theme of the hotel
+ * @param architect one of the architects of the hotel
+ * @param geographicOrder the geographic order of the hotel
+ * @param minRooms the minimum number of rooms (inclusive)
+ * @param maxRooms the maximum number of rooms (inclusive)
+ * @param openedFrom the earliest year that the hotel was opened (inclusive)
+ * @param openedTo the latest year that the hotel was opened (inclusive)
+ * @see HotelsService#query(HotelQuery)
+ */
+public record HotelQuery(String operator, String theme, String architect, String geographicOrder, Integer minRooms,
+		Integer maxRooms, Integer openedFrom, Integer openedTo) {
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+import com.example.littletreasures.data.Hotel;
+
+/**
+ * Secondary indexes used to answer {@link HotelQuery hotel queries}. Categorical fields
+ * have hash indexes of {@link BitSet bit sets}, while rooms and opened years have sorted
+ * indexes that are searched for ranges. Queries intersect the bit sets of each criterion.
+ */
+class HotelQueryIndex {
+
+	private static final BitSet NONE = new BitSet();
+
+	private final List<Hotel> hotels;
+
+	private final Map<String, BitSet> byOperator = new HashMap<>();
+
+	private final Map<String, BitSet> byTheme = new HashMap<>();
+
+	private final Map<String, BitSet> byArchitect = new HashMap<>();
+
+	private final Map<String, BitSet> byGeographicOrder = new HashMap<>();
+
+	private final RangeIndex byRooms;
+
+	private final RangeIndex byOpened;
+
+	HotelQueryIndex(List<Hotel> hotels) {
+		this.hotels = hotels;
+		for (int id = 0; id < hotels.size(); id++) {
+			Hotel hotel = hotels.get(id);
+			add(this.byOperator, hotel.operator(), id);
+			add(this.byTheme, hotel.theme(), id);
+			add(this.byGeographicOrder, hotel.geographicOrder(), id);
+			if (hotel.architects() != null) {
+				for (String architect : hotel.architects()) {
+					add(this.byArchitect, architect, id);
+				}
+			}
+		}
+		this.byRooms = new RangeIndex(hotels, Hotel::rooms);
+		this.byOpened = new RangeIndex(hotels, (hotel) -> parseYear(hotel.opened()));
+	}
+
+	private void add(Map<String, BitSet> index, String value, int id) {
+		if (value != null) {
+			index.computeIfAbsent(key(value), (key) -> new BitSet()).set(id);
+		}
+	}
+
+	/**
+	 * Return the hotels matching all the criteria of the query, in their original order.
+	 * @param query the query
+	 * @return the matching hotels
+	 */
+	List<Hotel> query(HotelQuery query) {
+		BitSet matches = new BitSet(this.hotels.size());
+		matches.set(0, this.hotels.size());
+		and(matches, this.byOperator, query.operator());
+		and(matches, this.byTheme, query.theme());
+		and(matches, this.byArchitect, query.architect());
+		and(matches, this.byGeographicOrder, query.geographicOrder());
+		this.byRooms.and(matches, query.minRooms(), query.maxRooms());
+		this.byOpened.and(matches, query.openedFrom(), query.openedTo());
+		if (matches.isEmpty()) {
+			return Collections.emptyList();
+		}
+		if (matches.cardinality() == this.hotels.size()) {
+			return this.hotels;
+		}
+		return matches.stream().mapToObj(this.hotels::get).toList();
+	}
+
+	private void and(BitSet matches, Map<String, BitSet> index, String value) {
+		if (value != null) {
+			matches.and(index.getOrDefault(key(value), NONE));
+		}
+	}
+
+	private static String key(String value) {
+		return value.trim().toLowerCase(Locale.ROOT);
+	}
+
+	static int parseYear(String opened) {
+		if (opened == null) {
+			return Integer.MIN_VALUE;
+		}
+		int end = 0;
+		while (end < opened.length() && Character.isDigit(opened.charAt(end))) {
+			end++;
+		}
+		return (end > 0 && end <= 9) ? Integer.parseInt(opened, 0, end, 10) : Integer.MIN_VALUE;
+	}
+
+	/**
+	 * Sorted index of an int value used to find hotels with a value in a range. Hotels
+	 * with a value of {@link Integer#MIN_VALUE} are not indexed.
+	 */
+	private static class RangeIndex {
+
+		private final int[] values;
+
+		private final int[] ids;
+
+		RangeIndex(List<Hotel> hotels, ToIntFunction<Hotel> value) {
+			int[] all = hotels.stream().mapToInt(value).toArray();
+			this.ids = IntStream.range(0, all.length)
+				.filter((id) -> all[id] != Integer.MIN_VALUE)
+				.boxed()
+				.sorted((id1, id2) -> Integer.compare(all[id1], all[id2]))
+				.mapToInt(Integer::intValue)
+				.toArray();
+			this.values = Arrays.stream(this.ids).map((id) -> all[id]).toArray();
+		}
+
+		void and(BitSet matches, Integer min, Integer max) {
+			if (min == null && max == null) {
+				return;
+			}
+			int from = (min != null) ? lowerBound(min) : 0;
+			int to = (max != null && max != Integer.MAX_VALUE) ? lowerBound(max + 1) : this.values.length;
+			BitSet range = new BitSet(matches.length());
+			for (int i = from; i < to; i++) {
+				range.set(this.ids[i]);
+			}
+			matches.and(range);
+		}
+
+		private int lowerBound(int value) {
+			int low = 0;
+			int high = this.values.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (this.values[mid] < value) {
+					low = mid + 1;
+				}
+				else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+	}
+
+}
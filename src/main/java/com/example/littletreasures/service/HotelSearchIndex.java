@@ -0,0 +1,326 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import com.example.littletreasures.data.Hotel;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * In-memory inverted index used to search hotels by name, address, operator, theme and
+ * architects. Terms are kept in a sorted array so that every query term can be matched as
+ * a prefix with a binary search. Each term has a posting list of hotel ids together with
+ * the weight of the most important field that contains the term. Results are ranked by
+ * score and then by name, using a score histogram and precomputed name ranks so that
+ * ranking does not compare strings at query time.
+ */
+class HotelSearchIndex {
+
+	private static final Pattern APOSTROPHES = Pattern.compile("['\u2019]");
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private static final String[] NO_TOKENS = {};
+
+	private final List<Hotel> hotels;
+
+	private final String[] terms;
+
+	private final int[][] postings;
+
+	private final int[][] weights;
+
+	private final int[] nameRanks;
+
+	private final int[] byNameRank;
+
+	HotelSearchIndex(List<Hotel> hotels) {
+		this.hotels = hotels;
+		this.byNameRank = IntStream.range(0, hotels.size())
+			.boxed()
+			.sorted(Comparator.comparing((id) -> getName(hotels.get(id)), String.CASE_INSENSITIVE_ORDER))
+			.mapToInt(Integer::intValue)
+			.toArray();
+		this.nameRanks = new int[hotels.size()];
+		for (int rank = 0; rank < this.byNameRank.length; rank++) {
+			this.nameRanks[this.byNameRank[rank]] = rank;
+		}
+		TreeMap<String, Map<Integer, Integer>> index = new TreeMap<>();
+		for (int id = 0; id < hotels.size(); id++) {
+			Hotel hotel = hotels.get(id);
+			for (Field field : Field.values()) {
+				for (String token : tokenize(field.getText(hotel))) {
+					index.computeIfAbsent(token, (key) -> new TreeMap<>()).merge(id, field.weight, Math::max);
+				}
+			}
+		}
+		this.terms = new String[index.size()];
+		this.postings = new int[index.size()][];
+		this.weights = new int[index.size()][];
+		int i = 0;
+		for (Map.Entry<String, Map<Integer, Integer>> entry : index.entrySet()) {
+			this.terms[i] = entry.getKey();
+			this.postings[i] = entry.getValue().keySet().stream().mapToInt(Integer::intValue).toArray();
+			this.weights[i] = entry.getValue().values().stream().mapToInt(Integer::intValue).toArray();
+			i++;
+		}
+	}
+
+	/**
+	 * Search for hotels matching every term of the query. Each query term matches index
+	 * terms that start with it, with exact matches and matches in more important fields
+	 * ranking higher.
+	 * @param query the query
+	 * @param limit the maximum number of results
+	 * @return the matching hotels, best match first
+	 */
+	List<Hotel> search(String query, int limit) {
+		String[] tokens = tokenize(query);
+		if (tokens.length == 0 || limit <= 0) {
+			return Collections.emptyList();
+		}
+		Matches matches = null;
+		for (String token : tokens) {
+			Matches tokenMatches = match(token);
+			matches = (matches != null) ? matches.intersect(tokenMatches) : tokenMatches;
+			if (matches.size() == 0) {
+				return Collections.emptyList();
+			}
+		}
+		return top(matches, limit);
+	}
+
+	private Matches match(String token) {
+		int from = lowerBound(token);
+		int to = from;
+		while (to < this.terms.length && this.terms[to].startsWith(token)) {
+			to++;
+		}
+		if (to - from == 1) {
+			int boost = (this.terms[from].length() == token.length()) ? 2 : 1;
+			int[] scores = this.weights[from].clone();
+			for (int i = 0; i < scores.length; i++) {
+				scores[i] *= boost;
+			}
+			return new Matches(this.postings[from], scores, scores.length);
+		}
+		int[] best = new int[this.hotels.size()];
+		int size = 0;
+		for (int term = from; term < to; term++) {
+			int boost = (this.terms[term].length() == token.length()) ? 2 : 1;
+			int[] ids = this.postings[term];
+			int[] termWeights = this.weights[term];
+			for (int i = 0; i < ids.length; i++) {
+				size += (best[ids[i]] == 0) ? 1 : 0;
+				best[ids[i]] = Math.max(best[ids[i]], termWeights[i] * boost);
+			}
+		}
+		int[] ids = new int[size];
+		int[] scores = new int[size];
+		for (int id = 0, i = 0; i < size; id++) {
+			if (best[id] != 0) {
+				ids[i] = id;
+				scores[i++] = best[id];
+			}
+		}
+		return new Matches(ids, scores, size);
+	}
+
+	private List<Hotel> top(Matches matches, int limit) {
+		int maxScore = 0;
+		for (int i = 0; i < matches.size(); i++) {
+			maxScore = Math.max(maxScore, matches.scores()[i]);
+		}
+		int[] histogram = new int[maxScore + 1];
+		for (int i = 0; i < matches.size(); i++) {
+			histogram[matches.scores()[i]]++;
+		}
+		int threshold = maxScore;
+		int remaining = limit;
+		while (threshold > 0 && histogram[threshold] < remaining) {
+			remaining -= histogram[threshold--];
+		}
+		long[] ranked = new long[Math.min(limit, matches.size())];
+		int size = 0;
+		int[] ties = new int[Math.min(remaining, histogram[threshold])];
+		int tieCount = 0;
+		for (int i = 0; i < matches.size(); i++) {
+			int score = matches.scores()[i];
+			int nameRank = this.nameRanks[matches.ids()[i]];
+			if (score > threshold) {
+				ranked[size++] = rankKey(maxScore - score, nameRank);
+			}
+			else if (score == threshold && ties.length > 0) {
+				tieCount = offer(ties, tieCount, nameRank);
+			}
+		}
+		for (int i = 0; i < tieCount; i++) {
+			ranked[size++] = rankKey(maxScore - threshold, ties[i]);
+		}
+		Arrays.sort(ranked, 0, size);
+		Hotel[] result = new Hotel[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = this.hotels.get(this.byNameRank[(int) ranked[i]]);
+		}
+		return List.of(result);
+	}
+
+	private long rankKey(int scoreRank, int nameRank) {
+		return ((long) scoreRank << 32) | nameRank;
+	}
+
+	/**
+	 * Offer a value to a bounded max-heap that keeps the smallest values.
+	 * @param heap the heap
+	 * @param size the current size of the heap
+	 * @param value the value to offer
+	 * @return the new size of the heap
+	 */
+	private static int offer(int[] heap, int size, int value) {
+		if (size < heap.length) {
+			int i = size;
+			heap[i] = value;
+			while (i > 0 && heap[(i - 1) / 2] < heap[i]) {
+				swap(heap, i, (i - 1) / 2);
+				i = (i - 1) / 2;
+			}
+			return size + 1;
+		}
+		if (value < heap[0]) {
+			heap[0] = value;
+			int i = 0;
+			while (true) {
+				int largest = i;
+				for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+					largest = (heap[child] > heap[largest]) ? child : largest;
+				}
+				if (largest == i) {
+					break;
+				}
+				swap(heap, i, largest);
+				i = largest;
+			}
+		}
+		return size;
+	}
+
+	private static void swap(int[] array, int i, int j) {
+		int value = array[i];
+		array[i] = array[j];
+		array[j] = value;
+	}
+
+	private int lowerBound(String token) {
+		int index = Arrays.binarySearch(this.terms, token);
+		return (index >= 0) ? index : -index - 1;
+	}
+
+	private static String getName(Hotel hotel) {
+		return (hotel.name() != null) ? hotel.name() : "";
+	}
+
+	static String[] tokenize(String text) {
+		if (!StringUtils.hasText(text)) {
+			return NO_TOKENS;
+		}
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+		normalized = MARKS.matcher(normalized).replaceAll("");
+		normalized = APOSTROPHES.matcher(normalized).replaceAll("");
+		return Arrays.stream(SEPARATORS.split(normalized.toLowerCase(Locale.ROOT)))
+			.filter(StringUtils::hasLength)
+			.distinct()
+			.toArray(String[]::new);
+	}
+
+	/**
+	 * Hotels matched by one or more query terms, sorted by id.
+	 *
+	 * @param ids the hotel ids
+	 * @param scores the score of each hotel
+	 * @param size the number of matches
+	 */
+	private record Matches(int[] ids, int[] scores, int size) {
+
+		Matches intersect(Matches other) {
+			int[] ids = new int[Math.min(this.size, other.size)];
+			int[] scores = new int[ids.length];
+			int size = 0;
+			int i = 0;
+			int j = 0;
+			while (i < this.size && j < other.size) {
+				if (this.ids[i] < other.ids[j]) {
+					i++;
+				}
+				else if (this.ids[i] > other.ids[j]) {
+					j++;
+				}
+				else {
+					ids[size] = this.ids[i];
+					scores[size] = this.scores[i++] + other.scores[j++];
+					size++;
+				}
+			}
+			return new Matches(ids, scores, size);
+		}
+
+	}
+
+	/**
+	 * The indexed hotel fields and their weights.
+	 */
+	private enum Field {
+
+		NAME(8, Hotel::name),
+
+		ARCHITECTS(4, (hotel) -> (hotel.architects() != null) ? String.join(" ", hotel.architects()) : null),
+
+		OPERATOR(2, Hotel::operator),
+
+		THEME(2, Hotel::theme),
+
+		ADDRESS(1, Hotel::address);
+
+		private final int weight;
+
+		private final Function<Hotel, String> text;
+
+		Field(int weight, Function<Hotel, String> text) {
+			this.weight = weight;
+			this.text = text;
+		}
+
+		String getText(Hotel hotel) {
+			return this.text.apply(hotel);
+		}
+
+	}
+
+}
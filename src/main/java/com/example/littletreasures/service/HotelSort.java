@@ -0,0 +1,54 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.Comparator;
+
+import com.example.littletreasures.data.Hotel;
+
+/**
+ * Orders in which {@link HotelsService} can return hotels. Each order is backed by a
+ * presorted index so that sorted requests never sort at request time.
+ */
+public enum HotelSort {
+
+	/**
+	 * Sort by name, ignoring case.
+	 */
+	NAME(Comparator.comparing(Hotel::name, String.CASE_INSENSITIVE_ORDER)),
+
+	/**
+	 * Sort by the number of rooms.
+	 */
+	ROOMS(Comparator.comparingInt(Hotel::rooms)),
+
+	/**
+	 * Sort by the year that the hotel was opened, with unknown years last.
+	 */
+	OPENED(Comparator.comparing(Hotel::opened, Comparator.nullsLast(Comparator.naturalOrder())));
+
+	private final Comparator<Hotel> comparator;
+
+	HotelSort(Comparator<Hotel> comparator) {
+		this.comparator = comparator.thenComparing(Hotel::name, String.CASE_INSENSITIVE_ORDER);
+	}
+
+	Comparator<Hotel> getComparator() {
+		return this.comparator;
+	}
+
+}
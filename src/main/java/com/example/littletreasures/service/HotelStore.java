@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.example.littletreasures.data.Hotel;
+
+/**
+ * Compact store for the hotels of a {@link HotelsSnapshot}. Names are looked up
+ * case-insensitively through a {@link HotelNameIndex perfect hash index} of hotel ids
+ * rather than a map with entries per hotel, and hotels are grouped by geographic order
+ * into array-backed lists. Repeated values are already shared by the hotels of a
+ * {@link com.example.littletreasures.data.HotelProperties} instance.
+ */
+final class HotelStore {
+
+	private final List<Hotel> hotels;
+
+	private final HotelNameIndex nameIndex;
+
+	private final Map<String, List<Hotel>> byGeographicOrder;
+
+	HotelStore(List<Hotel> hotels) {
+		this.hotels = List.copyOf(hotels);
+		this.nameIndex = new HotelNameIndex(this.hotels);
+		this.byGeographicOrder = groupByGeographicOrder(this.hotels);
+	}
+
+	HotelStore(List<Hotel> hotels, HotelNameIndex nameIndex, Map<String, List<Hotel>> byGeographicOrder) {
+		this.hotels = List.copyOf(hotels);
+		this.nameIndex = nameIndex;
+		this.byGeographicOrder = Collections.unmodifiableMap(byGeographicOrder);
+	}
+
+	private static Map<String, List<Hotel>> groupByGeographicOrder(List<Hotel> hotels) {
+		Map<String, List<Hotel>> grouped = new LinkedHashMap<>();
+		for (Hotel hotel : hotels) {
+			grouped.computeIfAbsent(hotel.geographicOrder().toLowerCase(Locale.ROOT), (key) -> new ArrayList<>())
+				.add(hotel);
+		}
+		grouped.replaceAll((key, group) -> List.copyOf(group));
+		return Collections.unmodifiableMap(grouped);
+	}
+
+	/**
+	 * Return all stored hotels in their original order.
+	 * @return the hotels
+	 */
+	List<Hotel> getAll() {
+		return this.hotels;
+	}
+
+	/**
+	 * Find a hotel by its case-insensitive name. If several hotels share a name the last
+	 * one is returned.
+	 * @param name the hotel name
+	 * @return the hotel or {@code null}
+	 */
+	Hotel findByName(String name) {
+		int id = this.nameIndex.find(this.hotels, name);
+		return (id != -1) ? this.hotels.get(id) : null;
+	}
+
+	/**
+	 * Find hotels by their case-insensitive geographic order.
+	 * @param geographicOrder the geographic order
+	 * @return the hotels in their original order
+	 */
+	List<Hotel> findByGeographicOrder(String geographicOrder) {
+		return this.byGeographicOrder.getOrDefault(geographicOrder.toLowerCase(Locale.ROOT), Collections.emptyList());
+	}
+
+	HotelNameIndex getNameIndex() {
+		return this.nameIndex;
+	}
+
+	Map<String, List<Hotel>> getGeographicOrders() {
+		return this.byGeographicOrder;
+	}
+
+}
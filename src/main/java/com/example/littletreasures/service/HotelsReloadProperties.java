@@ -0,0 +1,35 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Properties for reloading the hotel data while the application is running.
+ *
+ * @param enabled if the hotel data should be watched for changes and reloaded
+ * @param location the location of the hotel data YAML
+ * @param interval the time between checks for changes
+ */
+@ConfigurationProperties(prefix = "littletreasures.hotels.reload")
+record HotelsReloadProperties(boolean enabled, @DefaultValue("classpath:hotels.yml") String location,
+		@DefaultValue("5s") Duration interval) {
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published by {@link HotelsReloader} when the hotel data has changed, so that
+ * anything derived from the data can be rebuilt before it is next requested.
+ */
+public class HotelsReloadedEvent extends ApplicationEvent {
+
+	private final HotelsView view;
+
+	/**
+	 * Create a new {@link HotelsReloadedEvent} instance.
+	 * @param hotelsService the service that was reloaded
+	 * @param view a view of the reloaded data
+	 */
+	public HotelsReloadedEvent(HotelsService hotelsService, HotelsView view) {
+		super(hotelsService);
+		this.view = view;
+	}
+
+	/**
+	 * Return a view of the reloaded hotel data.
+	 * @return the view
+	 */
+	public HotelsView getView() {
+		return this.view;
+	}
+
+}
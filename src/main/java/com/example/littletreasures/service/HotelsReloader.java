@@ -0,0 +1,144 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.log.LogMessage;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Watches the hotel data YAML when reloading is enabled and {@link HotelsService#reload
+ * reloads} the {@link HotelsService} in the background whenever the file changes. The
+ * file is checked by polling its last modified time so that any {@link Resource} location
+ * can be used. The file takes the place of the imported {@code hotels.yml} when the hotel
+ * data is bound, so properties that override it keep their precedence. Data that cannot
+ * be loaded is logged and the current data is kept. A {@link HotelsReloadedEvent} is
+ * published whenever the data changes.
+ */
+@Component
+class HotelsReloader implements InitializingBean, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(HotelsReloader.class);
+
+	private final HotelsReloadProperties properties;
+
+	private final HotelsService hotelsService;
+
+	private final Environment environment;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final Resource resource;
+
+	private ScheduledExecutorService executor;
+
+	private long lastModified;
+
+	HotelsReloader(HotelsReloadProperties properties, HotelsService hotelsService, Environment environment,
+			ApplicationEventPublisher eventPublisher) {
+		Assert.isTrue(properties.interval().toMillis() > 0, "'interval' must be positive");
+		this.properties = properties;
+		this.hotelsService = hotelsService;
+		this.environment = environment;
+		this.eventPublisher = eventPublisher;
+		this.resource = new DefaultResourceLoader().getResource(properties.location());
+		this.lastModified = getLastModified();
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.properties.enabled()) {
+			logger.info(LogMessage.format("Watching %s for hotel data changes", this.resource));
+			reload();
+			this.executor = Executors.newSingleThreadScheduledExecutor(createThreadFactory());
+			long interval = this.properties.interval().toMillis();
+			this.executor.scheduleWithFixedDelay(this::checkForChanges, interval, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private CustomizableThreadFactory createThreadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("hotels-reload-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+	@Override
+	public void destroy() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Reload the hotel data if the file has been modified since it was last checked.
+	 * @return if the hotel data changed
+	 */
+	boolean checkForChanges() {
+		long lastModified = getLastModified();
+		if (lastModified == this.lastModified) {
+			return false;
+		}
+		this.lastModified = lastModified;
+		return reload();
+	}
+
+	/**
+	 * Reload the hotel data.
+	 * @return if the hotel data changed
+	 */
+	boolean reload() {
+		try {
+			ClassPathResource source = new ClassPathResource(HotelsYaml.LOCATION);
+			if (this.hotelsService.reload(HotelsYaml.bind(this.environment, source, this.resource))) {
+				this.eventPublisher
+					.publishEvent(new HotelsReloadedEvent(this.hotelsService, this.hotelsService.getCurrent()));
+				return true;
+			}
+			return false;
+		}
+		catch (Exception ex) {
+			logger.warn(LogMessage.format("Unable to reload hotel data from %s", this.resource), ex);
+			return false;
+		}
+	}
+
+	private long getLastModified() {
+		try {
+			return this.resource.lastModified();
+		}
+		catch (IOException ex) {
+			return -1;
+		}
+	}
+
+}
@@ -16,56 +16,175 @@
 
 package com.example.littletreasures.service;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 import com.example.littletreasures.data.Hotel;
 import com.example.littletreasures.data.HotelProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.log.LogMessage;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
-import org.springframework.util.CollectionUtils;
-import org.springframework.util.LinkedCaseInsensitiveMap;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 
 /**
- * Hotel service used to access the hotel data.
+ * Hotel service used to access the hotel data. The data and all of its indexes are held
+ * in an immutable {@link HotelsSnapshot} that is replaced with a single reference write
+ * when the data is {@link #reload(HotelProperties) reloaded}, so readers never block.
+ * Callers that need several results from the same data can use a read-only
+ * {@link #getCurrent() view} of the current snapshot. When the build has
+ * {@link HotelDataCompiler compiled} the hotel data the snapshot is loaded from the
+ * compiled file and the YAML is only bound if that file is missing or out of date, or if
+ * {@code treasures} properties are overridden outside of the YAML. Lookups by name and
+ * geographic order are counted by a {@code hotels.lookups} counter tagged with the
+ * {@code lookup} and its {@code result}.
  */
 @Service
 public class HotelsService {
 
-	private final List<Hotel> all;
+	private static final Log logger = LogFactory.getLog(HotelsService.class);
 
-	private final Map<String, Hotel> byName;
+	private volatile HotelsView current;
 
-	private MultiValueMap<String, Hotel> byGeographicOrder;
+	@Autowired
+	HotelsService(Environment environment, MeterRegistry meterRegistry) {
+		this(load(environment), meterRegistry);
+	}
+
+	public HotelsService(HotelProperties properties, MeterRegistry meterRegistry) {
+		this(new HotelsSnapshot(properties), meterRegistry);
+	}
+
+	private HotelsService(HotelsSnapshot snapshot, MeterRegistry meterRegistry) {
+		this.current = new HotelsView(snapshot, meterRegistry);
+	}
+
+	private static HotelsSnapshot load(Environment environment) {
+		return load(environment, new ClassPathResource(HotelDataFile.LOCATION),
+				new ClassPathResource(HotelsYaml.LOCATION));
+	}
+
+	static HotelsSnapshot load(Environment environment, Resource data, Resource source) {
+		if (HotelsYaml.hasOverrides(environment, source)) {
+			logger.info("Binding hotel data from the environment as it overrides the compiled hotels");
+		}
+		else {
+			HotelsSnapshot snapshot = HotelDataFile.load(data, source);
+			if (snapshot != null) {
+				logger.info(LogMessage.format("Loaded %s compiled hotels", snapshot.getAll().size()));
+				return snapshot;
+			}
+		}
+		return new HotelsSnapshot(Binder.get(environment).bindOrCreate("treasures", HotelProperties.class));
+	}
 
-	HotelsService(HotelProperties properties) {
-		Assert.state(properties.fileVersion() == 1, "Only version 1 is supported");
-		LinkedCaseInsensitiveMap<Hotel> byName = new LinkedCaseInsensitiveMap<>();
-		List<Hotel> hotels = properties.hotels();
-		hotels.forEach((hotel) -> byName.put(hotel.name(), hotel));
-		MultiValueMap<String, Hotel> byGeographicOrder = new LinkedMultiValueMap<>();
-		hotels.forEach((hotel) -> byGeographicOrder.add(hotel.geographicOrder().toLowerCase(), hotel));
-		this.all = Collections.unmodifiableList(hotels);
-		this.byName = Collections.unmodifiableMap(byName);
-		this.byGeographicOrder = CollectionUtils.unmodifiableMultiValueMap(byGeographicOrder);
+	/**
+	 * Reload the hotel data, building a new snapshot with all indexes in the calling
+	 * thread before publishing it. If the data has not changed the current snapshot is
+	 * kept.
+	 * @param properties the new hotel data
+	 * @return if the data changed
+	 */
+	public boolean reload(HotelProperties properties) {
+		Assert.notNull(properties, "'properties' must not be null");
+		HotelsSnapshot snapshot = new HotelsSnapshot(properties);
+		if (snapshot.getChecksum().equals(this.current.getChecksum())) {
+			return false;
+		}
+		this.current = this.current.withSnapshot(snapshot);
+		logger.info(LogMessage.format("Reloaded %s hotels", snapshot.getAll().size()));
+		return true;
+	}
+
+	/**
+	 * Return a view of the current hotel data that is not affected by later reloads.
+	 * Callers that need several results from the same data, or results together with the
+	 * checksum of the data, should use a single view.
+	 * @return a view of the current hotel data
+	 */
+	public HotelsView getCurrent() {
+		return this.current;
 	}
 
 	public List<Hotel> getAll() {
-		return this.all;
+		return this.current.getAll();
+	}
+
+	/**
+	 * Return all hotels in the given order from a presorted index.
+	 * @param sort the sort order
+	 * @param descending if the order should be reversed
+	 * @return the sorted hotels
+	 */
+	public List<Hotel> getAll(HotelSort sort, boolean descending) {
+		return this.current.getAll(sort, descending);
 	}
 
 	public Hotel findByName(String name) {
-		Assert.hasLength(name, "'name' must not be empty");
-		return this.byName.get(name);
+		return this.current.findByName(name);
+	}
+
+	/**
+	 * Search for hotels by name, address, operator, theme and architects. Every word of
+	 * the query must match the start of a word in one of those fields.
+	 * @param query the search query
+	 * @param limit the maximum number of results
+	 * @return the matching hotels, best match first
+	 */
+	public List<Hotel> search(String query, int limit) {
+		return this.current.search(query, limit);
+	}
+
+	/**
+	 * Return the hotels matching all the criteria of a query. Criteria are answered from
+	 * secondary indexes built when the hotels are loaded.
+	 * @param query the query
+	 * @return the matching hotels in their original order
+	 */
+	public List<Hotel> query(HotelQuery query) {
+		return this.current.query(query);
+	}
+
+	/**
+	 * Return the hotels within a radius of a point. Hotels without a location are never
+	 * returned.
+	 * @param latitude the latitude of the point in degrees
+	 * @param longitude the longitude of the point in degrees
+	 * @param radius the radius in meters
+	 * @param limit the maximum number of results
+	 * @return the hotels, nearest first
+	 */
+	public List<Hotel> findWithin(double latitude, double longitude, double radius, int limit) {
+		return this.current.findWithin(latitude, longitude, radius, limit);
+	}
+
+	/**
+	 * Return the hotels nearest to a point. Hotels without a location are never returned.
+	 * @param latitude the latitude of the point in degrees
+	 * @param longitude the longitude of the point in degrees
+	 * @param count the maximum number of results
+	 * @return the hotels, nearest first
+	 */
+	public List<Hotel> findNearest(double latitude, double longitude, int count) {
+		return this.current.findNearest(latitude, longitude, count);
+	}
+
+	/**
+	 * Return a checksum of the hotel data that changes whenever the data changes.
+	 * @return the checksum
+	 */
+	public String getChecksum() {
+		return this.current.getChecksum();
 	}
 
 	public List<Hotel> findByGeographicOrder(String geographicOrder) {
-		Assert.hasLength(geographicOrder, "'geographicOrder' must not be empty");
-		return this.byGeographicOrder.getOrDefault(geographicOrder.toLowerCase(), Collections.emptyList());
+		return this.current.findByGeographicOrder(geographicOrder);
 	}
 
 }
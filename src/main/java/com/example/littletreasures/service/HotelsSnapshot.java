@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.data.HotelProperties;
+
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Immutable snapshot of the hotel data together with all of its indexes. Snapshots are
+ * fully built before they are published by {@link HotelsService}, so readers never see a
+ * partially built index. Hotels are held in a compact {@link HotelStore}.
+ */
+final class HotelsSnapshot {
+
+	private final HotelStore store;
+
+	private final Map<HotelSort, List<Hotel>> sorted;
+
+	private final Map<HotelSort, List<Hotel>> sortedDescending;
+
+	private final HotelSearchIndex searchIndex;
+
+	private final HotelQueryIndex queryIndex;
+
+	private final HotelGeoIndex geoIndex;
+
+	private final String checksum;
+
+	HotelsSnapshot(HotelProperties properties) {
+		this(new HotelStore(validate(properties).hotels()), null);
+	}
+
+	HotelsSnapshot(HotelStore store, String checksum) {
+		this.store = store;
+		List<Hotel> hotels = this.store.getAll();
+		this.sorted = new EnumMap<>(HotelSort.class);
+		this.sortedDescending = new EnumMap<>(HotelSort.class);
+		for (HotelSort sort : HotelSort.values()) {
+			List<Hotel> sorted = new ArrayList<>(hotels);
+			sorted.sort(sort.getComparator());
+			this.sorted.put(sort, Collections.unmodifiableList(sorted));
+			List<Hotel> sortedDescending = new ArrayList<>(sorted);
+			Collections.reverse(sortedDescending);
+			this.sortedDescending.put(sort, Collections.unmodifiableList(sortedDescending));
+		}
+		this.searchIndex = new HotelSearchIndex(hotels);
+		this.queryIndex = new HotelQueryIndex(hotels);
+		this.geoIndex = new HotelGeoIndex(hotels);
+		this.checksum = (checksum != null) ? checksum : getChecksum(hotels);
+	}
+
+	private static HotelProperties validate(HotelProperties properties) {
+		Assert.state(properties.fileVersion() == 1, "Only version 1 is supported");
+		return properties;
+	}
+
+	private static String getChecksum(List<Hotel> hotels) {
+		return DigestUtils.md5DigestAsHex(hotels.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	HotelStore getStore() {
+		return this.store;
+	}
+
+	List<Hotel> getAll() {
+		return this.store.getAll();
+	}
+
+	List<Hotel> getAll(HotelSort sort, boolean descending) {
+		return (descending) ? this.sortedDescending.get(sort) : this.sorted.get(sort);
+	}
+
+	Hotel findByName(String name) {
+		return this.store.findByName(name);
+	}
+
+	List<Hotel> findByGeographicOrder(String geographicOrder) {
+		return this.store.findByGeographicOrder(geographicOrder);
+	}
+
+	HotelSearchIndex getSearchIndex() {
+		return this.searchIndex;
+	}
+
+	HotelQueryIndex getQueryIndex() {
+		return this.queryIndex;
+	}
+
+	HotelGeoIndex getGeoIndex() {
+		return this.geoIndex;
+	}
+
+	String getChecksum() {
+		return this.checksum;
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.List;
+
+import com.example.littletreasures.data.Hotel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.util.Assert;
+
+/**
+ * Read-only view of one version of the hotel data, returned from
+ * {@link HotelsService#getCurrent()}. A view is not affected by later reloads, so all of
+ * its results and its {@link #getChecksum() checksum} come from the same data. Lookups by
+ * name and geographic order are counted by the {@code hotels.lookups} counters shared by
+ * every view of the same service.
+ */
+public final class HotelsView {
+
+	private final HotelsSnapshot snapshot;
+
+	private final Counter nameHits;
+
+	private final Counter nameMisses;
+
+	private final Counter geographicOrderHits;
+
+	private final Counter geographicOrderMisses;
+
+	HotelsView(HotelsSnapshot snapshot, MeterRegistry meterRegistry) {
+		this.snapshot = snapshot;
+		this.nameHits = createLookupCounter(meterRegistry, "name", "hit");
+		this.nameMisses = createLookupCounter(meterRegistry, "name", "miss");
+		this.geographicOrderHits = createLookupCounter(meterRegistry, "geographic-order", "hit");
+		this.geographicOrderMisses = createLookupCounter(meterRegistry, "geographic-order", "miss");
+	}
+
+	private HotelsView(HotelsSnapshot snapshot, HotelsView view) {
+		this.snapshot = snapshot;
+		this.nameHits = view.nameHits;
+		this.nameMisses = view.nameMisses;
+		this.geographicOrderHits = view.geographicOrderHits;
+		this.geographicOrderMisses = view.geographicOrderMisses;
+	}
+
+	private static Counter createLookupCounter(MeterRegistry meterRegistry, String lookup, String result) {
+		return Counter.builder("hotels.lookups")
+			.description("Hotel lookups by name or geographic order")
+			.tag("lookup", lookup)
+			.tag("result", result)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Return a view of other hotel data that shares the lookup counters of this view.
+	 * @param snapshot the hotel data
+	 * @return the new view
+	 */
+	HotelsView withSnapshot(HotelsSnapshot snapshot) {
+		return new HotelsView(snapshot, this);
+	}
+
+	public List<Hotel> getAll() {
+		return this.snapshot.getAll();
+	}
+
+	/**
+	 * Return all hotels in the given order from a presorted index.
+	 * @param sort the sort order
+	 * @param descending if the order should be reversed
+	 * @return the sorted hotels
+	 */
+	public List<Hotel> getAll(HotelSort sort, boolean descending) {
+		Assert.notNull(sort, "'sort' must not be null");
+		return this.snapshot.getAll(sort, descending);
+	}
+
+	public Hotel findByName(String name) {
+		Assert.hasLength(name, "'name' must not be empty");
+		Hotel hotel = this.snapshot.findByName(name);
+		((hotel != null) ? this.nameHits : this.nameMisses).increment();
+		return hotel;
+	}
+
+	/**
+	 * Search for hotels by name, address, operator, theme and architects. Every word of
+	 * the query must match the start of a word in one of those fields.
+	 * @param query the search query
+	 * @param limit the maximum number of results
+	 * @return the matching hotels, best match first
+	 */
+	public List<Hotel> search(String query, int limit) {
+		Assert.notNull(query, "'query' must not be null");
+		Assert.isTrue(limit > 0, "'limit' must be positive");
+		return this.snapshot.getSearchIndex().search(query, limit);
+	}
+
+	/**
+	 * Return the hotels matching all the criteria of a query. Criteria are answered from
+	 * secondary indexes built when the hotels are loaded.
+	 * @param query the query
+	 * @return the matching hotels in their original order
+	 */
+	public List<Hotel> query(HotelQuery query) {
+		Assert.notNull(query, "'query' must not be null");
+		return this.snapshot.getQueryIndex().query(query);
+	}
+
+	/**
+	 * Return the hotels within a radius of a point. Hotels without a location are never
+	 * returned.
+	 * @param latitude the latitude of the point in degrees
+	 * @param longitude the longitude of the point in degrees
+	 * @param radius the radius in meters
+	 * @param limit the maximum number of results
+	 * @return the hotels, nearest first
+	 */
+	public List<Hotel> findWithin(double latitude, double longitude, double radius, int limit) {
+		assertLocation(latitude, longitude);
+		Assert.isTrue(radius > 0, "'radius' must be positive");
+		Assert.isTrue(limit > 0, "'limit' must be positive");
+		return this.snapshot.getGeoIndex().findWithin(latitude, longitude, radius, limit);
+	}
+
+	/**
+	 * Return the hotels nearest to a point. Hotels without a location are never returned.
+	 * @param latitude the latitude of the point in degrees
+	 * @param longitude the longitude of the point in degrees
+	 * @param count the maximum number of results
+	 * @return the hotels, nearest first
+	 */
+	public List<Hotel> findNearest(double latitude, double longitude, int count) {
+		assertLocation(latitude, longitude);
+		Assert.isTrue(count > 0, "'count' must be positive");
+		return this.snapshot.getGeoIndex().findNearest(latitude, longitude, count);
+	}
+
+	private void assertLocation(double latitude, double longitude) {
+		Assert.isTrue(latitude >= -90 && latitude <= 90, "'latitude' must be between -90 and 90");
+		Assert.isTrue(longitude >= -180 && longitude <= 180, "'longitude' must be between -180 and 180");
+	}
+
+	/**
+	 * Return a checksum of the hotel data that changes whenever the data changes.
+	 * @return the checksum
+	 */
+	public String getChecksum() {
+		return this.snapshot.getChecksum();
+	}
+
+	public List<Hotel> findByGeographicOrder(String geographicOrder) {
+		Assert.hasLength(geographicOrder, "'geographicOrder' must not be empty");
+		List<Hotel> hotels = this.snapshot.findByGeographicOrder(geographicOrder);
+		((!hotels.isEmpty()) ? this.geographicOrderHits : this.geographicOrderMisses).increment();
+		return hotels;
+	}
+
+}
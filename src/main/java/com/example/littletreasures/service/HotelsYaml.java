@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.example.littletreasures.data.HotelProperties;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyState;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Loads {@link HotelProperties} from a hotel data YAML file outside of the application
+ * environment.
+ */
+final class HotelsYaml {
+
+	/**
+	 * The location of the hotel data YAML that is imported into the environment.
+	 */
+	static final String LOCATION = "hotels.yml";
+
+	private static final ConfigurationPropertyName NAME = ConfigurationPropertyName.of("treasures");
+
+	private HotelsYaml() {
+	}
+
+	/**
+	 * Load the hotel data from the given YAML resource.
+	 * @param resource the YAML resource
+	 * @return the hotel data
+	 * @throws IOException if the resource cannot be read
+	 */
+	static HotelProperties load(Resource resource) throws IOException {
+		return new Binder(ConfigurationPropertySources.from(new YamlPropertySourceLoader().load("hotels", resource)))
+			.bindOrCreate("treasures", HotelProperties.class);
+	}
+
+	/**
+	 * Bind the hotel data from the environment in the same way as when the application
+	 * starts, but with the imported YAML source replaced by the current content of the
+	 * given resource. Properties that override the YAML keep their precedence.
+	 * @param environment the environment
+	 * @param source the YAML source imported into the environment
+	 * @param resource the YAML resource to load
+	 * @return the hotel data
+	 * @throws IOException if the resource cannot be read
+	 */
+	static HotelProperties bind(Environment environment, Resource source, Resource resource) throws IOException {
+		List<PropertySource<?>> loaded = new YamlPropertySourceLoader().load("hotels", resource);
+		MutablePropertySources propertySources = new MutablePropertySources();
+		boolean replaced = false;
+		if (environment instanceof ConfigurableEnvironment configurableEnvironment) {
+			for (PropertySource<?> propertySource : configurableEnvironment.getPropertySources()) {
+				if (!isLoadedFrom(propertySource, source)) {
+					propertySources.addLast(propertySource);
+				}
+				else if (!replaced) {
+					loaded.forEach(propertySources::addLast);
+					replaced = true;
+				}
+			}
+		}
+		if (!replaced) {
+			loaded.forEach(propertySources::addLast);
+		}
+		return new Binder(ConfigurationPropertySources.from(propertySources),
+				new PropertySourcesPlaceholdersResolver(propertySources))
+			.bindOrCreate("treasures", HotelProperties.class);
+	}
+
+	/**
+	 * Return if the environment has hotel data properties that do not come from the given
+	 * YAML source, for example from a profile, an environment variable or a command line
+	 * argument.
+	 * @param environment the environment
+	 * @param source the YAML source imported into the environment
+	 * @return if the hotel data is overridden
+	 */
+	static boolean hasOverrides(Environment environment, Resource source) {
+		if (!(environment instanceof ConfigurableEnvironment configurableEnvironment)) {
+			return true;
+		}
+		for (PropertySource<?> propertySource : configurableEnvironment.getPropertySources()) {
+			ConfigurationPropertySource configurationPropertySource = ConfigurationPropertySource.from(propertySource);
+			if (configurationPropertySource != null && !isLoadedFrom(propertySource, source)
+					&& configurationPropertySource.containsDescendantOf(NAME) == ConfigurationPropertyState.PRESENT) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isLoadedFrom(PropertySource<?> propertySource, Resource source) {
+		return propertySource.getName().contains(source.getDescription());
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.threads;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link Executor} that runs each task on a new thread, rejecting tasks once a limit of
+ * concurrently running tasks has been reached. Intended for virtual threads, which should
+ * be limited with permits rather than pooled.
+ */
+public class BoundedThreadPerTaskExecutor implements Executor {
+
+	private final ThreadFactory threadFactory;
+
+	private final int limit;
+
+	private final Semaphore permits;
+
+	/**
+	 * Create a new {@link BoundedThreadPerTaskExecutor} instance.
+	 * @param threadFactory the factory used to create threads
+	 * @param limit the maximum number of concurrently running tasks
+	 */
+	public BoundedThreadPerTaskExecutor(ThreadFactory threadFactory, int limit) {
+		Assert.notNull(threadFactory, "'threadFactory' must not be null");
+		Assert.isTrue(limit > 0, "'limit' must be positive");
+		this.threadFactory = threadFactory;
+		this.limit = limit;
+		this.permits = new Semaphore(limit);
+	}
+
+	@Override
+	public void execute(Runnable task) {
+		if (!this.permits.tryAcquire()) {
+			throw new RejectedExecutionException("Limit of " + this.limit + " concurrent tasks reached");
+		}
+		try {
+			this.threadFactory.newThread(() -> {
+				try {
+					task.run();
+				}
+				finally {
+					this.permits.release();
+				}
+			}).start();
+		}
+		catch (RuntimeException ex) {
+			this.permits.release();
+			throw ex;
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.threads;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Factory methods for virtual threads. The project is compiled for Java 17 so the Java 21
+ * API is called reflectively.
+ */
+public final class VirtualThreads {
+
+	private static final Method OF_VIRTUAL = ReflectionUtils.findMethod(Thread.class, "ofVirtual");
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * Return if virtual threads are supported by the running JVM.
+	 * @return if virtual threads are supported
+	 */
+	public static boolean isSupported() {
+		return OF_VIRTUAL != null && Runtime.version().feature() >= 21;
+	}
+
+	/**
+	 * Return a {@link ThreadFactory} that creates virtual threads.
+	 * @param prefix the prefix for thread names
+	 * @return the thread factory
+	 * @throws IllegalStateException if virtual threads are not supported
+	 */
+	public static ThreadFactory newThreadFactory(String prefix) {
+		Assert.state(isSupported(), "Virtual threads require Java 21 or later");
+		Class<?> builderType = ClassUtils.resolveClassName("java.lang.Thread$Builder", null);
+		Method name = ReflectionUtils.findMethod(builderType, "name", String.class, long.class);
+		Method factory = ReflectionUtils.findMethod(builderType, "factory");
+		Object builder = ReflectionUtils.invokeMethod(OF_VIRTUAL, null);
+		builder = ReflectionUtils.invokeMethod(name, builder, prefix, 0L);
+		return (ThreadFactory) ReflectionUtils.invokeMethod(factory, builder);
+	}
+
+	/**
+	 * Return an {@link Executor} that runs each task on a new virtual thread.
+	 * @param prefix the prefix for thread names
+	 * @return the executor
+	 * @throws IllegalStateException if virtual threads are not supported
+	 */
+	public static Executor newExecutor(String prefix) {
+		ThreadFactory threadFactory = newThreadFactory(prefix);
+		return (task) -> threadFactory.newThread(task).start();
+	}
+
+}
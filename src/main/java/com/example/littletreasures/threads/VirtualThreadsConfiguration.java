@@ -0,0 +1,42 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.threads;
+
+import java.util.concurrent.Executor;
+
+import org.apache.coyote.ProtocolHandler;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@link Configuration @Configuration} that runs Tomcat request handling on virtual
+ * threads when {@code littletreasures.threads.virtual} is enabled.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "littletreasures.threads", name = "virtual", havingValue = "true")
+class VirtualThreadsConfiguration {
+
+	@Bean
+	TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+		Executor executor = VirtualThreads.newExecutor("tomcat-handler-");
+		return (protocolHandler) -> protocolHandler.setExecutor(executor);
+	}
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+/**
+ * Policies that can be used to pick the entries to evict when the {@link ThumbnailCache}
+ * is full.
+ */
+public enum EvictionPolicy {
+
+	/**
+	 * Evict the least recently used entry.
+	 */
+	LRU,
+
+	/**
+	 * Evict the least frequently used entry.
+	 */
+	LFU,
+
+	/**
+	 * Admit entries through a small LRU window and only keep them when they are used more
+	 * frequently than the entry they would replace (W-TinyLFU).
+	 */
+	W_TINY_LFU
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.DigestUtils;
+
+/**
+ * A created thumbnail together with the validators needed to serve it. The entity tag is
+ * a hash of the content that is calculated once when the thumbnail is created.
+ */
+public final class Thumbnail {
+
+	private final byte[] content;
+
+	private final String eTag;
+
+	private final long lastModified;
+
+	private final Path file;
+
+	/**
+	 * Create a new {@link Thumbnail} instance.
+	 * @param content the thumbnail content
+	 * @param lastModified the time that the source image was last modified, or {@code -1}
+	 * if not known
+	 * @param file the file that the thumbnail should be served from, or {@code null} to
+	 * serve the content from memory
+	 */
+	public Thumbnail(byte[] content, long lastModified, Path file) {
+		this.content = content;
+		this.eTag = "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+		this.lastModified = lastModified;
+		this.file = file;
+	}
+
+	/**
+	 * Return the content of the thumbnail.
+	 * @return the thumbnail bytes
+	 */
+	public byte[] getContent() {
+		return this.content;
+	}
+
+	/**
+	 * Return the strong entity tag of the thumbnail.
+	 * @return the quoted entity tag
+	 */
+	public String getETag() {
+		return this.eTag;
+	}
+
+	/**
+	 * Return the time that the source image was last modified.
+	 * @return the last modified time in milliseconds since the epoch, or {@code -1} if
+	 * not known
+	 */
+	public long getLastModified() {
+		return this.lastModified;
+	}
+
+	/**
+	 * Return the thumbnail as a {@link Resource}. If the thumbnail should be served from
+	 * a stored file then the resource is backed by that file.
+	 * @return the thumbnail resource
+	 */
+	public Resource getResource() {
+		return (this.file != null && Files.isReadable(this.file)) ? new FileSystemResource(this.file)
+				: new ByteArrayResource(this.content);
+	}
+
+	int size() {
+		return this.content.length;
+	}
+
+}
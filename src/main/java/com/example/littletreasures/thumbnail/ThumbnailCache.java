@@ -0,0 +1,638 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.springframework.util.Assert;
+import org.springframework.util.function.ThrowingFunction;
+
+/**
+ * Bounded in-memory cache of {@link Thumbnail thumbnails}. Entries are weighed by their
+ * size in bytes and evicted using the configured {@link EvictionPolicy} once the total
+ * size exceeds the budget.
+ */
+public final class ThumbnailCache {
+
+	private final long maxSize;
+
+	private final long timeToLive;
+
+	private final long loadTimeout;
+
+	private final LongSupplier ticker;
+
+	private final Eviction eviction;
+
+	private final Lock lock = new ReentrantLock();
+
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	private final Map<String, CompletableFuture<Thumbnail>> loading = new ConcurrentHashMap<>();
+
+	private long size;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder loadCount = new LongAdder();
+
+	private final LongAdder totalLoadTime = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	ThumbnailCache(ThumbnailProperties.Cache properties) {
+		this(properties, System::nanoTime);
+	}
+
+	ThumbnailCache(ThumbnailProperties.Cache properties, LongSupplier ticker) {
+		Assert.isTrue(properties.maxSize().toBytes() > 0, "'maxSize' must be positive");
+		this.maxSize = properties.maxSize().toBytes();
+		this.timeToLive = (properties.timeToLive() != null) ? properties.timeToLive().toNanos() : 0;
+		this.loadTimeout = properties.loadTimeout().toNanos();
+		this.ticker = ticker;
+		this.eviction = switch (properties.eviction()) {
+			case LRU -> new LeastRecentlyUsed();
+			case LFU -> new LeastFrequentlyUsed();
+			case W_TINY_LFU -> new WindowTinyLfu(this.maxSize);
+		};
+	}
+
+	/**
+	 * Return the cached thumbnail for the given key.
+	 * @param key the cache key
+	 * @return the thumbnail or {@code null} if the key is not cached
+	 */
+	Thumbnail get(String key) {
+		return get(key, true);
+	}
+
+	private Thumbnail get(String key, boolean recordStats) {
+		long now = this.ticker.getAsLong();
+		this.lock.lock();
+		try {
+			Entry entry = this.entries.get(key);
+			if (entry != null && entry.hasExpired(now)) {
+				remove(entry);
+				this.evictionCount.increment();
+				entry = null;
+			}
+			if (!recordStats) {
+				return (entry != null) ? entry.value : null;
+			}
+			if (entry == null) {
+				this.eviction.missed(key);
+				this.missCount.increment();
+				return null;
+			}
+			this.eviction.accessed(entry);
+			this.hitCount.increment();
+			return entry.value;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the cached thumbnail for the given key, using the loader to create and cache
+	 * it if necessary. Concurrent calls for the same key share a single load, with
+	 * callers that did not start the load waiting up to the configured load timeout for
+	 * its result.
+	 * @param key the cache key
+	 * @param loader the loader used when the key is not cached, may return {@code null}
+	 * if there is no thumbnail for the key
+	 * @return the thumbnail or {@code null}
+	 * @throws ThumbnailLoadTimeoutException if the load started by another caller did not
+	 * complete in time
+	 */
+	Thumbnail get(String key, ThrowingFunction<String, Thumbnail> loader) {
+		Thumbnail value = get(key);
+		if (value != null) {
+			return value;
+		}
+		CompletableFuture<Thumbnail> load = new CompletableFuture<>();
+		CompletableFuture<Thumbnail> inFlight = this.loading.putIfAbsent(key, load);
+		if (inFlight != null) {
+			return await(key, inFlight);
+		}
+		try {
+			value = get(key, false);
+			if (value == null) {
+				value = load(key, loader);
+			}
+			load.complete(value);
+			return value;
+		}
+		catch (RuntimeException ex) {
+			load.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.loading.remove(key, load);
+		}
+	}
+
+	/**
+	 * Return the cached thumbnail for the given key, using the loader on the given
+	 * executor to create and cache it if necessary. Cached thumbnails are returned as
+	 * completed futures and concurrent calls for the same key share a single load, with
+	 * callers that did not start the load failing with a
+	 * {@link ThumbnailLoadTimeoutException} if it does not complete in time.
+	 * @param key the cache key
+	 * @param loader the loader used when the key is not cached, may return {@code null}
+	 * if there is no thumbnail for the key
+	 * @param executor the executor used to run the loader
+	 * @return a future for the thumbnail or {@code null}
+	 * @throws RejectedExecutionException if the executor does not accept the load
+	 */
+	CompletableFuture<Thumbnail> getAsync(String key, ThrowingFunction<String, Thumbnail> loader, Executor executor) {
+		Thumbnail value = get(key);
+		if (value != null) {
+			return CompletableFuture.completedFuture(value);
+		}
+		CompletableFuture<Thumbnail> load = new CompletableFuture<>();
+		CompletableFuture<Thumbnail> inFlight = this.loading.putIfAbsent(key, load);
+		if (inFlight != null) {
+			return inFlight.copy().orTimeout(this.loadTimeout, TimeUnit.NANOSECONDS).exceptionally((ex) -> {
+				if (ex instanceof TimeoutException) {
+					throw new ThumbnailLoadTimeoutException(key, ex);
+				}
+				throw (ex instanceof CompletionException completionException) ? completionException
+						: new CompletionException(ex);
+			});
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					Thumbnail loaded = get(key, false);
+					load.complete((loaded != null) ? loaded : load(key, loader));
+				}
+				catch (Throwable ex) {
+					load.completeExceptionally(ex);
+				}
+				finally {
+					this.loading.remove(key, load);
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			this.loading.remove(key, load);
+			load.completeExceptionally(ex);
+			throw ex;
+		}
+		return load;
+	}
+
+	private Thumbnail load(String key, ThrowingFunction<String, Thumbnail> loader) {
+		long start = this.ticker.getAsLong();
+		Thumbnail value;
+		try {
+			value = loader.apply(key);
+		}
+		finally {
+			this.loadCount.increment();
+			this.totalLoadTime.add(this.ticker.getAsLong() - start);
+		}
+		if (value != null) {
+			put(key, value);
+		}
+		return value;
+	}
+
+	private Thumbnail await(String key, CompletableFuture<Thumbnail> load) {
+		try {
+			return load.get(this.loadTimeout, TimeUnit.NANOSECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted waiting for thumbnail '" + key + "'", ex);
+		}
+		catch (TimeoutException ex) {
+			throw new ThumbnailLoadTimeoutException(key, ex);
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException("Unable to load thumbnail '" + key + "'", ex.getCause());
+		}
+	}
+
+	/**
+	 * Add a thumbnail to the cache, evicting other entries if necessary.
+	 * @param key the cache key
+	 * @param value the thumbnail
+	 */
+	void put(String key, Thumbnail value) {
+		if (value.size() > this.maxSize) {
+			return;
+		}
+		long expires = (this.timeToLive > 0) ? this.ticker.getAsLong() + this.timeToLive : Long.MAX_VALUE;
+		Entry entry = new Entry(key, value, expires);
+		this.lock.lock();
+		try {
+			Entry previous = this.entries.get(key);
+			if (previous != null) {
+				remove(previous);
+			}
+			while (this.size + entry.weight > this.maxSize) {
+				Entry victim = this.eviction.nextVictim();
+				this.entries.remove(victim.key);
+				this.size -= victim.weight;
+				this.evictionCount.increment();
+			}
+			this.entries.put(key, entry);
+			this.size += entry.weight;
+			this.eviction.added(entry);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void remove(Entry entry) {
+		this.entries.remove(entry.key);
+		this.size -= entry.weight;
+		this.eviction.removed(entry);
+	}
+
+	private static Entry removeFirst(Set<Entry> entries) {
+		Iterator<Entry> iterator = entries.iterator();
+		Entry first = iterator.next();
+		iterator.remove();
+		return first;
+	}
+
+	/**
+	 * Return a snapshot of the cache statistics.
+	 * @return the statistics
+	 */
+	public Stats getStats() {
+		long entryCount;
+		long size;
+		this.lock.lock();
+		try {
+			entryCount = this.entries.size();
+			size = this.size;
+		}
+		finally {
+			this.lock.unlock();
+		}
+		return new Stats(this.hitCount.sum(), this.missCount.sum(), this.loadCount.sum(),
+				Duration.ofNanos(this.totalLoadTime.sum()), this.evictionCount.sum(), entryCount, size);
+	}
+
+	/**
+	 * Statistics for a {@link ThumbnailCache}.
+	 *
+	 * @param hitCount the number of lookups that found a cached thumbnail
+	 * @param missCount the number of lookups that did not find a cached thumbnail
+	 * @param loadCount the number of thumbnails that have been loaded
+	 * @param totalLoadTime the total time spent loading thumbnails
+	 * @param evictionCount the number of thumbnails that have been evicted or have
+	 * expired
+	 * @param entryCount the number of cached thumbnails
+	 * @param size the total size in bytes of the cached thumbnails
+	 */
+	public record Stats(long hitCount, long missCount, long loadCount, Duration totalLoadTime, long evictionCount,
+			long entryCount, long size) {
+
+		/**
+		 * Return the ratio of lookups that found a cached thumbnail.
+		 * @return the hit ratio
+		 */
+		public double hitRatio() {
+			long requestCount = this.hitCount + this.missCount;
+			return (requestCount != 0) ? (double) this.hitCount / requestCount : 1.0;
+		}
+
+		/**
+		 * Return the average time spent loading a thumbnail.
+		 * @return the average load time
+		 */
+		public Duration averageLoadTime() {
+			return (this.loadCount != 0) ? this.totalLoadTime.dividedBy(this.loadCount) : Duration.ZERO;
+		}
+
+	}
+
+	/**
+	 * A single cache entry.
+	 */
+	private static final class Entry {
+
+		final String key;
+
+		final Thumbnail value;
+
+		final long weight;
+
+		final long expires;
+
+		long frequency;
+
+		long order;
+
+		boolean inMainSegment;
+
+		Entry(String key, Thumbnail value, long expires) {
+			this.key = key;
+			this.value = value;
+			this.weight = value.size();
+			this.expires = expires;
+		}
+
+		boolean hasExpired(long now) {
+			return now - this.expires >= 0;
+		}
+
+	}
+
+	/**
+	 * Strategy used to track entries and pick eviction victims. Always called with the
+	 * cache lock held.
+	 */
+	private interface Eviction {
+
+		void added(Entry entry);
+
+		void accessed(Entry entry);
+
+		void removed(Entry entry);
+
+		/**
+		 * Stop tracking and return the next entry that should be evicted.
+		 * @return the victim
+		 */
+		Entry nextVictim();
+
+		default void missed(String key) {
+		}
+
+	}
+
+	/**
+	 * {@link Eviction} for {@link EvictionPolicy#LRU}.
+	 */
+	private static class LeastRecentlyUsed implements Eviction {
+
+		private final Set<Entry> entries = new LinkedHashSet<>();
+
+		@Override
+		public void added(Entry entry) {
+			this.entries.add(entry);
+		}
+
+		@Override
+		public void accessed(Entry entry) {
+			this.entries.remove(entry);
+			this.entries.add(entry);
+		}
+
+		@Override
+		public void removed(Entry entry) {
+			this.entries.remove(entry);
+		}
+
+		@Override
+		public Entry nextVictim() {
+			return removeFirst(this.entries);
+		}
+
+	}
+
+	/**
+	 * {@link Eviction} for {@link EvictionPolicy#LFU}. Ties are broken by evicting the
+	 * least recently used entry.
+	 */
+	private static class LeastFrequentlyUsed implements Eviction {
+
+		private final NavigableSet<Entry> entries = new TreeSet<>(
+				Comparator.comparingLong((Entry entry) -> entry.frequency).thenComparingLong((entry) -> entry.order));
+
+		private long order;
+
+		@Override
+		public void added(Entry entry) {
+			entry.frequency = 1;
+			entry.order = ++this.order;
+			this.entries.add(entry);
+		}
+
+		@Override
+		public void accessed(Entry entry) {
+			this.entries.remove(entry);
+			entry.frequency++;
+			entry.order = ++this.order;
+			this.entries.add(entry);
+		}
+
+		@Override
+		public void removed(Entry entry) {
+			this.entries.remove(entry);
+		}
+
+		@Override
+		public Entry nextVictim() {
+			return this.entries.pollFirst();
+		}
+
+	}
+
+	/**
+	 * {@link Eviction} for {@link EvictionPolicy#W_TINY_LFU}. New entries enter a small
+	 * LRU window. Entries leaving the window are only admitted to the main LRU segment
+	 * when their estimated frequency beats that of the main segment's victim.
+	 */
+	private static class WindowTinyLfu implements Eviction {
+
+		private static final int WINDOW_PERCENTAGE = 1;
+
+		private final long windowMaxSize;
+
+		private final long mainMaxSize;
+
+		private final FrequencySketch sketch;
+
+		private final Set<Entry> window = new LinkedHashSet<>();
+
+		private final Set<Entry> main = new LinkedHashSet<>();
+
+		private long windowSize;
+
+		private long mainSize;
+
+		WindowTinyLfu(long maxSize) {
+			this.windowMaxSize = maxSize * WINDOW_PERCENTAGE / 100;
+			this.mainMaxSize = maxSize - this.windowMaxSize;
+			this.sketch = new FrequencySketch(maxSize);
+		}
+
+		@Override
+		public void added(Entry entry) {
+			this.sketch.increment(entry.key);
+			this.window.add(entry);
+			this.windowSize += entry.weight;
+		}
+
+		@Override
+		public void accessed(Entry entry) {
+			this.sketch.increment(entry.key);
+			Set<Entry> segment = (entry.inMainSegment) ? this.main : this.window;
+			segment.remove(entry);
+			segment.add(entry);
+		}
+
+		@Override
+		public void missed(String key) {
+			this.sketch.increment(key);
+		}
+
+		@Override
+		public void removed(Entry entry) {
+			if (entry.inMainSegment) {
+				this.main.remove(entry);
+				this.mainSize -= entry.weight;
+			}
+			else {
+				this.window.remove(entry);
+				this.windowSize -= entry.weight;
+			}
+		}
+
+		@Override
+		public Entry nextVictim() {
+			while (this.windowSize > this.windowMaxSize && !this.window.isEmpty()) {
+				Entry candidate = removeFirst(this.window);
+				this.windowSize -= candidate.weight;
+				if (this.main.isEmpty() || this.mainSize + candidate.weight <= this.mainMaxSize) {
+					addToMain(candidate);
+					continue;
+				}
+				Entry victim = this.main.iterator().next();
+				if (this.sketch.frequency(candidate.key) <= this.sketch.frequency(victim.key)) {
+					return candidate;
+				}
+				removed(victim);
+				addToMain(candidate);
+				return victim;
+			}
+			Entry victim = (!this.main.isEmpty()) ? this.main.iterator().next() : this.window.iterator().next();
+			removed(victim);
+			return victim;
+		}
+
+		private void addToMain(Entry entry) {
+			entry.inMainSegment = true;
+			this.main.add(entry);
+			this.mainSize += entry.weight;
+		}
+
+	}
+
+	/**
+	 * Count-min sketch used to estimate how often a key has been requested. Counters are
+	 * halved periodically so that old popularity fades.
+	 */
+	private static final class FrequencySketch {
+
+		private static final int DEPTH = 4;
+
+		private static final int MAX_FREQUENCY = 15;
+
+		private static final int TYPICAL_THUMBNAIL_SIZE = 8 * 1024;
+
+		private static final int[] SEEDS = { 0x97CB3127, 0xB1A5C4F3, 0x85EBCA6B, 0xC2B2AE35 };
+
+		private final int[] counters;
+
+		private final int mask;
+
+		private final int sampleSize;
+
+		private int additions;
+
+		FrequencySketch(long maxSize) {
+			int expectedEntries = (int) Math.min(maxSize / TYPICAL_THUMBNAIL_SIZE, 1 << 20);
+			int width = Math.max(64, Integer.highestOneBit(Math.max(expectedEntries, 1)) << 1);
+			this.counters = new int[DEPTH * width];
+			this.mask = width - 1;
+			this.sampleSize = 10 * width;
+		}
+
+		void increment(String key) {
+			int hash = key.hashCode();
+			boolean added = false;
+			for (int row = 0; row < DEPTH; row++) {
+				int index = index(hash, row);
+				if (this.counters[index] < MAX_FREQUENCY) {
+					this.counters[index]++;
+					added = true;
+				}
+			}
+			if (added && ++this.additions >= this.sampleSize) {
+				reset();
+			}
+		}
+
+		int frequency(String key) {
+			int hash = key.hashCode();
+			int frequency = MAX_FREQUENCY;
+			for (int row = 0; row < DEPTH; row++) {
+				frequency = Math.min(frequency, this.counters[index(hash, row)]);
+			}
+			return frequency;
+		}
+
+		private int index(int hash, int row) {
+			int spread = (hash ^ SEEDS[row]) * 0x9E3779B9;
+			spread ^= spread >>> 16;
+			return (row * (this.mask + 1)) + (spread & this.mask);
+		}
+
+		private void reset() {
+			for (int i = 0; i < this.counters.length; i++) {
+				this.counters[i] >>>= 1;
+			}
+			this.additions /= 2;
+		}
+
+	}
+
+}
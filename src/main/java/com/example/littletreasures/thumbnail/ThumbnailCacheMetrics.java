@@ -0,0 +1,98 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds the standard {@code cache.*} metrics for the thumbnail cache of a
+ * {@link ThumbnailService}, tagged with {@code cache=thumbnails}, together with gauges
+ * for the size in bytes and hit ratio of the cache and a timer for thumbnail loads.
+ */
+@Component
+class ThumbnailCacheMetrics extends CacheMeterBinder<ThumbnailService> {
+
+	ThumbnailCacheMetrics(ThumbnailService thumbnailService) {
+		super(thumbnailService, "thumbnails", Tags.empty());
+	}
+
+	@Override
+	protected Long size() {
+		return getStat(ThumbnailCache.Stats::entryCount);
+	}
+
+	@Override
+	protected long hitCount() {
+		return getStat(ThumbnailCache.Stats::hitCount);
+	}
+
+	@Override
+	protected Long missCount() {
+		return getStat(ThumbnailCache.Stats::missCount);
+	}
+
+	@Override
+	protected Long evictionCount() {
+		return getStat(ThumbnailCache.Stats::evictionCount);
+	}
+
+	@Override
+	protected long putCount() {
+		return getStat(ThumbnailCache.Stats::loadCount);
+	}
+
+	@Override
+	protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+		Gauge.builder("cache.bytes", getCache(), stat(ThumbnailCache.Stats::size))
+			.tags(getTagsWithCacheName())
+			.description("The total size of the cached thumbnails")
+			.baseUnit(BaseUnits.BYTES)
+			.register(registry);
+		Gauge.builder("cache.hit.ratio", getCache(), stat(ThumbnailCache.Stats::hitRatio))
+			.tags(getTagsWithCacheName())
+			.description("The ratio of cache lookups that found a cached thumbnail")
+			.register(registry);
+		FunctionTimer
+			.builder("cache.load.duration", getCache(),
+					(thumbnailService) -> thumbnailService.getCacheStats().loadCount(),
+					stat((stats) -> stats.totalLoadTime().toNanos()), TimeUnit.NANOSECONDS)
+			.tags(getTagsWithCacheName())
+			.description("The time taken to load thumbnails into the cache")
+			.register(registry);
+	}
+
+	private long getStat(ToLongFunction<ThumbnailCache.Stats> stat) {
+		ThumbnailService thumbnailService = getCache();
+		return (thumbnailService != null) ? stat.applyAsLong(thumbnailService.getCacheStats()) : 0;
+	}
+
+	private static ToDoubleFunction<ThumbnailService> stat(ToDoubleFunction<ThumbnailCache.Stats> stat) {
+		return (thumbnailService) -> stat.applyAsDouble(thumbnailService.getCacheStats());
+	}
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+/**
+ * Exception thrown when a thumbnail being created by another request is not ready in
+ * time.
+ */
+public class ThumbnailLoadTimeoutException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Create a new {@link ThumbnailLoadTimeoutException} instance.
+	 * @param key the key of the thumbnail
+	 * @param cause the cause of the exception
+	 */
+	public ThumbnailLoadTimeoutException(String key, Throwable cause) {
+		super("Timeout waiting for thumbnail '" + key + "'", cause);
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration properties for hotel image thumbnails.
+ *
+ * @param cache the thumbnail cache properties
+ * @param warmup the thumbnail warm-up properties
+ * @param store the on-disk thumbnail store properties
+ * @param variants the thumbnail variant properties
+ * @param rendering the thumbnail rendering properties
+ */
+@ConfigurationProperties(prefix = "littletreasures.thumbnails")
+public record ThumbnailProperties(@DefaultValue Cache cache, @DefaultValue Warmup warmup, @DefaultValue Store store,
+		@DefaultValue Variants variants, @DefaultValue Rendering rendering) {
+
+	/**
+	 * Thumbnail cache properties.
+	 *
+	 * @param maxSize the maximum size of all cached thumbnails
+	 * @param eviction the policy used to evict thumbnails once the maximum size has been
+	 * reached
+	 * @param timeToLive the time that a thumbnail may stay in the cache, or {@code null}
+	 * to keep thumbnails until they are evicted
+	 * @param loadTimeout the maximum time to wait for a thumbnail that is already being
+	 * created by another request
+	 */
+	public record Cache(@DefaultValue("10MB") DataSize maxSize, @DefaultValue("lru") EvictionPolicy eviction,
+			Duration timeToLive, @DefaultValue("10s") Duration loadTimeout) {
+
+	}
+
+	/**
+	 * Thumbnail warm-up properties.
+	 *
+	 * @param enabled if the thumbnails of all known hotels should be created before the
+	 * application is ready to accept traffic
+	 * @param concurrency the maximum number of thumbnails to create in parallel
+	 */
+	public record Warmup(boolean enabled, @DefaultValue("4") int concurrency) {
+
+	}
+
+	/**
+	 * On-disk thumbnail store properties.
+	 *
+	 * @param enabled if created thumbnails should be written to disk so that they survive
+	 * restarts
+	 * @param directory the directory used to store thumbnails, or {@code null} to use a
+	 * directory under {@code java.io.tmpdir}
+	 * @param serveFiles if thumbnails should be served directly from the stored files so
+	 * that the server can transfer them without copying through the heap
+	 */
+	public record Store(boolean enabled, Path directory, boolean serveFiles) {
+
+	}
+
+	/**
+	 * Thumbnail variant properties. Requested sizes and qualities are matched to the
+	 * allowed values so that the number of cached variants stays bounded.
+	 *
+	 * @param sizes the allowed thumbnail sizes
+	 * @param defaultSize the size used when no size is requested
+	 * @param qualities the allowed encoding qualities
+	 * @param defaultQuality the encoding quality used when no quality is requested
+	 * @param defaultFit the fit used when no fit is requested
+	 */
+	public record Variants(@DefaultValue("100x100,200x200,400x400") List<ThumbnailVariant.Size> sizes,
+			@DefaultValue("200x200") ThumbnailVariant.Size defaultSize,
+			@DefaultValue("50,75,90") List<Integer> qualities, @DefaultValue("75") int defaultQuality,
+			@DefaultValue("cover") ThumbnailVariant.Fit defaultFit) {
+
+	}
+
+	/**
+	 * Thumbnail rendering properties. Thumbnails requested over HTTP are rendered on a
+	 * dedicated executor so that cache misses cannot use up all request threads.
+	 *
+	 * @param threads the number of rendering threads
+	 * @param queueCapacity the maximum number of renders that may wait for a thread
+	 * before further requests are rejected
+	 * @param retryAfter the time that clients are asked to wait before retrying a
+	 * rejected request
+	 */
+	public record Rendering(@DefaultValue("4") int threads, @DefaultValue("16") int queueCapacity,
+			@DefaultValue("5s") Duration retryAfter) {
+
+	}
+
+}
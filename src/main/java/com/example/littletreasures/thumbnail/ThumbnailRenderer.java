@@ -0,0 +1,227 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.util.Assert;
+
+/**
+ * Renders {@link ThumbnailVariant thumbnail variants} from source image content. Source
+ * images are decoded with subsampling so that no more than twice the required pixels are
+ * read, then scaled down in bilinear halving steps with a final bicubic step. Image
+ * writers are pooled and reused between renders. The time taken by each stage is recorded
+ * by a {@code thumbnails.render} timer tagged with the {@code stage}.
+ */
+class ThumbnailRenderer {
+
+	private static final int WRITER_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+	private final Map<ThumbnailVariant.Format, BlockingQueue<ImageWriter>> writers = new EnumMap<>(
+			ThumbnailVariant.Format.class);
+
+	private final Timer decodeTimer;
+
+	private final Timer resizeTimer;
+
+	private final Timer encodeTimer;
+
+	ThumbnailRenderer(MeterRegistry meterRegistry) {
+		for (ThumbnailVariant.Format format : ThumbnailVariant.Format.values()) {
+			this.writers.put(format, new ArrayBlockingQueue<>(WRITER_POOL_SIZE));
+		}
+		this.decodeTimer = createTimer(meterRegistry, "decode");
+		this.resizeTimer = createTimer(meterRegistry, "resize");
+		this.encodeTimer = createTimer(meterRegistry, "encode");
+	}
+
+	private static Timer createTimer(MeterRegistry meterRegistry, String stage) {
+		return Timer.builder("thumbnails.render")
+			.description("Time taken to render thumbnails")
+			.tag("stage", stage)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Render a thumbnail.
+	 * @param source the source image content
+	 * @param variant the variant to render
+	 * @return the encoded thumbnail
+	 * @throws IOException on IO error
+	 */
+	byte[] render(byte[] source, ThumbnailVariant variant) throws IOException {
+		long start = System.nanoTime();
+		BufferedImage image = read(source, variant);
+		start = record(this.decodeTimer, start);
+		Rectangle region = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+		Rectangle target = new Rectangle(0, 0, variant.size().width(), variant.size().height());
+		fit(variant.fit(), region, target);
+		int type = (variant.format().isLossy()) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+		BufferedImage thumbnail = scale(image, region, target, type);
+		start = record(this.resizeTimer, start);
+		byte[] encoded = write(thumbnail, variant);
+		record(this.encodeTimer, start);
+		return encoded;
+	}
+
+	private long record(Timer timer, long start) {
+		long end = System.nanoTime();
+		timer.record(end - start, TimeUnit.NANOSECONDS);
+		return end;
+	}
+
+	private BufferedImage read(byte[] source, ThumbnailVariant variant) throws IOException {
+		try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(source))) {
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+			Assert.state(readers.hasNext(), "Unsupported source image format");
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(input, true, true);
+				ImageReadParam param = reader.getDefaultReadParam();
+				int subsampling = getSubsampling(reader.getWidth(0), reader.getHeight(0), variant);
+				if (subsampling > 1) {
+					param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				}
+				return reader.read(0, param);
+			}
+			finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	private int getSubsampling(int width, int height, ThumbnailVariant variant) {
+		double scaleX = (double) variant.size().width() / width;
+		double scaleY = (double) variant.size().height() / height;
+		double scale = (variant.fit() == ThumbnailVariant.Fit.CONTAIN) ? Math.min(scaleX, scaleY)
+				: Math.max(scaleX, scaleY);
+		return Math.max(1, (int) (1 / (scale * 2)));
+	}
+
+	private void fit(ThumbnailVariant.Fit fit, Rectangle region, Rectangle target) {
+		double scaleX = (double) target.width / region.width;
+		double scaleY = (double) target.height / region.height;
+		if (fit == ThumbnailVariant.Fit.CONTAIN) {
+			double scale = Math.min(scaleX, scaleY);
+			target.setSize(Math.max(1, (int) Math.round(region.width * scale)),
+					Math.max(1, (int) Math.round(region.height * scale)));
+		}
+		else if (fit == ThumbnailVariant.Fit.COVER) {
+			double scale = Math.max(scaleX, scaleY);
+			int width = Math.min(region.width, (int) Math.round(target.width / scale));
+			int height = Math.min(region.height, (int) Math.round(target.height / scale));
+			region.setBounds((region.width - width) / 2, (region.height - height) / 2, width, height);
+		}
+	}
+
+	private BufferedImage scale(BufferedImage image, Rectangle region, Rectangle target, int type) {
+		int width = region.width;
+		int height = region.height;
+		while (width / 2 >= target.width && height / 2 >= target.height) {
+			width /= 2;
+			height /= 2;
+			image = draw(image, region, width, height, type, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			region = new Rectangle(0, 0, width, height);
+		}
+		return draw(image, region, target.width, target.height, type, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+	}
+
+	private BufferedImage draw(BufferedImage image, Rectangle region, int width, int height, int type,
+			Object interpolation) {
+		BufferedImage result = new BufferedImage(width, height, type);
+		Graphics2D graphics = result.createGraphics();
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+			graphics.drawImage(image, 0, 0, width, height, region.x, region.y, region.x + region.width,
+					region.y + region.height, null);
+		}
+		finally {
+			graphics.dispose();
+		}
+		return result;
+	}
+
+	private byte[] write(BufferedImage thumbnail, ThumbnailVariant variant) throws IOException {
+		ThumbnailVariant.Format format = variant.format();
+		ImageWriter writer = acquireWriter(format);
+		boolean reusable = false;
+		try {
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			if (format.isLossy()) {
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				param.setCompressionQuality(variant.quality() / 100f);
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (ImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+				writer.setOutput(output);
+				writer.write(null, new IIOImage(thumbnail, null, null), param);
+			}
+			reusable = true;
+			return out.toByteArray();
+		}
+		finally {
+			releaseWriter(format, writer, reusable);
+		}
+	}
+
+	private ImageWriter acquireWriter(ThumbnailVariant.Format format) {
+		ImageWriter writer = this.writers.get(format).poll();
+		if (writer != null) {
+			return writer;
+		}
+		Iterator<ImageWriter> candidates = ImageIO.getImageWritersByFormatName(format.getFormatName());
+		Assert.state(candidates.hasNext(), () -> "No image writer available for " + format);
+		return candidates.next();
+	}
+
+	private void releaseWriter(ThumbnailVariant.Format format, ImageWriter writer, boolean reusable) {
+		if (reusable) {
+			writer.reset();
+			if (this.writers.get(format).offer(writer)) {
+				return;
+			}
+		}
+		writer.dispose();
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a thumbnail cannot be created because the rendering executor is
+ * at capacity.
+ */
+public class ThumbnailRenderingRejectedException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Duration retryAfter;
+
+	/**
+	 * Create a new {@link ThumbnailRenderingRejectedException} instance.
+	 * @param key the key of the thumbnail
+	 * @param retryAfter the time after which the client should retry
+	 * @param cause the cause of the exception
+	 */
+	public ThumbnailRenderingRejectedException(String key, Duration retryAfter, Throwable cause) {
+		super("Rendering of thumbnail '" + key + "' rejected", cause);
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * Return the time after which the client should retry.
+	 * @return the retry after duration
+	 */
+	public Duration getRetryAfter() {
+		return this.retryAfter;
+	}
+
+}
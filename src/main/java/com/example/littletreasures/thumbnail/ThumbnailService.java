@@ -0,0 +1,243 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.example.littletreasures.threads.BoundedThreadPerTaskExecutor;
+import com.example.littletreasures.threads.ThreadsProperties;
+import com.example.littletreasures.threads.VirtualThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.log.LogMessage;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.function.ThrowingSupplier;
+
+/**
+ * Service used to get cached thumbnails of the hotel images. Thumbnails requested
+ * asynchronously are rendered on a bounded executor that rejects work once its queue is
+ * full. When virtual threads are enabled each render runs on its own virtual thread, with
+ * the same total limit of running and queued renders.
+ */
+@Service
+public class ThumbnailService implements DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(ThumbnailService.class);
+
+	private final ThumbnailVariants variants;
+
+	private final ThumbnailRenderer renderer;
+
+	private final ThumbnailCache cache;
+
+	private final ThumbnailStore store;
+
+	private final boolean serveFiles;
+
+	private final Executor executor;
+
+	private final Duration retryAfter;
+
+	ThumbnailService(ThumbnailProperties properties, ThreadsProperties threads, MeterRegistry meterRegistry) {
+		this.renderer = new ThumbnailRenderer(meterRegistry);
+		this.variants = new ThumbnailVariants(properties.variants());
+		this.cache = new ThumbnailCache(properties.cache());
+		this.store = (properties.store().enabled()) ? new ThumbnailStore(properties.store().directory()) : null;
+		this.serveFiles = this.store != null && properties.store().serveFiles();
+		this.executor = createExecutor(properties.rendering(), threads.virtual());
+		this.retryAfter = properties.rendering().retryAfter();
+	}
+
+	private Executor createExecutor(ThumbnailProperties.Rendering properties, boolean virtual) {
+		Assert.isTrue(properties.threads() > 0, "'threads' must be positive");
+		Assert.isTrue(properties.queueCapacity() >= 0, "'queueCapacity' must not be negative");
+		if (virtual) {
+			return new BoundedThreadPerTaskExecutor(VirtualThreads.newThreadFactory("thumbnail-render-"),
+					properties.threads() + properties.queueCapacity());
+		}
+		BlockingQueue<Runnable> queue = (properties.queueCapacity() > 0)
+				? new ArrayBlockingQueue<>(properties.queueCapacity()) : new SynchronousQueue<>();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.threads(), properties.threads(), 60,
+				TimeUnit.SECONDS, queue, new CustomizableThreadFactory("thumbnail-render-"));
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Return the default thumbnail variant for the given image, creating it if necessary.
+	 * @param name the image name
+	 * @return the thumbnail or {@code null} if there is no such image
+	 */
+	public Thumbnail getThumbnail(String name) {
+		return getThumbnail(name, this.variants.getDefault(ThumbnailVariant.Format.JPEG));
+	}
+
+	/**
+	 * Return a thumbnail variant for the given image, creating it if necessary.
+	 * @param name the image name
+	 * @param variant the thumbnail variant, which must be allowed
+	 * @return the thumbnail or {@code null} if there is no such image
+	 * @see #getVariant(Integer, Integer, ThumbnailVariant.Fit, Integer,
+	 * ThumbnailVariant.Format)
+	 */
+	public Thumbnail getThumbnail(String name, ThumbnailVariant variant) {
+		Thumbnail thumbnail = this.cache.get(getKey(name, variant), (key) -> createThumbnail(name, variant));
+		logger.trace(LogMessage.of(() -> "Thumbnail cache " + this.cache.getStats()));
+		return thumbnail;
+	}
+
+	/**
+	 * Return a thumbnail variant for the given image, creating it on the rendering
+	 * executor if necessary. Cached thumbnails are returned as completed futures.
+	 * @param name the image name
+	 * @param variant the thumbnail variant, which must be allowed
+	 * @return a future for the thumbnail or {@code null} if there is no such image
+	 * @throws ThumbnailRenderingRejectedException if the rendering executor is at
+	 * capacity
+	 */
+	public CompletableFuture<Thumbnail> getThumbnailAsync(String name, ThumbnailVariant variant) {
+		String key = getKey(name, variant);
+		try {
+			return this.cache.getAsync(key, (loadKey) -> createThumbnail(name, variant), this.executor);
+		}
+		catch (RejectedExecutionException ex) {
+			throw new ThumbnailRenderingRejectedException(key, this.retryAfter, ex);
+		}
+	}
+
+	private String getKey(String name, ThumbnailVariant variant) {
+		Assert.hasLength(name, "'name' must not be empty");
+		Assert.notNull(variant, "'variant' must not be null");
+		Assert.isTrue(this.variants.isAllowed(variant), () -> "Variant " + variant.key() + " is not allowed");
+		return name + "/" + variant.key();
+	}
+
+	/**
+	 * Return the allowed thumbnail variant that best matches the requested values.
+	 * @param width the requested width or {@code null}
+	 * @param height the requested height or {@code null}
+	 * @param fit the requested fit or {@code null} to use the default
+	 * @param quality the requested quality or {@code null} to use the default
+	 * @param format the output format
+	 * @return the allowed variant
+	 */
+	public ThumbnailVariant getVariant(Integer width, Integer height, ThumbnailVariant.Fit fit, Integer quality,
+			ThumbnailVariant.Format format) {
+		Assert.notNull(format, "'format' must not be null");
+		return this.variants.get(width, height, fit, quality, format);
+	}
+
+	/**
+	 * Return the original source image.
+	 * @param name the image name
+	 * @return the source image resource or {@code null} if there is no such image
+	 */
+	public Resource getSourceImage(String name) {
+		Assert.hasLength(name, "'name' must not be empty");
+		if (name.contains("..") || name.contains("/") || name.contains("\\")) {
+			return null;
+		}
+		Resource resource = new ClassPathResource("images/" + name);
+		return (resource.exists()) ? resource : null;
+	}
+
+	/**
+	 * Return statistics for the thumbnail cache.
+	 * @return the cache statistics
+	 */
+	public ThumbnailCache.Stats getCacheStats() {
+		return this.cache.getStats();
+	}
+
+	@Override
+	public void destroy() {
+		if (this.executor instanceof ExecutorService executorService) {
+			executorService.shutdownNow();
+		}
+	}
+
+	private Thumbnail createThumbnail(String name, ThumbnailVariant variant) throws IOException {
+		logger.debug(LogMessage.format("Cache miss for image %s variant %s", name, variant.key()));
+		logger.trace(LogMessage.of(() -> getImageUrl(name)));
+		Resource source = getSourceImage(name);
+		if (source == null) {
+			return null;
+		}
+		byte[] raw = source.getContentAsByteArray();
+		long lastModified = getLastModified(source);
+		if (this.store == null) {
+			return new Thumbnail(createThumbnail(raw, variant), lastModified, null);
+		}
+		String sourceHash = DigestUtils.md5DigestAsHex(raw);
+		byte[] thumbnail = this.store.get(name, sourceHash, variant.key());
+		Path file = this.store.getFile(name, sourceHash, variant.key());
+		if (thumbnail == null) {
+			thumbnail = createThumbnail(raw, variant);
+			file = this.store.put(name, sourceHash, variant.key(), thumbnail);
+		}
+		return new Thumbnail(thumbnail, lastModified, (this.serveFiles) ? file : null);
+	}
+
+	private long getLastModified(Resource source) {
+		try {
+			return source.lastModified();
+		}
+		catch (IOException ex) {
+			return -1;
+		}
+	}
+
+	private byte[] createThumbnail(byte[] raw, ThumbnailVariant variant) throws IOException {
+		byte[] thumbnail = this.renderer.render(raw, variant);
+		simulateSlowOperation();
+		return thumbnail;
+	}
+
+	private String getImageUrl(String name) {
+		return ThrowingSupplier.of(() -> ResourceUtils.getURL("/images/" + name).toString()).get();
+	}
+
+	private void simulateSlowOperation() {
+		try {
+			Thread.sleep(Duration.ofSeconds(1).toMillis());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.log.LogMessage;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Second-tier store that keeps created thumbnails on disk so that they survive restarts.
+ * Thumbnails are keyed by the image name, a hash of the source image content and the
+ * variant (size and format) of the thumbnail. Storing a thumbnail for new source content
+ * removes any thumbnails created from previous content.
+ */
+class ThumbnailStore {
+
+	private static final Log logger = LogFactory.getLog(ThumbnailStore.class);
+
+	private final Path directory;
+
+	ThumbnailStore(Path directory) {
+		this.directory = (directory != null) ? directory
+				: Path.of(System.getProperty("java.io.tmpdir"), "littletreasures", "thumbnails");
+	}
+
+	/**
+	 * Return the stored thumbnail.
+	 * @param name the image name
+	 * @param sourceHash the hash of the source image content
+	 * @param variant the thumbnail variant
+	 * @return the thumbnail bytes or {@code null} if no thumbnail has been stored
+	 */
+	byte[] get(String name, String sourceHash, String variant) {
+		Path file = getFile(name, sourceHash, variant);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) == -1) {
+					return null;
+				}
+			}
+			return buffer.array();
+		}
+		catch (NoSuchFileException ex) {
+			return null;
+		}
+		catch (IOException ex) {
+			logger.warn(LogMessage.format("Unable to read stored thumbnail %s", file), ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Store a thumbnail, removing any thumbnails of the same image that were created from
+	 * different source content.
+	 * @param name the image name
+	 * @param sourceHash the hash of the source image content
+	 * @param variant the thumbnail variant
+	 * @param thumbnail the thumbnail bytes
+	 * @return the stored file or {@code null} if the thumbnail could not be stored
+	 */
+	Path put(String name, String sourceHash, String variant, byte[] thumbnail) {
+		Path file = getFile(name, sourceHash, variant);
+		try {
+			Files.createDirectories(file.getParent());
+			removeStale(file.getParent(), sourceHash);
+			Path temp = Files.createTempFile(file.getParent(), sourceHash + "-", ".tmp");
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+				ByteBuffer buffer = ByteBuffer.wrap(thumbnail);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+			Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			return file;
+		}
+		catch (IOException ex) {
+			logger.warn(LogMessage.format("Unable to store thumbnail %s", file), ex);
+			return null;
+		}
+	}
+
+	private void removeStale(Path imageDirectory, String sourceHash) throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(imageDirectory)) {
+			for (Path file : files) {
+				if (!file.getFileName().toString().startsWith(sourceHash + "-")) {
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return the file used to store a thumbnail.
+	 * @param name the image name
+	 * @param sourceHash the hash of the source image content
+	 * @param variant the thumbnail variant
+	 * @return the file, which may not exist
+	 */
+	Path getFile(String name, String sourceHash, String variant) {
+		String imageDirectory = DigestUtils.md5DigestAsHex(name.getBytes(StandardCharsets.UTF_8));
+		return this.directory.resolve(imageDirectory).resolve(sourceHash + "-" + variant);
+	}
+
+}
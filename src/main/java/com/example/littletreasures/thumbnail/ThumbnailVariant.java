@@ -0,0 +1,166 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.util.Locale;
+
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * A variant of a thumbnail, describing the size, fit, quality and format that should be
+ * created from the source image.
+ *
+ * @param size the bounding size of the thumbnail
+ * @param fit how the source image is fitted into the bounding size
+ * @param quality the encoding quality from 1 to 100, only used for lossy formats
+ * @param format the output format
+ */
+public record ThumbnailVariant(Size size, Fit fit, int quality, Format format) {
+
+	public ThumbnailVariant {
+		Assert.notNull(size, "'size' must not be null");
+		Assert.notNull(fit, "'fit' must not be null");
+		Assert.isTrue(quality > 0 && quality <= 100, "'quality' must be between 1 and 100");
+		Assert.notNull(format, "'format' must not be null");
+	}
+
+	/**
+	 * Return a key that uniquely identifies the content of this variant. Variants that
+	 * only differ in a quality that their format does not use share the same key.
+	 * @return the variant key
+	 */
+	public String key() {
+		String quality = (this.format.isLossy()) ? "-q" + this.quality : "";
+		return this.size + "-" + this.fit.name().toLowerCase(Locale.ROOT) + quality + "." + this.format.getExtension();
+	}
+
+	/**
+	 * The bounding size of a thumbnail.
+	 *
+	 * @param width the width in pixels
+	 * @param height the height in pixels
+	 */
+	public record Size(int width, int height) {
+
+		public Size {
+			Assert.isTrue(width > 0, "'width' must be positive");
+			Assert.isTrue(height > 0, "'height' must be positive");
+		}
+
+		/**
+		 * Return a {@link Size} from a {@code <width>x<height>} string.
+		 * @param value the value to parse
+		 * @return the size
+		 */
+		public static Size of(String value) {
+			Assert.hasLength(value, "'value' must not be empty");
+			int separator = value.toLowerCase(Locale.ROOT).indexOf('x');
+			Assert.isTrue(separator > 0, () -> "'" + value + "' is not a valid size");
+			return new Size(Integer.parseInt(value.substring(0, separator).trim()),
+					Integer.parseInt(value.substring(separator + 1).trim()));
+		}
+
+		long area() {
+			return (long) this.width * this.height;
+		}
+
+		@Override
+		public String toString() {
+			return this.width + "x" + this.height;
+		}
+
+	}
+
+	/**
+	 * How the source image is fitted into the bounding size.
+	 */
+	public enum Fit {
+
+		/**
+		 * Scale the image to fit within the bounding size while keeping its aspect ratio.
+		 * The thumbnail may be smaller than the bounding size in one dimension.
+		 */
+		CONTAIN,
+
+		/**
+		 * Scale the image to fill the bounding size while keeping its aspect ratio,
+		 * cropping the center of the image when necessary.
+		 */
+		COVER,
+
+		/**
+		 * Stretch the image to the bounding size, ignoring its aspect ratio.
+		 */
+		FILL
+
+	}
+
+	/**
+	 * Thumbnail output formats.
+	 */
+	public enum Format {
+
+		/**
+		 * JPEG format.
+		 */
+		JPEG("jpeg", "jpg", MimeTypeUtils.IMAGE_JPEG, true),
+
+		/**
+		 * PNG format.
+		 */
+		PNG("png", "png", MimeTypeUtils.IMAGE_PNG, false);
+
+		private final String formatName;
+
+		private final String extension;
+
+		private final MimeType mimeType;
+
+		private final boolean lossy;
+
+		Format(String formatName, String extension, MimeType mimeType, boolean lossy) {
+			this.formatName = formatName;
+			this.extension = extension;
+			this.mimeType = mimeType;
+			this.lossy = lossy;
+		}
+
+		String getFormatName() {
+			return this.formatName;
+		}
+
+		String getExtension() {
+			return this.extension;
+		}
+
+		/**
+		 * Return the MIME type of the format.
+		 * @return the MIME type
+		 */
+		public MimeType getMimeType() {
+			return this.mimeType;
+		}
+
+		boolean isLossy() {
+			return this.lossy;
+		}
+
+	}
+
+}
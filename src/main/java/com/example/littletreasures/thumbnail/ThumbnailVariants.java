@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.util.Assert;
+
+/**
+ * The allow-list of {@link ThumbnailVariant variants} that may be created. Requested
+ * sizes are matched to the smallest allowed size that covers them and requested qualities
+ * to the nearest allowed quality.
+ */
+class ThumbnailVariants {
+
+	private final List<ThumbnailVariant.Size> sizes;
+
+	private final Set<Integer> qualities;
+
+	private final ThumbnailVariant.Size defaultSize;
+
+	private final int defaultQuality;
+
+	private final ThumbnailVariant.Fit defaultFit;
+
+	ThumbnailVariants(ThumbnailProperties.Variants properties) {
+		Set<ThumbnailVariant.Size> sizes = new LinkedHashSet<>(properties.sizes());
+		sizes.add(properties.defaultSize());
+		this.sizes = sizes.stream().sorted(Comparator.comparingLong(ThumbnailVariant.Size::area)).toList();
+		this.qualities = new TreeSet<>(properties.qualities());
+		this.qualities.add(properties.defaultQuality());
+		this.qualities.forEach(
+				(quality) -> Assert.isTrue(quality > 0 && quality <= 100, "'qualities' must be between 1 and 100"));
+		this.defaultSize = properties.defaultSize();
+		this.defaultQuality = properties.defaultQuality();
+		this.defaultFit = properties.defaultFit();
+	}
+
+	/**
+	 * Return the default variant in the given format.
+	 * @param format the output format
+	 * @return the default variant
+	 */
+	ThumbnailVariant getDefault(ThumbnailVariant.Format format) {
+		return new ThumbnailVariant(this.defaultSize, this.defaultFit, this.defaultQuality, format);
+	}
+
+	/**
+	 * Return the allowed variant that best matches the requested values.
+	 * @param width the requested width or {@code null}
+	 * @param height the requested height or {@code null}
+	 * @param fit the requested fit or {@code null}
+	 * @param quality the requested quality or {@code null}
+	 * @param format the output format
+	 * @return the allowed variant
+	 */
+	ThumbnailVariant get(Integer width, Integer height, ThumbnailVariant.Fit fit, Integer quality,
+			ThumbnailVariant.Format format) {
+		return new ThumbnailVariant(getSize(width, height), (fit != null) ? fit : this.defaultFit, getQuality(quality),
+				format);
+	}
+
+	private ThumbnailVariant.Size getSize(Integer width, Integer height) {
+		if (width == null && height == null) {
+			return this.defaultSize;
+		}
+		for (ThumbnailVariant.Size size : this.sizes) {
+			if ((width == null || size.width() >= width) && (height == null || size.height() >= height)) {
+				return size;
+			}
+		}
+		return this.sizes.get(this.sizes.size() - 1);
+	}
+
+	private int getQuality(Integer quality) {
+		if (quality == null) {
+			return this.defaultQuality;
+		}
+		int nearest = this.defaultQuality;
+		for (int candidate : this.qualities) {
+			if (Math.abs(candidate - quality) <= Math.abs(nearest - quality)) {
+				nearest = candidate;
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Return if the given variant is allowed.
+	 * @param variant the variant to check
+	 * @return if the variant is allowed
+	 */
+	boolean isAllowed(ThumbnailVariant variant) {
+		return this.sizes.contains(variant.size())
+				&& (!variant.format().isLossy() || this.qualities.contains(variant.quality()));
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.service.HotelsService;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.core.log.LogMessage;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.StopWatch;
+
+/**
+ * {@link ApplicationRunner} that creates the thumbnails of all known hotels when warm-up
+ * is enabled. Runners are called before the application publishes
+ * {@link ReadinessState#ACCEPTING_TRAFFIC}, so readiness is held until all thumbnails
+ * have been created.
+ */
+@Component
+class ThumbnailWarmer implements ApplicationRunner {
+
+	private static final Log logger = LogFactory.getLog(ThumbnailWarmer.class);
+
+	private final ThumbnailProperties.Warmup properties;
+
+	private final HotelsService hotelsService;
+
+	private final ThumbnailService thumbnailService;
+
+	ThumbnailWarmer(ThumbnailProperties properties, HotelsService hotelsService, ThumbnailService thumbnailService) {
+		Assert.isTrue(properties.warmup().concurrency() > 0, "'concurrency' must be positive");
+		this.properties = properties.warmup();
+		this.hotelsService = hotelsService;
+		this.thumbnailService = thumbnailService;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (this.properties.enabled()) {
+			warmup();
+		}
+	}
+
+	void warmup() {
+		List<String> images = this.hotelsService.getAll()
+			.stream()
+			.map(Hotel::image)
+			.filter(Objects::nonNull)
+			.distinct()
+			.toList();
+		logger.info(LogMessage.format("Warming up %s thumbnails", images.size()));
+		StopWatch stopWatch = new StopWatch();
+		stopWatch.start();
+		ExecutorService executor = Executors.newFixedThreadPool(this.properties.concurrency(),
+				new CustomizableThreadFactory("thumbnail-warmup-"));
+		try {
+			CompletableFuture<?>[] futures = images.stream()
+				.map((image) -> CompletableFuture.runAsync(() -> warmup(image), executor))
+				.toArray(CompletableFuture[]::new);
+			CompletableFuture.allOf(futures).join();
+		}
+		finally {
+			executor.shutdown();
+		}
+		stopWatch.stop();
+		logger.info(LogMessage.format("Thumbnail warm-up completed in %sms", stopWatch.getTotalTimeMillis()));
+	}
+
+	private void warmup(String image) {
+		try {
+			if (this.thumbnailService.getThumbnail(image) == null) {
+				logger.warn(LogMessage.format("No image found for %s", image));
+			}
+		}
+		catch (RuntimeException ex) {
+			logger.warn(LogMessage.format("Unable to create thumbnail for %s", image), ex);
+		}
+	}
+
+}
@@ -16,97 +16,179 @@
 
 package com.example.littletreasures.web;
 
-import java.awt.Image;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+import com.example.littletreasures.thumbnail.Thumbnail;
+import com.example.littletreasures.thumbnail.ThumbnailLoadTimeoutException;
+import com.example.littletreasures.thumbnail.ThumbnailRenderingRejectedException;
+import com.example.littletreasures.thumbnail.ThumbnailService;
+import com.example.littletreasures.thumbnail.ThumbnailVariant;
+import jakarta.servlet.http.HttpServletRequest;
 
-import javax.imageio.ImageIO;
-
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.log.LogMessage;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
-import org.springframework.util.ConcurrentReferenceHashMap;
-import org.springframework.util.FileCopyUtils;
-import org.springframework.util.ObjectUtils;
-import org.springframework.util.ResourceUtils;
-import org.springframework.util.function.ThrowingSupplier;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
- * {@link Controller @Controller} to show the hotel images.
+ * {@link Controller @Controller} to show the hotel images. Images are returned as
+ * {@link Resource resources} so that {@code Range} requests are answered with the
+ * requested regions. File-backed images are handed to the container to send when it
+ * supports sendfile. Conditional requests are answered with {@code 304 Not Modified}
+ * before any content is written. Thumbnails can be requested in different sizes, fits and
+ * qualities, with the output format negotiated from the {@code Accept} header. They are
+ * returned asynchronously so that request threads are not held while thumbnails are
+ * rendered, with {@code 503 Service Unavailable} returned when rendering is at capacity.
+ * Thumbnails that are already available are answered on the request thread so that those
+ * served from stored files can still use sendfile.
  */
 @RestController
 class HotelImagesController {
 
-	private final Map<String, byte[]> cache = new ConcurrentReferenceHashMap<>();
+	private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+	private static final long SENDFILE_MIN_SIZE = 48 * 1024;
 
-	private static final Log logger = LogFactory.getLog(HotelImagesController.class);
+	private final ThumbnailService thumbnailService;
 
-	private final AtomicInteger cacheMisses = new AtomicInteger();
+	private final CacheControl cacheControl;
 
-	private final AtomicInteger totalRequests = new AtomicInteger();
+	HotelImagesController(ThumbnailService thumbnailService, HttpCachingProperties cachingProperties) {
+		this.thumbnailService = thumbnailService;
+		this.cacheControl = cachingProperties.images().toCacheControl();
+	}
 
-	@GetMapping(path = "/images/{name}", produces = MediaType.IMAGE_JPEG_VALUE)
-	Resource image(@PathVariable String name) throws IOException {
-		int totalRequests = this.totalRequests.incrementAndGet();
-		byte[] thumbnail = this.cache.get(name);
-		if (thumbnail != null) {
-			logger.debug(LogMessage.format("Cache hit for image %s", name));
-			return new ByteArrayResource(thumbnail);
+	@GetMapping(path = "/images/{name}", produces = { MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE })
+	CompletableFuture<ResponseEntity<Resource>> image(@PathVariable String name,
+			@RequestParam(required = false) Integer width, @RequestParam(required = false) Integer height,
+			@RequestParam(required = false) String fit, @RequestParam(required = false) Integer quality,
+			ServletWebRequest request) throws IOException {
+		ThumbnailVariant.Format format = getFormat(request);
+		ThumbnailVariant variant = this.thumbnailService.getVariant(width, height, getFit(fit), quality, format);
+		MediaType contentType = MediaType.asMediaType(format.getMimeType());
+		CompletableFuture<Thumbnail> thumbnail = this.thumbnailService.getThumbnailAsync(name, variant);
+		Thumbnail available = (thumbnail.isDone() && !thumbnail.isCompletedExceptionally()) ? thumbnail.join() : null;
+		Resource resource = (available != null) ? available.getResource() : null;
+		if (resource != null && canSendFile(resource, request.getRequest())) {
+			request.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+			return CompletableFuture.completedFuture(
+					respond(resource, contentType, available.getETag(), available.getLastModified(), request));
 		}
-		logger.debug(LogMessage.format("Cache miss for image %s", name));
-		logger.trace(LogMessage.of(() -> "Cache miss ratio " + getCacheMissRatio(totalRequests)));
-		logger.trace(LogMessage.of(() -> getImageUrl(name)));
-		byte[] raw = FileCopyUtils.copyToByteArray(getClass().getResourceAsStream("/images/" + name));
-		if (ObjectUtils.isEmpty(raw)) {
+		return thumbnail.thenApply((rendered) -> respond(rendered, contentType));
+	}
+
+	private ResponseEntity<Resource> respond(Thumbnail thumbnail, MediaType contentType) {
+		if (thumbnail == null) {
 			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
 		}
-		thumbnail = createThumbnail(raw);
-		this.cache.put(name, thumbnail);
-		return new ByteArrayResource(thumbnail);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+			.contentType(contentType)
+			.eTag(thumbnail.getETag())
+			.cacheControl(this.cacheControl)
+			.varyBy(HttpHeaders.ACCEPT);
+		if (thumbnail.getLastModified() >= 0) {
+			response.lastModified(thumbnail.getLastModified());
+		}
+		return response.body(thumbnail.getResource());
 	}
 
-	private String getImageUrl(String name) {
-		return ThrowingSupplier.of(() -> ResourceUtils.getURL("/images/" + name).toString()).get();
+	private ThumbnailVariant.Fit getFit(String fit) {
+		try {
+			return (fit != null) ? ThumbnailVariant.Fit.valueOf(fit.toUpperCase(Locale.ROOT)) : null;
+		}
+		catch (IllegalArgumentException ex) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown fit '" + fit + "'");
+		}
 	}
 
-	private float getCacheMissRatio(int totalRequests) {
-		int cacheMisses = this.cacheMisses.incrementAndGet();
-		return (float) cacheMisses / totalRequests;
+	private ThumbnailVariant.Format getFormat(ServletWebRequest request) {
+		List<MediaType> acceptable = new ArrayList<>(MediaType.parseMediaTypes(request.getHeader(HttpHeaders.ACCEPT)));
+		MimeTypeUtils.sortBySpecificity(acceptable);
+		acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+		for (MediaType mediaType : acceptable) {
+			for (ThumbnailVariant.Format format : ThumbnailVariant.Format.values()) {
+				if (mediaType.getQualityValue() > 0
+						&& mediaType.includes(MediaType.asMediaType(format.getMimeType()))) {
+					return format;
+				}
+			}
+		}
+		return ThumbnailVariant.Format.JPEG;
 	}
 
-	private byte[] createThumbnail(byte[] raw) throws IOException {
-		BufferedImage image = ImageIO.read(new ByteArrayInputStream(raw));
-		Image resultingImage = image.getScaledInstance(200, 200, Image.SCALE_DEFAULT);
-		BufferedImage thumbnail = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
-		thumbnail.getGraphics().drawImage(resultingImage, 0, 0, null);
-		ByteArrayOutputStream out = new ByteArrayOutputStream();
-		ImageIO.write(thumbnail, "jpg", out);
-		simulateSlowOperation();
-		return out.toByteArray();
+	@GetMapping("/images/{name}/original")
+	ResponseEntity<Resource> original(@PathVariable String name, ServletWebRequest request) throws IOException {
+		Resource image = this.thumbnailService.getSourceImage(name);
+		if (image == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		}
+		MediaType contentType = MediaTypeFactory.getMediaType(image).orElse(MediaType.APPLICATION_OCTET_STREAM);
+		return respond(image, contentType, null, image.lastModified(), request);
 	}
 
-	private void simulateSlowOperation() {
-		try {
-			Thread.sleep(Duration.ofSeconds(1).toMillis());
+	private ResponseEntity<Resource> respond(Resource resource, MediaType contentType, String eTag, long lastModified,
+			ServletWebRequest webRequest) throws IOException {
+		if (webRequest.checkNotModified(eTag, lastModified)) {
+			return null;
 		}
-		catch (InterruptedException ex) {
-			Thread.currentThread().interrupt();
+		HttpServletRequest request = webRequest.getRequest();
+		if (canSendFile(resource, request)) {
+			File file = resource.getFile();
+			long length = file.length();
+			request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getAbsolutePath());
+			request.setAttribute(SENDFILE_START_ATTRIBUTE, 0L);
+			request.setAttribute(SENDFILE_END_ATTRIBUTE, length);
+			return ResponseEntity.ok()
+				.contentType(contentType)
+				.contentLength(length)
+				.cacheControl(this.cacheControl)
+				.header(HttpHeaders.ACCEPT_RANGES, "bytes")
+				.build();
 		}
+		return ResponseEntity.ok().contentType(contentType).cacheControl(this.cacheControl).body(resource);
+	}
+
+	private boolean canSendFile(Resource resource, HttpServletRequest request) throws IOException {
+		return Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))
+				&& HttpMethod.GET.matches(request.getMethod()) && request.getHeader(HttpHeaders.RANGE) == null
+				&& resource.isFile() && resource.contentLength() >= SENDFILE_MIN_SIZE;
+	}
+
+	@ExceptionHandler
+	ResponseEntity<Void> thumbnailLoadTimeout(ThumbnailLoadTimeoutException ex) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+	}
+
+	@ExceptionHandler
+	ResponseEntity<Void> thumbnailRenderingRejected(ThumbnailRenderingRejectedException ex) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+			.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+			.build();
 	}
 
 }
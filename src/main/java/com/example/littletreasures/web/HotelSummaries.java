@@ -0,0 +1,125 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.web;
+
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.service.HotelsService;
+import com.example.littletreasures.service.HotelsView;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Source of {@link HotelSummary} instances. Summaries are created once per {@link Hotel}
+ * with image links resolved against the configured {@link ImageLinksProperties base URL}.
+ * Summaries of all the current hotels are held in a map keyed by hotel identity that is
+ * replaced whenever the {@link HotelsService#getChecksum() hotel data checksum} changes.
+ * Summaries of hotels that are not part of the current data are created on demand.
+ */
+@Component
+class HotelSummaries {
+
+	private final HotelsService hotelsService;
+
+	private final String imageBaseUrl;
+
+	private volatile Cache cache;
+
+	HotelSummaries(ImageLinksProperties properties, HotelsService hotelsService) {
+		this.hotelsService = hotelsService;
+		this.imageBaseUrl = properties.getBaseUrl();
+	}
+
+	/**
+	 * Return the summary of a hotel.
+	 * @param hotel the hotel or {@code null}
+	 * @return the summary or {@code null}
+	 */
+	HotelSummary get(Hotel hotel) {
+		return (hotel != null) ? get(getCache(), hotel) : null;
+	}
+
+	/**
+	 * Return the summaries of a list of hotels.
+	 * @param hotels the hotels
+	 * @return the summaries
+	 */
+	List<HotelSummary> get(List<Hotel> hotels) {
+		Cache cache = getCache();
+		return hotels.stream().map((hotel) -> get(cache, hotel)).toList();
+	}
+
+	/**
+	 * Write the summary of a hotel as a JSON object containing only the given fields.
+	 * @param generator the generator to write to
+	 * @param hotel the hotel
+	 * @param fields the fields to include
+	 * @throws IOException on write error
+	 */
+	void write(JsonGenerator generator, Hotel hotel, Set<HotelSummary.Field> fields) throws IOException {
+		HotelSummary summary = get(hotel);
+		generator.writeStartObject();
+		for (HotelSummary.Field field : fields) {
+			Object value = field.getValue(summary);
+			if (value instanceof Double number) {
+				generator.writeNumberField(field.getJsonName(), number);
+			}
+			else if (value != null) {
+				generator.writeStringField(field.getJsonName(), value.toString());
+			}
+		}
+		generator.writeEndObject();
+	}
+
+	private HotelSummary get(Cache cache, Hotel hotel) {
+		HotelSummary summary = cache.summaries().get(hotel);
+		return (summary != null) ? summary : create(hotel);
+	}
+
+	/**
+	 * Return the summaries of the current hotels, creating them if the data has changed.
+	 * Threads that see the change at the same time may each create the summaries, the
+	 * last one to finish is kept.
+	 * @return the cache for the current data
+	 */
+	private Cache getCache() {
+		Cache cache = this.cache;
+		if (cache == null || !cache.checksum().equals(this.hotelsService.getChecksum())) {
+			HotelsView current = this.hotelsService.getCurrent();
+			Map<Hotel, HotelSummary> summaries = new IdentityHashMap<>();
+			current.getAll().forEach((hotel) -> summaries.put(hotel, create(hotel)));
+			cache = new Cache(current.getChecksum(), summaries);
+			this.cache = cache;
+		}
+		return cache;
+	}
+
+	private HotelSummary create(Hotel hotel) {
+		return HotelSummary.create(hotel, this.imageBaseUrl);
+	}
+
+	private record Cache(String checksum, Map<Hotel, HotelSummary> summaries) {
+
+	}
+
+}
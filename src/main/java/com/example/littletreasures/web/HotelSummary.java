@@ -17,91 +17,143 @@
 package com.example.littletreasures.web;
 
 import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
 
 import com.example.littletreasures.data.Hotel;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies.UpperCamelCaseStrategy;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 
-import org.springframework.boot.context.properties.PropertyMapper;
 import org.springframework.util.StringUtils;
 import org.springframework.web.util.UriUtils;
 
 /**
- * JSON response containing a summary of a single {@link Hotel}.
+ * Immutable JSON response containing a summary of a single {@link Hotel}. Summaries are
+ * created once per hotel, including the image URL and the delimited architects, and are
+ * then reused for every request.
+ *
+ * @see HotelSummaries
  */
 @JsonNaming(UpperCamelCaseStrategy.class)
 @JsonInclude(Include.NON_NULL)
-public class HotelSummary {
+public final class HotelSummary {
 
-	private String name;
+	private final String name;
 
-	private String address;
+	private final String address;
 
-	private String image;
+	private final String image;
 
-	private String architects;
+	private final String architects;
 
-	private String geographicOrder;
+	private final String geographicOrder;
 
-	public String getName() {
-		return this.name;
-	}
+	private final Double latitude;
+
+	private final Double longitude;
 
-	public void setName(String name) {
+	@JsonCreator
+	public HotelSummary(String name, String address, String image, String architects, String geographicOrder,
+			Double latitude, Double longitude) {
 		this.name = name;
+		this.address = address;
+		this.image = image;
+		this.architects = architects;
+		this.geographicOrder = geographicOrder;
+		this.latitude = latitude;
+		this.longitude = longitude;
 	}
 
-	public String getAddress() {
-		return this.address;
+	public String getName() {
+		return this.name;
 	}
 
-	public void setAddress(String address) {
-		this.address = address;
+	public String getAddress() {
+		return this.address;
 	}
 
 	public String getImage() {
 		return this.image;
 	}
 
-	public void setImage(String image) {
-		this.image = image;
-	}
-
 	public String getArchitects() {
 		return this.architects;
 	}
 
-	public void setArchitects(String architects) {
-		this.architects = architects;
-	}
-
 	public String getGeographicOrder() {
 		return this.geographicOrder;
 	}
 
-	public void setGeographicOrder(String geographicOrder) {
-		this.geographicOrder = geographicOrder;
+	public Double getLatitude() {
+		return this.latitude;
+	}
+
+	public Double getLongitude() {
+		return this.longitude;
 	}
 
-	static HotelSummary get(Hotel hotel) {
-		if (hotel == null) {
+	static HotelSummary create(Hotel hotel, String imageBaseUrl) {
+		String name = (hotel.name() != null) ? StringUtils.capitalize(hotel.name()) : null;
+		String image = (hotel.image() != null)
+				? imageBaseUrl + UriUtils.encodePath(hotel.image(), StandardCharsets.UTF_8) : null;
+		String architects = (hotel.architects() != null)
+				? StringUtils.collectionToDelimitedString(hotel.architects(), " | ") : null;
+		return new HotelSummary(name, hotel.address(), image, architects, hotel.geographicOrder(), hotel.latitude(),
+				hotel.longitude());
+	}
+
+	/**
+	 * The fields of a summary that can be selected for a projection.
+	 */
+	enum Field {
+
+		NAME("Name", HotelSummary::getName),
+
+		ADDRESS("Address", HotelSummary::getAddress),
+
+		IMAGE("Image", HotelSummary::getImage),
+
+		ARCHITECTS("Architects", HotelSummary::getArchitects),
+
+		GEOGRAPHIC_ORDER("GeographicOrder", HotelSummary::getGeographicOrder),
+
+		LATITUDE("Latitude", HotelSummary::getLatitude),
+
+		LONGITUDE("Longitude", HotelSummary::getLongitude);
+
+		private final String jsonName;
+
+		private final Function<HotelSummary, Object> value;
+
+		Field(String jsonName, Function<HotelSummary, Object> value) {
+			this.jsonName = jsonName;
+			this.value = value;
+		}
+
+		String getJsonName() {
+			return this.jsonName;
+		}
+
+		Object getValue(HotelSummary summary) {
+			return this.value.apply(summary);
+		}
+
+		/**
+		 * Return the field with the given JSON name, ignoring case.
+		 * @param name the JSON name
+		 * @return the field or {@code null}
+		 */
+		static Field forJsonName(String name) {
+			for (Field field : values()) {
+				if (field.jsonName.equalsIgnoreCase(name)) {
+					return field;
+				}
+			}
 			return null;
 		}
-		PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
-		HotelSummary result = new HotelSummary();
-		map.from(hotel::name).as(StringUtils::capitalize).to(result::setName);
-		map.from(hotel::address).to(result::setAddress);
-		map.from(hotel::image)
-			.as((image) -> UriUtils.encodePath(image, StandardCharsets.UTF_8))
-			.as((image) -> "http://localhost:8080/images/" + image)
-			.to(result::setImage);
-		map.from(hotel::architects)
-			.as((collection) -> StringUtils.collectionToDelimitedString(collection, " | "))
-			.to(result::setArchitects);
-		map.from(hotel::geographicOrder).to(result::setGeographicOrder);
-		return result;
+
 	}
 
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import com.example.littletreasures.data.Hotel;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+
+/**
+ * Encodes {@link HotelSummary} bodies in the binary formats that clients can negotiate as
+ * an alternative to JSON. Summaries are written with the same field names and projections
+ * as the JSON bodies. Protobuf bodies follow the {@code proto/hotel-summary.proto}
+ * schema, with lists wrapped in a {@code HotelSummaries} message.
+ */
+class HotelSummaryEncoder {
+
+	/**
+	 * Media type value for Smile.
+	 */
+	static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+	/**
+	 * Media type value for Protobuf.
+	 */
+	static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+
+	static final String SCHEMA_LOCATION = "proto/hotel-summary.proto";
+
+	private static final Set<HotelSummary.Field> ALL_FIELDS = Collections
+		.unmodifiableSet(EnumSet.allOf(HotelSummary.Field.class));
+
+	private final HotelSummaries summaries;
+
+	private final JsonFactory cborFactory = new CBORFactory();
+
+	private final JsonFactory smileFactory = new SmileFactory();
+
+	private final JsonFactory protobufFactory = new ProtobufFactory();
+
+	private final ProtobufSchema summarySchema;
+
+	private final ProtobufSchema summariesSchema;
+
+	HotelSummaryEncoder(HotelSummaries summaries) {
+		this.summaries = summaries;
+		ProtobufSchema schema = loadSchema();
+		this.summarySchema = schema.withRootType("HotelSummary");
+		this.summariesSchema = schema.withRootType("HotelSummaries");
+	}
+
+	private static ProtobufSchema loadSchema() {
+		try (InputStream inputStream = new ClassPathResource(SCHEMA_LOCATION).getInputStream()) {
+			return ProtobufSchemaLoader.std.load(inputStream);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Unable to load hotel summary schema", ex);
+		}
+	}
+
+	/**
+	 * Encode the summary of a single hotel.
+	 * @param format the format to encode
+	 * @param hotel the hotel
+	 * @return the encoded body
+	 */
+	byte[] encode(Format format, Hotel hotel) {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+			try (JsonGenerator generator = createGenerator(format, out, this.summarySchema)) {
+				this.summaries.write(generator, hotel, ALL_FIELDS);
+			}
+			return out.toByteArray();
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to encode hotel " + format, ex);
+		}
+	}
+
+	/**
+	 * Encode the summaries of a list of hotels with only the given summary fields.
+	 * @param format the format to encode
+	 * @param hotels the hotels
+	 * @param fields the fields to include
+	 * @return the encoded body
+	 */
+	byte[] encode(Format format, List<Hotel> hotels, Set<HotelSummary.Field> fields) {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(hotels.size() * fields.size() * 24 + 16);
+			try (JsonGenerator generator = createGenerator(format, out, this.summariesSchema)) {
+				if (format == Format.PROTOBUF) {
+					generator.writeStartObject();
+					generator.writeFieldName("Hotels");
+				}
+				generator.writeStartArray();
+				for (Hotel hotel : hotels) {
+					this.summaries.write(generator, hotel, fields);
+				}
+				generator.writeEndArray();
+				if (format == Format.PROTOBUF) {
+					generator.writeEndObject();
+				}
+			}
+			return out.toByteArray();
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to encode hotels " + format, ex);
+		}
+	}
+
+	private JsonGenerator createGenerator(Format format, ByteArrayOutputStream out, ProtobufSchema schema)
+			throws IOException {
+		return switch (format) {
+			case CBOR -> this.cborFactory.createGenerator(out);
+			case SMILE -> this.smileFactory.createGenerator(out);
+			case PROTOBUF -> {
+				JsonGenerator generator = this.protobufFactory.createGenerator(out);
+				generator.setSchema(schema);
+				yield generator;
+			}
+		};
+	}
+
+	/**
+	 * The binary formats that summaries can be encoded in.
+	 */
+	enum Format {
+
+		/**
+		 * Concise Binary Object Representation (RFC 8949).
+		 */
+		CBOR(MediaType.APPLICATION_CBOR),
+
+		/**
+		 * Jackson's binary JSON format.
+		 */
+		SMILE(MediaType.parseMediaType(APPLICATION_SMILE_VALUE)),
+
+		/**
+		 * Protocol Buffers following the hotel summary schema.
+		 */
+		PROTOBUF(MediaType.parseMediaType(APPLICATION_PROTOBUF_VALUE));
+
+		private final MediaType mediaType;
+
+		Format(MediaType mediaType) {
+			this.mediaType = mediaType;
+		}
+
+		/**
+		 * Return the media type of the format.
+		 * @return the media type
+		 */
+		MediaType getMediaType() {
+			return this.mediaType;
+		}
+
+		/**
+		 * Return the format matching the given requested media type.
+		 * @param mediaType the requested media type
+		 * @return the format or {@code null}
+		 */
+		static Format forMediaType(MediaType mediaType) {
+			for (Format candidate : values()) {
+				if (candidate.mediaType.isCompatibleWith(mediaType)) {
+					return candidate;
+				}
+			}
+			return null;
+		}
+
+	}
+
+}
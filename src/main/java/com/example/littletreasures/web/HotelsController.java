@@ -16,48 +16,394 @@
 
 package com.example.littletreasures.web;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.service.HotelQuery;
+import com.example.littletreasures.service.HotelSort;
 import com.example.littletreasures.service.HotelsService;
+import com.example.littletreasures.service.HotelsView;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
- * {@link RestController @RestController} providing {@link HotelSummary} JSON.
+ * {@link RestController @RestController} providing {@link HotelSummary} JSON. Bodies are
+ * served from the {@link HotelsJsonCache} as pre-serialized bytes, gzipped when the
+ * client accepts it. Responses carry an entity tag derived from the hotel data checksum
+ * so that conditional requests can be answered with {@code 304 Not Modified} before any
+ * body is looked up. Each request uses a single {@link HotelsService#getCurrent() view}
+ * of the hotel data so that the entity tag always matches the body. All hotels can be
+ * sorted, paged using an offset or an opaque cursor, and projected to a subset of the
+ * summary fields. Hotels can also be searched with a ranked, prefix-matching query,
+ * filtered by attribute or found by location. Listings are also available as
+ * {@code application/x-ndjson}, streamed one hotel per line as they are written. Clients
+ * that prefer a compact binary encoding can negotiate CBOR, Smile or Protobuf bodies
+ * using the {@code Accept} header, JSON remains the default.
  */
 @RestController
-@RequestMapping(path = "/hotels", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(path = "/hotels", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+		HotelSummaryEncoder.APPLICATION_SMILE_VALUE, HotelSummaryEncoder.APPLICATION_PROTOBUF_VALUE })
 class HotelsController {
 
+	private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+	private static final Set<HotelSummary.Field> ALL_FIELDS = Collections
+		.unmodifiableSet(EnumSet.allOf(HotelSummary.Field.class));
+
 	private final HotelsService hotelsService;
 
-	HotelsController(HotelsService hotelsService) {
+	private final HotelsJsonCache json;
+
+	private final HotelSummaries summaries;
+
+	private final ObjectMapper objectMapper;
+
+	private final HotelSummaryEncoder encoder;
+
+	private final ContentNegotiationManager contentNegotiationManager;
+
+	private final CacheControl cacheControl;
+
+	private final HotelsJsonProperties.Paging paging;
+
+	HotelsController(HotelsService hotelsService, HotelsJsonCache json, HotelSummaries summaries,
+			ObjectMapper objectMapper, ContentNegotiationManager contentNegotiationManager,
+			HttpCachingProperties cachingProperties, HotelsJsonProperties jsonProperties) {
 		this.hotelsService = hotelsService;
+		this.json = json;
+		this.summaries = summaries;
+		this.objectMapper = objectMapper;
+		this.encoder = new HotelSummaryEncoder(summaries);
+		this.contentNegotiationManager = contentNegotiationManager;
+		this.cacheControl = cachingProperties.hotels().toCacheControl();
+		this.paging = jsonProperties.paging();
 	}
 
 	@GetMapping({ "", "/" })
-	List<HotelSummary> all() {
-		return this.hotelsService.getAll().stream().map(HotelSummary::get).toList();
+	ResponseEntity<byte[]> all(@RequestParam(required = false) String sort,
+			@RequestParam(required = false) Integer offset, @RequestParam(required = false) Integer limit,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) String fields,
+			NativeWebRequest request) {
+		HotelsView current = this.hotelsService.getCurrent();
+		if (sort == null && offset == null && limit == null && cursor == null && fields == null) {
+			return respond(request, current, current::getAll, ALL_FIELDS, null);
+		}
+		List<Hotel> hotels = getSorted(current, sort);
+		Set<HotelSummary.Field> selected = getFields(fields);
+		boolean paged = offset != null || limit != null || cursor != null;
+		if (!paged) {
+			return respond(request, current, () -> hotels, selected, null);
+		}
+		if (offset != null && cursor != null) {
+			throw badRequest("Either 'offset' or 'cursor' may be specified");
+		}
+		int from = (cursor != null) ? decodeCursor(current, cursor) : (offset != null) ? offset : 0;
+		if (from < 0) {
+			throw badRequest("'offset' must not be negative");
+		}
+		int size = getLimit(limit);
+		from = Math.min(from, hotels.size());
+		int to = (int) Math.min((long) from + size, hotels.size());
+		List<Hotel> page = hotels.subList(from, to);
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(TOTAL_COUNT_HEADER, Integer.toString(hotels.size()));
+		if (to > from && to < hotels.size()) {
+			String next = ServletUriComponentsBuilder.fromCurrentRequest()
+				.replaceQueryParam("offset")
+				.replaceQueryParam("cursor", encodeCursor(current, to))
+				.build()
+				.toUriString();
+			headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+		}
+		return respond(request, current, () -> page, selected, headers);
+	}
+
+	@GetMapping(path = { "", "/" }, produces = MediaType.APPLICATION_NDJSON_VALUE)
+	ResponseEntity<StreamingResponseBody> allAsNdjson(@RequestParam(required = false) String sort,
+			@RequestParam(required = false) String fields, WebRequest request) {
+		HotelsView current = this.hotelsService.getCurrent();
+		return stream(request, current, () -> getSorted(current, sort), getFields(fields));
+	}
+
+	private List<Hotel> getSorted(HotelsView current, String sort) {
+		if (!StringUtils.hasText(sort)) {
+			return current.getAll();
+		}
+		boolean descending = sort.startsWith("-");
+		String name = (descending) ? sort.substring(1) : sort;
+		for (HotelSort candidate : HotelSort.values()) {
+			if (candidate.name().equalsIgnoreCase(name)) {
+				return current.getAll(candidate, descending);
+			}
+		}
+		throw badRequest("Unknown sort '" + sort + "'");
+	}
+
+	private int getLimit(Integer limit) {
+		int size = (limit != null) ? limit : this.paging.defaultLimit();
+		if (size < 1 || size > this.paging.maxLimit()) {
+			throw badRequest("'limit' must be between 1 and " + this.paging.maxLimit());
+		}
+		return size;
+	}
+
+	private Set<HotelSummary.Field> getFields(String fields) {
+		if (!StringUtils.hasText(fields)) {
+			return ALL_FIELDS;
+		}
+		Set<HotelSummary.Field> selected = EnumSet.noneOf(HotelSummary.Field.class);
+		for (String name : StringUtils.commaDelimitedListToStringArray(fields)) {
+			HotelSummary.Field field = HotelSummary.Field.forJsonName(name.trim());
+			if (field == null) {
+				throw badRequest("Unknown field '" + name.trim() + "'");
+			}
+			selected.add(field);
+		}
+		return selected;
+	}
+
+	private String encodeCursor(HotelsView current, int offset) {
+		String cursor = current.getChecksum() + ":" + offset;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private int decodeCursor(HotelsView current, String cursor) {
+		String decoded;
+		int offset;
+		try {
+			decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			offset = Integer.parseInt(decoded.substring(decoded.lastIndexOf(':') + 1));
+		}
+		catch (IllegalArgumentException ex) {
+			throw badRequest("Invalid cursor '" + cursor + "'");
+		}
+		if (!decoded.startsWith(current.getChecksum() + ":")) {
+			throw badRequest("Expired cursor '" + cursor + "'");
+		}
+		return offset;
+	}
+
+	private ResponseStatusException badRequest(String reason) {
+		return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
 	}
 
 	@GetMapping("/{name}")
-	HotelSummary byName(@PathVariable String name) {
-		HotelSummary hotel = HotelSummary.get(this.hotelsService.findByName(name));
+	ResponseEntity<byte[]> byName(@PathVariable String name, NativeWebRequest request) {
+		HotelsView current = this.hotelsService.getCurrent();
+		Hotel hotel = current.findByName(name);
 		if (hotel == null) {
 			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
 		}
-		return hotel;
+		return respond(request, current, () -> this.json.get(hotel), (format) -> this.encoder.encode(format, hotel),
+				null);
+	}
+
+	@GetMapping("/search")
+	ResponseEntity<byte[]> search(@RequestParam String q, @RequestParam(required = false) Integer limit,
+			@RequestParam(required = false) String fields, NativeWebRequest request) {
+		int size = getLimit(limit);
+		Set<HotelSummary.Field> selected = getFields(fields);
+		HotelsView current = this.hotelsService.getCurrent();
+		return respond(request, current, () -> current.search(q, size), selected, null);
+	}
+
+	@GetMapping("/query")
+	ResponseEntity<byte[]> query(HotelQuery query, @RequestParam(required = false) String fields,
+			NativeWebRequest request) {
+		Set<HotelSummary.Field> selected = getFields(fields);
+		HotelsView current = this.hotelsService.getCurrent();
+		return respond(request, current, () -> current.query(query), selected, null);
+	}
+
+	@GetMapping("/near")
+	ResponseEntity<byte[]> near(@RequestParam double lat, @RequestParam double lon, @RequestParam double radius,
+			@RequestParam(required = false) Integer limit, @RequestParam(required = false) String fields,
+			NativeWebRequest request) {
+		assertLocation(lat, lon);
+		if (!(radius > 0)) {
+			throw badRequest("'radius' must be positive");
+		}
+		int size = getLimit(limit);
+		Set<HotelSummary.Field> selected = getFields(fields);
+		HotelsView current = this.hotelsService.getCurrent();
+		return respond(request, current, () -> current.findWithin(lat, lon, radius, size), selected, null);
+	}
+
+	@GetMapping("/nearest")
+	ResponseEntity<byte[]> nearest(@RequestParam double lat, @RequestParam double lon,
+			@RequestParam(required = false) Integer limit, @RequestParam(required = false) String fields,
+			NativeWebRequest request) {
+		assertLocation(lat, lon);
+		int size = getLimit(limit);
+		Set<HotelSummary.Field> selected = getFields(fields);
+		HotelsView current = this.hotelsService.getCurrent();
+		return respond(request, current, () -> current.findNearest(lat, lon, size), selected, null);
+	}
+
+	private void assertLocation(double lat, double lon) {
+		if (!(lat >= -90 && lat <= 90)) {
+			throw badRequest("'lat' must be between -90 and 90");
+		}
+		if (!(lon >= -180 && lon <= 180)) {
+			throw badRequest("'lon' must be between -180 and 180");
+		}
 	}
 
 	@GetMapping("/search/geographicorder/{name}")
-	List<HotelSummary> byGeographicOrder(@PathVariable String name) {
-		return this.hotelsService.findByGeographicOrder(name).stream().map(HotelSummary::get).toList();
+	ResponseEntity<byte[]> byGeographicOrder(@PathVariable String name, NativeWebRequest request) {
+		HotelsView current = this.hotelsService.getCurrent();
+		return respond(request, current, () -> current.findByGeographicOrder(name), ALL_FIELDS, null);
+	}
+
+	@GetMapping(path = "/search/geographicorder/{name}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	ResponseEntity<StreamingResponseBody> byGeographicOrderAsNdjson(@PathVariable String name,
+			@RequestParam(required = false) String fields, WebRequest request) {
+		HotelsView current = this.hotelsService.getCurrent();
+		return stream(request, current, () -> current.findByGeographicOrder(name), getFields(fields));
+	}
+
+	private ResponseEntity<StreamingResponseBody> stream(WebRequest request, HotelsView current,
+			Supplier<List<Hotel>> hotels, Set<HotelSummary.Field> fields) {
+		String eTag = "\"" + current.getChecksum() + "-ndjson\"";
+		if (request.checkNotModified(eTag)) {
+			return null;
+		}
+		List<Hotel> streamed = hotels.get();
+		StreamingResponseBody body = (outputStream) -> {
+			try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(outputStream)) {
+				generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+				generator.setRootValueSeparator(null);
+				for (int i = 0; i < streamed.size(); i++) {
+					this.summaries.write(generator, streamed.get(i), fields);
+					generator.writeRaw('\n');
+					if (i == 0) {
+						generator.flush();
+					}
+				}
+			}
+		};
+		return ResponseEntity.ok()
+			.contentType(MediaType.APPLICATION_NDJSON)
+			.eTag(eTag)
+			.cacheControl(this.cacheControl)
+			.varyBy(HttpHeaders.ACCEPT)
+			.body(body);
+	}
+
+	private ResponseEntity<byte[]> respond(NativeWebRequest request, HotelsView current, Supplier<List<Hotel>> hotels,
+			Set<HotelSummary.Field> fields, HttpHeaders headers) {
+		return respond(request, current, () -> this.json.get(hotels.get(), fields),
+				(format) -> this.encoder.encode(format, hotels.get(), fields), headers);
+	}
+
+	private ResponseEntity<byte[]> respond(NativeWebRequest request, HotelsView current,
+			Supplier<HotelsJsonCache.Body> body, Function<HotelSummaryEncoder.Format, byte[]> encoded,
+			HttpHeaders headers) {
+		HotelSummaryEncoder.Format format = getFormat(request);
+		if (format != null) {
+			return respond(request, current, format, encoded, headers);
+		}
+		boolean acceptsGzip = this.json.isGzipEnabled() && acceptsGzip(request);
+		String eTag = "\"" + current.getChecksum() + ((acceptsGzip) ? "-gzip\"" : "\"");
+		if (request.checkNotModified(eTag)) {
+			return null;
+		}
+		HotelsJsonCache.Body json = body.get();
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+			.contentType(MediaType.APPLICATION_JSON)
+			.eTag(eTag)
+			.cacheControl(this.cacheControl);
+		if (headers != null) {
+			response.headers(headers);
+		}
+		if (this.json.isGzipEnabled()) {
+			response.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+		}
+		else {
+			response.varyBy(HttpHeaders.ACCEPT);
+		}
+		if (acceptsGzip && json.gzipped() != null) {
+			return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(json.gzipped());
+		}
+		return response.body(json.content());
+	}
+
+	private ResponseEntity<byte[]> respond(NativeWebRequest request, HotelsView current,
+			HotelSummaryEncoder.Format format, Function<HotelSummaryEncoder.Format, byte[]> encoded,
+			HttpHeaders headers) {
+		String eTag = "\"" + current.getChecksum() + "-" + format.name().toLowerCase(Locale.ROOT) + "\"";
+		if (request.checkNotModified(eTag)) {
+			return null;
+		}
+		byte[] body = encoded.apply(format);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+			.contentType(format.getMediaType())
+			.eTag(eTag)
+			.cacheControl(this.cacheControl)
+			.varyBy(HttpHeaders.ACCEPT);
+		if (headers != null) {
+			response.headers(headers);
+		}
+		return response.body(body);
+	}
+
+	private HotelSummaryEncoder.Format getFormat(NativeWebRequest request) {
+		try {
+			for (MediaType requested : this.contentNegotiationManager.resolveMediaTypes(request)) {
+				if (requested.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+					return null;
+				}
+				HotelSummaryEncoder.Format format = HotelSummaryEncoder.Format.forMediaType(requested);
+				if (format != null) {
+					return format;
+				}
+			}
+		}
+		catch (HttpMediaTypeNotAcceptableException ex) {
+			// Fall back to JSON
+		}
+		return null;
+	}
+
+	private boolean acceptsGzip(WebRequest request) {
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : StringUtils.commaDelimitedListToStringArray(acceptEncoding)) {
+			String[] parts = coding.trim().split(";");
+			if (parts[0].trim().equalsIgnoreCase("gzip")) {
+				return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
 	}
 
 }
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.service.HotelSort;
+import com.example.littletreasures.service.HotelsReloadedEvent;
+import com.example.littletreasures.service.HotelsService;
+import com.example.littletreasures.service.HotelsView;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of the JSON bodies returned by {@link HotelsController}. Bodies for all hotels,
+ * each sort order, each hotel and each geographic order are serialized once as UTF-8
+ * bytes, with an optional gzip variant, and are rebuilt only when the
+ * {@link HotelsService#getChecksum() hotel data checksum} changes. The bodies are built
+ * from a single {@link HotelsService#getCurrent() view} of the hotel data when it is
+ * {@link HotelsReloadedEvent reloaded} and published with a single reference write.
+ * Requests only build the bodies if none exist for the current data, and while bodies are
+ * being built other requests keep using the previous ones rather than waiting. Results
+ * are looked up by the identity of the objects returned from {@link HotelsService}, so
+ * results from older or newer data are serialized on demand.
+ */
+@Component
+class HotelsJsonCache {
+
+	private final HotelsService hotelsService;
+
+	private final HotelSummaries summaries;
+
+	private final ObjectMapper objectMapper;
+
+	private final HotelsJsonProperties.Gzip gzip;
+
+	private final Lock lock = new ReentrantLock();
+
+	private volatile Snapshot snapshot;
+
+	HotelsJsonCache(HotelsService hotelsService, HotelSummaries summaries, ObjectMapper objectMapper,
+			HotelsJsonProperties properties) {
+		this.hotelsService = hotelsService;
+		this.summaries = summaries;
+		this.objectMapper = objectMapper;
+		this.gzip = properties.gzip();
+	}
+
+	/**
+	 * Return if bodies may have gzip variants.
+	 * @return if gzip is enabled
+	 */
+	boolean isGzipEnabled() {
+		return this.gzip.enabled();
+	}
+
+	/**
+	 * Return the body for a single hotel.
+	 * @param hotel a hotel returned from {@link HotelsService}
+	 * @return the body
+	 */
+	Body get(Hotel hotel) {
+		Body body = getSnapshot().byHotel().get(hotel);
+		return (body != null) ? body : createBody(this.summaries.get(hotel));
+	}
+
+	/**
+	 * Return the body for a list of hotels.
+	 * @param hotels a list of hotels returned from {@link HotelsService}
+	 * @return the body
+	 */
+	Body get(List<Hotel> hotels) {
+		Body body = getSnapshot().byList().get(hotels);
+		return (body != null) ? body : createBody(this.summaries.get(hotels));
+	}
+
+	/**
+	 * Return the body for a list of hotels with only the given summary fields. Bodies for
+	 * projections and for lists not returned from {@link HotelsService} are serialized on
+	 * demand and have no gzip variant.
+	 * @param hotels the hotels
+	 * @param fields the fields to include
+	 * @return the body
+	 */
+	Body get(List<Hotel> hotels, Set<HotelSummary.Field> fields) {
+		if (fields.size() == HotelSummary.Field.values().length) {
+			Body body = getSnapshot().byList().get(hotels);
+			return (body != null) ? body : new Body(serialize(this.summaries.get(hotels)), null);
+		}
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(hotels.size() * fields.size() * 32);
+			try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(out)) {
+				generator.writeStartArray();
+				for (Hotel hotel : hotels) {
+					this.summaries.write(generator, hotel, fields);
+				}
+				generator.writeEndArray();
+			}
+			return new Body(out.toByteArray(), null);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to serialize hotel JSON", ex);
+		}
+	}
+
+	/**
+	 * Clear all cached bodies so that they are rebuilt when next requested.
+	 */
+	void clear() {
+		this.lock.lock();
+		try {
+			this.snapshot = null;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Build the bodies for reloaded hotel data so that requests do not have to.
+	 * @param event the reload event
+	 */
+	@EventListener
+	void onHotelsReloaded(HotelsReloadedEvent event) {
+		this.lock.lock();
+		try {
+			update(event.getView());
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private Snapshot getSnapshot() {
+		Snapshot snapshot = this.snapshot;
+		if (snapshot != null && snapshot.checksum().equals(this.hotelsService.getChecksum())) {
+			return snapshot;
+		}
+		if (snapshot == null) {
+			this.lock.lock();
+		}
+		else if (!this.lock.tryLock()) {
+			return snapshot;
+		}
+		try {
+			return update(this.hotelsService.getCurrent());
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Update the cached bodies if they were not built from the given view. Must be called
+	 * with the lock held.
+	 * @param current the view of the hotel data
+	 * @return the cached bodies for the view
+	 */
+	private Snapshot update(HotelsView current) {
+		Snapshot snapshot = this.snapshot;
+		if (snapshot == null || !snapshot.checksum().equals(current.getChecksum())) {
+			snapshot = createSnapshot(current);
+			this.snapshot = snapshot;
+		}
+		return snapshot;
+	}
+
+	private Snapshot createSnapshot(HotelsView current) {
+		List<Hotel> all = current.getAll();
+		Map<Hotel, Body> byHotel = new IdentityHashMap<>();
+		all.forEach((hotel) -> byHotel.put(hotel, createBody(this.summaries.get(hotel))));
+		Map<List<Hotel>, Body> byList = new IdentityHashMap<>();
+		byList.put(Collections.emptyList(), createBody(Collections.emptyList()));
+		byList.put(all, createBody(this.summaries.get(all)));
+		all.stream()
+			.map(Hotel::geographicOrder)
+			.distinct()
+			.map(current::findByGeographicOrder)
+			.forEach((hotels) -> byList.put(hotels, createBody(this.summaries.get(hotels))));
+		for (HotelSort sort : HotelSort.values()) {
+			for (boolean descending : new boolean[] { false, true }) {
+				List<Hotel> hotels = current.getAll(sort, descending);
+				byList.put(hotels, createBody(this.summaries.get(hotels)));
+			}
+		}
+		return new Snapshot(current.getChecksum(), byHotel, byList);
+	}
+
+	private Body createBody(Object value) {
+		byte[] content = serialize(value);
+		return new Body(content, gzip(content));
+	}
+
+	private byte[] serialize(Object value) {
+		try {
+			return this.objectMapper.writeValueAsBytes(value);
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Unable to serialize hotel JSON", ex);
+		}
+	}
+
+	private byte[] gzip(byte[] content) {
+		if (!this.gzip.enabled() || content.length < this.gzip.minSize().toBytes()) {
+			return null;
+		}
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4);
+			try (GZIPOutputStream stream = new GZIPOutputStream(out)) {
+				stream.write(content);
+			}
+			return out.toByteArray();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * A serialized JSON body.
+	 *
+	 * @param content the UTF-8 JSON content
+	 * @param gzipped the gzipped content or {@code null} if there is no gzip variant
+	 */
+	record Body(byte[] content, byte[] gzipped) {
+
+	}
+
+	private record Snapshot(String checksum, Map<Hotel, Body> byHotel, Map<List<Hotel>, Body> byList) {
+
+	}
+
+}
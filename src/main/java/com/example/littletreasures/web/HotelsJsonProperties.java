@@ -0,0 +1,54 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Properties for the pre-serialized hotel JSON responses.
+ *
+ * @param gzip the gzip properties
+ * @param paging the paging properties
+ */
+@ConfigurationProperties(prefix = "littletreasures.web.hotels-json")
+record HotelsJsonProperties(@DefaultValue Gzip gzip, @DefaultValue Paging paging) {
+
+	/**
+	 * Properties for gzip variants of the JSON responses.
+	 *
+	 * @param enabled if gzip variants should be created and served to clients that accept
+	 * them
+	 * @param minSize the minimum size of a response for a gzip variant to be created
+	 */
+	record Gzip(@DefaultValue("true") boolean enabled, @DefaultValue("1KB") DataSize minSize) {
+
+	}
+
+	/**
+	 * Properties for paged JSON responses.
+	 *
+	 * @param defaultLimit the number of hotels returned when a page is requested without
+	 * a limit
+	 * @param maxLimit the maximum number of hotels that may be requested per page
+	 */
+	record Paging(@DefaultValue("20") int defaultLimit, @DefaultValue("100") int maxLimit) {
+
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.web;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.http.CacheControl;
+
+/**
+ * HTTP caching properties for the web endpoints.
+ *
+ * @param images the {@code Cache-Control} properties for image responses
+ * @param hotels the {@code Cache-Control} properties for hotel JSON responses
+ */
+@ConfigurationProperties(prefix = "littletreasures.web.caching")
+record HttpCachingProperties(@DefaultValue CacheControlProperties images, @DefaultValue CacheControlProperties hotels) {
+
+	/**
+	 * {@code Cache-Control} properties.
+	 *
+	 * @param maxAge the time that a response may be cached, or {@code null} if caches
+	 * must always revalidate the response
+	 * @param cachePublic if shared caches may store the response
+	 * @param immutable if the response will not change while it is fresh
+	 */
+	record CacheControlProperties(Duration maxAge, @DefaultValue("true") boolean cachePublic, boolean immutable) {
+
+		CacheControl toCacheControl() {
+			CacheControl cacheControl = (this.maxAge != null) ? CacheControl.maxAge(this.maxAge)
+					: CacheControl.noCache();
+			cacheControl = (this.cachePublic) ? cacheControl.cachePublic() : cacheControl;
+			return (this.immutable) ? cacheControl.immutable() : cacheControl;
+		}
+
+	}
+
+}
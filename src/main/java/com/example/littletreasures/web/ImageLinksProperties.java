@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.StringUtils;
+
+/**
+ * Properties for the image links included in hotel JSON responses. Links point at the CDN
+ * when one is configured so that image traffic never reaches the application, falling
+ * back to the origin otherwise.
+ *
+ * @param cdnBaseUrl the base URL of the CDN serving hotel images, or {@code null} if
+ * images are not served from a CDN
+ * @param originBaseUrl the base URL of the origin serving hotel images
+ */
+@ConfigurationProperties(prefix = "littletreasures.web.image-links")
+record ImageLinksProperties(String cdnBaseUrl, @DefaultValue("http://localhost:8080/images/") String originBaseUrl) {
+
+	/**
+	 * Return the base URL used for image links, always ending with a slash.
+	 * @return the base URL
+	 */
+	String getBaseUrl() {
+		String baseUrl = (StringUtils.hasText(this.cdnBaseUrl)) ? this.cdnBaseUrl : this.originBaseUrl;
+		return (baseUrl.endsWith("/")) ? baseUrl : baseUrl + "/";
+	}
+
+}
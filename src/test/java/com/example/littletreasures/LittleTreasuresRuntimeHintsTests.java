@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures;
+
+import java.util.List;
+
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.data.HotelProperties;
+import com.example.littletreasures.web.HotelSummary;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link LittleTreasuresRuntimeHints}.
+ */
+class LittleTreasuresRuntimeHintsTests {
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	LittleTreasuresRuntimeHintsTests() {
+		new LittleTreasuresRuntimeHints().registerHints(this.hints, getClass().getClassLoader());
+	}
+
+	@Test
+	void registersHintsForBindingHotelData() throws NoSuchMethodException {
+		assertThat(RuntimeHintsPredicates.reflection()
+			.onConstructor(HotelProperties.class.getDeclaredConstructor(int.class, List.class))
+			.invoke()).accepts(this.hints);
+		assertThat(RuntimeHintsPredicates.reflection()
+			.onConstructor(Hotel.class.getDeclaredConstructor(String.class, String.class, String.class, int.class,
+					String.class, String.class, String.class, List.class, String.class, Double.class, Double.class))
+			.invoke()).accepts(this.hints);
+	}
+
+	@Test
+	void registersHintsForSerializingHotelSummary() {
+		assertThat(RuntimeHintsPredicates.reflection().onType(HotelSummary.class)).accepts(this.hints);
+	}
+
+	@Test
+	void registersHintsForResources() {
+		assertThat(RuntimeHintsPredicates.resource().forResource("hotels.yml")).accepts(this.hints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("hotels.bin")).accepts(this.hints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("images/Bellagio-front.jpg")).accepts(this.hints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("proto/hotel-summary.proto")).accepts(this.hints);
+	}
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the metrics exposed for Prometheus.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+class MetricsTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void prometheusExposesApplicationMetrics() {
+		this.restTemplate.getForEntity("/hotels/Bellagio", String.class);
+		String metrics = this.restTemplate.getForObject("/actuator/prometheus", String.class);
+		assertThat(metrics).contains("http_server_requests_seconds_bucket{")
+			.contains("uri=\"/hotels/{name}\"")
+			.contains("hotels_lookups_total{lookup=\"name\",result=\"hit\",}")
+			.contains("cache_gets_total{cache=\"thumbnails\"")
+			.contains("cache_bytes{cache=\"thumbnails\",}")
+			.contains("cache_hit_ratio{cache=\"thumbnails\",}")
+			.contains("thumbnails_render_seconds_count{stage=\"decode\",}");
+	}
+
+}
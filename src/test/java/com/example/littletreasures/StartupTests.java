@@ -54,6 +54,17 @@ class StartupTests {
 		assertThat(out).doesNotContain("AUTH:");
 	}
 
+	@Test
+	void isTrainingRunWhenNoPropertyReturnsFalse() {
+		assertThat(Startup.isTrainingRun()).isFalse();
+	}
+
+	@Test
+	void isTrainingRunWhenPropertyTrueReturnsTrue() {
+		TestPropertyValues.of("com.example.training:true")
+			.applyToSystemProperties(() -> assertThat(Startup.isTrainingRun()).isTrue());
+	}
+
 	@Test
 	@Disabled
 	void doingThingsManually() {
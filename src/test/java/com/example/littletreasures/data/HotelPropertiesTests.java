@@ -0,0 +1,78 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.data;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for binding {@link HotelProperties}.
+ */
+class HotelPropertiesTests {
+
+	@Test
+	void bindHotelsYaml() throws IOException {
+		HotelProperties properties = new Binder(ConfigurationPropertySources
+			.from(new YamlPropertySourceLoader().load("hotels", new ClassPathResource("hotels.yml"))))
+			.bindOrCreate("treasures", HotelProperties.class);
+		assertThat(properties.fileVersion()).isOne();
+		assertThat(properties.hotels()).first().satisfies((hotel) -> {
+			assertThat(hotel.name()).isEqualTo("flamingo");
+			assertThat(hotel.latitude()).isEqualTo(36.1162);
+			assertThat(hotel.longitude()).isEqualTo(-115.1706);
+			assertThat(hotel.hasLocation()).isTrue();
+		});
+		assertThat(properties.hotels()).filteredOn((hotel) -> !hotel.hasLocation())
+			.extracting(Hotel::name)
+			.containsExactly("Dream");
+	}
+
+	@Test
+	void createSharesRepeatedValues() {
+		Hotel first = new Hotel("a", "a", null, 1, new String("1990"), new String("o"), null, List.of(new String("x")),
+				new String("south"));
+		Hotel second = new Hotel("b", "b", null, 1, new String("1990"), new String("o"), "t", List.of(new String("x")),
+				new String("north"));
+		List<Hotel> hotels = new HotelProperties(1, List.of(first, second)).hotels();
+		assertThat(hotels).containsExactly(first, second);
+		assertThat(hotels.get(0)).isSameAs(first);
+		assertThat(hotels.get(1).opened()).isSameAs(first.opened());
+		assertThat(hotels.get(1).operator()).isSameAs(first.operator());
+		assertThat(hotels.get(1).architects()).isSameAs(first.architects());
+		assertThat(hotels.get(1).geographicOrder()).isSameAs(second.geographicOrder());
+	}
+
+	@Test
+	void createWhenValuesAreSharedKeepsHotels() {
+		List<Hotel> hotels = new HotelProperties(1,
+				List.of(new Hotel("a", "a", null, 1, "1990", "o", null, List.of("x"), "south"),
+						new Hotel("b", "b", null, 1, "1990", "o", null, List.of("x"), "south")))
+			.hotels();
+		assertThat(new HotelProperties(1, hotels).hotels()).zipSatisfy(hotels,
+				(actual, expected) -> assertThat(actual).isSameAs(expected));
+	}
+
+}
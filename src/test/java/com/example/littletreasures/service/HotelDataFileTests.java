@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.data.HotelProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link HotelDataFile} and {@link HotelDataCompiler}.
+ */
+class HotelDataFileTests {
+
+	@TempDir
+	private Path temp;
+
+	@Test
+	void readReturnsWrittenHotelsAndIndexes() throws IOException {
+		HotelProperties properties = HotelsYaml.load(new ClassPathResource("hotels.yml"));
+		HotelsSnapshot expected = new HotelsSnapshot(properties);
+		HotelsSnapshot snapshot = HotelDataFile.read(new ByteArrayInputStream(write(properties, "source")), "source");
+		assertThat(snapshot.getAll()).isEqualTo(expected.getAll());
+		assertThat(snapshot.getChecksum()).isEqualTo(expected.getChecksum());
+		assertThat(snapshot.findByName("BELLAGIO")).isSameAs(snapshot.getAll().get(indexOf(snapshot, "Bellagio")));
+		assertThat(snapshot.findByName("Stardust")).isNull();
+		assertThat(snapshot.findByGeographicOrder("center strip"))
+			.isEqualTo(expected.findByGeographicOrder("Center Strip"));
+		assertThat(snapshot.getAll().get(0).operator()).isSameAs(snapshot.getAll().get(3).operator());
+	}
+
+	@Test
+	void readWhenSourceChangedReturnsNull() throws IOException {
+		HotelProperties properties = new HotelProperties(1, List.of(createHotel("a")));
+		assertThat(HotelDataFile.read(new ByteArrayInputStream(write(properties, "source")), "changed")).isNull();
+	}
+
+	@Test
+	void readWhenNotCompiledHotelDataThrowsException() {
+		assertThatIllegalStateException()
+			.isThrownBy(() -> HotelDataFile.read(new ByteArrayInputStream(new byte[8]), "source"))
+			.withMessage("Not a compiled hotel data file");
+	}
+
+	@Test
+	void writeWhenFileVersionIsNotSupportedThrowsException() {
+		HotelProperties properties = new HotelProperties(2, List.of(createHotel("a")));
+		assertThatIllegalStateException().isThrownBy(() -> write(properties, "source"))
+			.withMessage("Only version 1 is supported");
+	}
+
+	@Test
+	void loadWhenDataDoesNotExistReturnsNull() {
+		Resource source = new ByteArrayResource(new byte[0]);
+		assertThat(HotelDataFile.load(new FileSystemResource(this.temp.resolve("missing.bin")), source)).isNull();
+	}
+
+	@Test
+	void loadWhenDataIsInvalidReturnsNull() {
+		Resource source = new ByteArrayResource(new byte[0]);
+		assertThat(HotelDataFile.load(new ByteArrayResource(new byte[] { 1 }), source)).isNull();
+	}
+
+	@Test
+	void compileAndLoad() throws IOException {
+		Path source = this.temp.resolve("hotels.yml");
+		Files.writeString(source,
+				String.join("\n", "treasures:", "  file-version: 1", "  hotels:", "  - name: a", "    address: a",
+						"    rooms: 1", "    opened: \"1990\"", "    operator: o", "    geographic-order: south", ""),
+				StandardCharsets.UTF_8);
+		Path destination = this.temp.resolve("hotels.bin");
+		HotelDataCompiler.main(new String[] { source.toString(), destination.toString() });
+		HotelsSnapshot snapshot = HotelDataFile.load(new FileSystemResource(destination),
+				new FileSystemResource(source));
+		assertThat(snapshot.findByName("A").address()).isEqualTo("a");
+		Files.writeString(source, "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		assertThat(HotelDataFile.load(new FileSystemResource(destination), new FileSystemResource(source))).isNull();
+	}
+
+	@Test
+	void compileWhenFileVersionIsNotSupportedThrowsException() throws IOException {
+		Path source = this.temp.resolve("hotels.yml");
+		Files.writeString(source, String.join("\n", "treasures:", "  file-version: 2", "  hotels: []", ""));
+		Path destination = this.temp.resolve("hotels.bin");
+		assertThatIllegalStateException()
+			.isThrownBy(() -> HotelDataCompiler.main(new String[] { source.toString(), destination.toString() }))
+			.withMessage("Only version 1 is supported");
+		assertThat(destination).doesNotExist();
+	}
+
+	private byte[] write(HotelProperties properties, String sourceChecksum) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		HotelDataFile.write(properties, sourceChecksum, outputStream);
+		return outputStream.toByteArray();
+	}
+
+	private int indexOf(HotelsSnapshot snapshot, String name) {
+		return snapshot.getAll().stream().map(Hotel::name).toList().indexOf(name);
+	}
+
+	private static Hotel createHotel(String name) {
+		return new Hotel(name, "a", null, 1, "1990", "o", null, List.of(), "south");
+	}
+
+}
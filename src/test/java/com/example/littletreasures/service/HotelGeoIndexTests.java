@@ -0,0 +1,139 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import com.example.littletreasures.data.Hotel;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for {@link HotelGeoIndex}.
+ */
+class HotelGeoIndexTests {
+
+	private static final Hotel BELLAGIO = hotel("Bellagio", 36.1126, -115.1767);
+
+	private static final Hotel CAESARS = hotel("Caesars Palace", 36.1162, -115.1745);
+
+	private static final Hotel PARIS = hotel("Paris", 36.1125, -115.1707);
+
+	private static final Hotel STRAT = hotel("The Strat", 36.1475, -115.1566);
+
+	private static final Hotel DREAM = new Hotel("Dream", "a", null, 1, "2024", "o", null, null, "south strip");
+
+	private final HotelGeoIndex index = new HotelGeoIndex(List.of(STRAT, PARIS, DREAM, CAESARS, BELLAGIO));
+
+	@Test
+	void distanceReturnsHaversineDistance() {
+		double distance = HotelGeoIndex.distance(Math.toRadians(36.1126), Math.toRadians(-115.1767),
+				Math.toRadians(36.1475), Math.toRadians(-115.1566));
+		assertThat(distance).isCloseTo(4280, within(1.0));
+	}
+
+	@Test
+	void findWithinReturnsHotelsInRadiusNearestFirst() {
+		assertThat(this.index.findWithin(36.1126, -115.1767, 600, 10)).containsExactly(BELLAGIO, CAESARS, PARIS);
+		assertThat(this.index.findWithin(36.1126, -115.1767, 450, 10)).containsExactly(BELLAGIO, CAESARS);
+	}
+
+	@Test
+	void findWithinIsLimited() {
+		assertThat(this.index.findWithin(36.1126, -115.1767, 10_000, 2)).containsExactly(BELLAGIO, CAESARS);
+	}
+
+	@Test
+	void findWithinWhenNoneInRadiusReturnsEmptyList() {
+		assertThat(this.index.findWithin(40.7128, -74.0060, 10_000, 10)).isEmpty();
+	}
+
+	@Test
+	void findNearestReturnsNearestHotelsWithLocation() {
+		assertThat(this.index.findNearest(36.15, -115.15, 10)).containsExactly(STRAT, CAESARS, PARIS, BELLAGIO);
+		assertThat(this.index.findNearest(36.15, -115.15, 1)).containsExactly(STRAT);
+	}
+
+	@Test
+	void findNearestWhenNoHotelsReturnsEmptyList() {
+		assertThat(new HotelGeoIndex(List.of(DREAM)).findNearest(36.15, -115.15, 10)).isEmpty();
+	}
+
+	@Test
+	void findMatchesBruteForce() {
+		Random random = new Random(42);
+		List<Hotel> hotels = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			hotels.add(hotel("h" + i, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+		}
+		HotelGeoIndex index = new HotelGeoIndex(hotels);
+		for (int i = 0; i < 50; i++) {
+			double latitude = random.nextDouble() * 180 - 90;
+			double longitude = random.nextDouble() * 360 - 180;
+			Comparator<Hotel> byDistance = Comparator.comparingDouble((hotel) -> distance(latitude, longitude, hotel));
+			List<Hotel> nearest = hotels.stream().sorted(byDistance).limit(5).toList();
+			assertThat(index.findNearest(latitude, longitude, 5)).containsExactlyElementsOf(nearest);
+			List<Hotel> within = hotels.stream()
+				.filter((hotel) -> distance(latitude, longitude, hotel) <= 500_000)
+				.sorted(byDistance)
+				.toList();
+			assertThat(index.findWithin(latitude, longitude, 500_000, 2000)).containsExactlyElementsOf(within);
+		}
+	}
+
+	@Test
+	void findWhenNearestIsAcrossAntimeridianToTheWestReturnsHotel() {
+		Hotel east = hotel("east", 0, 179);
+		HotelGeoIndex index = new HotelGeoIndex(createGrid(-130, east));
+		assertThat(index.findNearest(0, -170, 1)).containsExactly(east);
+		assertThat(index.findWithin(0, -170, 2_000_000, 10)).containsExactly(east);
+	}
+
+	@Test
+	void findWhenNearestIsAcrossAntimeridianToTheEastReturnsHotel() {
+		Hotel west = hotel("west", 0, -179);
+		HotelGeoIndex index = new HotelGeoIndex(createGrid(90, west));
+		assertThat(index.findNearest(0, 170, 1)).containsExactly(west);
+		assertThat(index.findWithin(0, 170, 2_000_000, 10)).containsExactly(west);
+	}
+
+	private List<Hotel> createGrid(int fromLongitude, Hotel hotel) {
+		List<Hotel> hotels = new ArrayList<>();
+		for (int longitude = fromLongitude; longitude <= fromLongitude + 40; longitude += 10) {
+			for (int latitude = -10; latitude <= 10; latitude += 5) {
+				hotels.add(hotel("h" + latitude + "/" + longitude, latitude, longitude));
+			}
+		}
+		hotels.add(hotel);
+		return hotels;
+	}
+
+	private static double distance(double latitude, double longitude, Hotel hotel) {
+		return HotelGeoIndex.distance(Math.toRadians(latitude), Math.toRadians(longitude),
+				Math.toRadians(hotel.latitude()), Math.toRadians(hotel.longitude()));
+	}
+
+	private static Hotel hotel(String name, double latitude, double longitude) {
+		return new Hotel(name, "a", null, 1, "1990", "o", null, null, "strip", latitude, longitude);
+	}
+
+}
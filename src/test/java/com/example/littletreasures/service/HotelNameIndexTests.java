@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.example.littletreasures.data.Hotel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HotelNameIndex}.
+ */
+class HotelNameIndexTests {
+
+	@Test
+	void findIgnoresCase() {
+		List<Hotel> hotels = List.of(createHotel("Bellagio"), createHotel("Paris"));
+		HotelNameIndex index = new HotelNameIndex(hotels);
+		assertThat(index.find(hotels, "BELLAGIO")).isZero();
+		assertThat(index.find(hotels, "paris")).isOne();
+	}
+
+	@Test
+	void findWhenNameIsSharedReturnsLastHotel() {
+		List<Hotel> hotels = List.of(createHotel("Paris"), createHotel("Bellagio"), createHotel("PARIS"));
+		assertThat(new HotelNameIndex(hotels).find(hotels, "paris")).isEqualTo(2);
+	}
+
+	@Test
+	void findWhenNoMatchReturnsMinusOne() {
+		List<Hotel> hotels = List.of(createHotel("Bellagio"));
+		assertThat(new HotelNameIndex(hotels).find(hotels, "Luxor")).isEqualTo(-1);
+	}
+
+	@Test
+	void findWhenEmptyReturnsMinusOne() {
+		assertThat(new HotelNameIndex(List.of()).find(List.of(), "Luxor")).isEqualTo(-1);
+	}
+
+	@Test
+	void findWhenManyHotelsFindsEachHotel() {
+		List<Hotel> hotels = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			hotels.add(createHotel("Hotel " + i));
+		}
+		HotelNameIndex index = new HotelNameIndex(hotels);
+		for (int id = 0; id < hotels.size(); id++) {
+			assertThat(index.find(hotels, hotels.get(id).name().toUpperCase(Locale.ROOT))).isEqualTo(id);
+		}
+		assertThat(index.getSlots()).hasSizeLessThan(hotels.size() * 2);
+	}
+
+	@Test
+	void findWhenCreatedFromSeedsAndSlotsFindsEachHotel() {
+		List<Hotel> hotels = List.of(createHotel("Bellagio"), createHotel("Paris"), createHotel("Luxor"));
+		HotelNameIndex index = new HotelNameIndex(hotels);
+		HotelNameIndex copy = new HotelNameIndex(index.getSalt(), index.getSeeds(), index.getSlots());
+		assertThat(copy.find(hotels, "luxor")).isEqualTo(2);
+	}
+
+	@Test
+	@Timeout(5)
+	void findWhenNamesHaveSamePolynomialHashFindsEachHotel() {
+		List<Hotel> hotels = List.of(createHotel("Casino ar"), createHotel("Casino c4"), createHotel("Casino a?"),
+				createHotel("Casino b "));
+		HotelNameIndex index = new HotelNameIndex(hotels);
+		for (int id = 0; id < hotels.size(); id++) {
+			assertThat(index.find(hotels, hotels.get(id).name())).isEqualTo(id);
+		}
+	}
+
+	private static Hotel createHotel(String name) {
+		return new Hotel(name, "a", null, 1, "1990", "o", null, List.of(), "south");
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.littletreasures.data.Hotel;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HotelQueryIndex}.
+ */
+class HotelQueryIndexTests {
+
+	private final List<Hotel> hotels = createSampleHotels();
+
+	private final HotelQueryIndex index = new HotelQueryIndex(this.hotels);
+
+	@Test
+	void queryWithoutCriteriaReturnsAll() {
+		assertThat(this.index.query(query(null, null, null, null, null, null, null, null))).isSameAs(this.hotels);
+	}
+
+	@Test
+	void queryByOperatorIgnoresCase() {
+		assertThat(names(query("caesars entertainment", null, null, null, null, null, null, null)))
+			.containsExactly("Flamingo", "Caesars Palace", "Bellagio");
+	}
+
+	@Test
+	void queryByThemeAndArchitect() {
+		assertThat(names(query(null, "Roman", null, null, null, null, null, null))).containsExactly("Caesars Palace");
+		assertThat(names(query(null, null, "Welton Becket", null, null, null, null, null))).containsExactly("Flamingo");
+	}
+
+	@Test
+	void queryByRoomsRange() {
+		assertThat(names(query(null, null, null, null, 3900, 3960, null, null))).containsExactly("Caesars Palace",
+				"Bellagio");
+		assertThat(names(query(null, null, null, null, 3961, null, null, null))).containsExactly("Excalibur");
+		assertThat(names(query(null, null, null, null, null, 500, null, null))).containsExactly("Las Vegas Club");
+	}
+
+	@Test
+	void queryByOpenedRange() {
+		assertThat(names(query(null, null, null, null, null, null, 1960, 1990))).containsExactly("Caesars Palace",
+				"Excalibur");
+	}
+
+	@Test
+	void queryExcludesUnknownOpenedYears() {
+		assertThat(names(query(null, null, null, null, null, null, null, 1950))).containsExactly("Flamingo");
+	}
+
+	@Test
+	void queryIntersectsCriteria() {
+		assertThat(names(query("Caesars Entertainment", null, null, "center strip", 3500, null, 1960, null)))
+			.containsExactly("Caesars Palace", "Bellagio");
+	}
+
+	@Test
+	void queryWhenNoMatchReturnsEmptyList() {
+		assertThat(names(query("missing", null, null, null, null, null, null, null))).isEmpty();
+		assertThat(names(query(null, null, null, null, 4000, 3000, null, null))).isEmpty();
+	}
+
+	@Test
+	void parseYearParsesLeadingDigits() {
+		assertThat(HotelQueryIndex.parseYear("1946")).isEqualTo(1946);
+		assertThat(HotelQueryIndex.parseYear("1930s")).isEqualTo(1930);
+		assertThat(HotelQueryIndex.parseYear("unknown")).isEqualTo(Integer.MIN_VALUE);
+		assertThat(HotelQueryIndex.parseYear(null)).isEqualTo(Integer.MIN_VALUE);
+	}
+
+	private HotelQuery query(String operator, String theme, String architect, String geographicOrder, Integer minRooms,
+			Integer maxRooms, Integer openedFrom, Integer openedTo) {
+		return new HotelQuery(operator, theme, architect, geographicOrder, minRooms, maxRooms, openedFrom, openedTo);
+	}
+
+	private List<String> names(HotelQuery query) {
+		return this.index.query(query).stream().map(Hotel::name).toList();
+	}
+
+	private List<Hotel> createSampleHotels() {
+		List<Hotel> hotels = new ArrayList<>();
+		hotels.add(new Hotel("Flamingo", "3555 Las Vegas Blvd", null, 3460, "1946", "Caesars Entertainment", null,
+				List.of("George Vernon Russell", "Douglas Honnold", "Welton Becket"), "center strip"));
+		hotels.add(new Hotel("Caesars Palace", "3570 Las Vegas Blvd", null, 3960, "1966", "Caesars Entertainment",
+				"Roman", List.of("Melvin Grossman"), "center strip"));
+		hotels.add(new Hotel("Excalibur", "3850 Las Vegas Blvd", null, 3981, "1990", "MGM Resorts", "Tudor", null,
+				"south strip"));
+		hotels.add(new Hotel("Bellagio", "3600 Las Vegas Blvd", null, 3933, "1998", "Caesars Entertainment", null, null,
+				"center strip"));
+		hotels.add(
+				new Hotel("Las Vegas Club", "18 Fremont St", null, 410, null, "Club Holdings", null, null, "downtown"));
+		return hotels;
+	}
+
+}
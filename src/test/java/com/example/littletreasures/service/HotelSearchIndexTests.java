@@ -0,0 +1,118 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.littletreasures.data.Hotel;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HotelSearchIndex}.
+ */
+class HotelSearchIndexTests {
+
+	private final HotelSearchIndex index = new HotelSearchIndex(createSampleHotels());
+
+	@Test
+	void tokenizeNormalizesText() {
+		assertThat(HotelSearchIndex.tokenize("Caesar's  Palace, Caf\u00e9-Bar")).containsExactly("caesars", "palace",
+				"cafe", "bar");
+	}
+
+	@Test
+	void tokenizeWhenBlankReturnsNoTokens() {
+		assertThat(HotelSearchIndex.tokenize(" ")).isEmpty();
+		assertThat(HotelSearchIndex.tokenize(null)).isEmpty();
+	}
+
+	@Test
+	void searchMatchesPrefix() {
+		assertThat(names(this.index.search("flam", 10))).containsExactly("Flamingo");
+	}
+
+	@Test
+	void searchMatchesAllFields() {
+		assertThat(names(this.index.search("caesars", 10))).containsExactly("Caesars Palace", "Bellagio", "Flamingo");
+		assertThat(names(this.index.search("tudor", 10))).containsExactly("Excalibur");
+		assertThat(names(this.index.search("welton", 10))).containsExactly("Flamingo");
+	}
+
+	@Test
+	void searchRequiresAllTerms() {
+		assertThat(names(this.index.search("palace caesars", 10))).containsExactly("Caesars Palace");
+		assertThat(names(this.index.search("palace tudor", 10))).isEmpty();
+	}
+
+	@Test
+	void searchRanksNameMatchesFirst() {
+		assertThat(names(this.index.search("las", 10))).containsExactly("Las Vegas Club", "Bellagio", "Caesars Palace",
+				"Excalibur", "Flamingo");
+	}
+
+	@Test
+	void searchRanksExactMatchesBeforePrefixMatches() {
+		assertThat(names(this.index.search("club", 10))).containsExactly("Club", "Las Vegas Club", "Clubhouse");
+	}
+
+	@Test
+	void searchIsLimited() {
+		assertThat(names(this.index.search("las", 2))).containsExactly("Las Vegas Club", "Bellagio");
+	}
+
+	@Test
+	void searchWhenMoreTiesThanLimitReturnsTiesInNameOrder() {
+		List<Hotel> hotels = new ArrayList<>();
+		for (int i = 49; i >= 0; i--) {
+			String name = String.format("Hotel %02d", (i * 7) % 50);
+			hotels.add(new Hotel(name, "a", null, 1, "1990", "o", null, null, "south"));
+		}
+		HotelSearchIndex index = new HotelSearchIndex(hotels);
+		assertThat(names(index.search("hot", 3))).containsExactly("Hotel 00", "Hotel 01", "Hotel 02");
+	}
+
+	@Test
+	void searchWhenNoMatchReturnsEmptyList() {
+		assertThat(this.index.search("missing", 10)).isEmpty();
+		assertThat(this.index.search("", 10)).isEmpty();
+	}
+
+	private List<String> names(List<Hotel> hotels) {
+		return hotels.stream().map(Hotel::name).toList();
+	}
+
+	private List<Hotel> createSampleHotels() {
+		List<Hotel> hotels = new ArrayList<>();
+		hotels.add(new Hotel("Flamingo", "3555 Las Vegas Blvd", null, 3460, "1946", "Caesars Entertainment", null,
+				List.of("George Vernon Russell", "Douglas Honnold", "Welton Becket"), "center strip"));
+		hotels.add(new Hotel("Caesars Palace", "3570 Las Vegas Blvd", null, 3960, "1966", "Caesars Entertainment",
+				"Roman", List.of("Melvin Grossman"), "center strip"));
+		hotels.add(new Hotel("Excalibur", "3850 Las Vegas Blvd", null, 3981, "1990", "MGM Resorts", "Tudor", null,
+				"south strip"));
+		hotels.add(new Hotel("Bellagio", "3600 Las Vegas Blvd", null, 3933, "1998", "Caesars Entertainment", null, null,
+				"center strip"));
+		hotels.add(new Hotel("Las Vegas Club", "18 Fremont St", null, 410, "1930", "Club Holdings", null, null,
+				"downtown"));
+		hotels.add(new Hotel("Clubhouse", "1 Main St", null, 10, "2000", "Independent", null, null, "downtown"));
+		hotels.add(new Hotel("Club", "2 Main St", null, 10, "2001", "Independent", null, null, "downtown"));
+		return hotels;
+	}
+
+}
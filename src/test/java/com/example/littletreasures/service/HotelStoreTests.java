@@ -0,0 +1,88 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.littletreasures.data.Hotel;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HotelStore}.
+ */
+class HotelStoreTests {
+
+	private final HotelStore store = new HotelStore(List.of(createHotel("Bellagio", "Center Strip"),
+			createHotel("Paris", "center strip"), createHotel("Flamingo", "Center Strip"),
+			createHotel("Sahara", "North Strip"), createHotel("paris", "South Strip")));
+
+	@Test
+	void getAllReturnsHotelsInOriginalOrder() {
+		assertThat(this.store.getAll()).extracting(Hotel::name)
+			.containsExactly("Bellagio", "Paris", "Flamingo", "Sahara", "paris");
+	}
+
+	@Test
+	void findByNameIgnoresCase() {
+		assertThat(this.store.findByName("bELLAGIO").name()).isEqualTo("Bellagio");
+		assertThat(this.store.findByName("sahara").name()).isEqualTo("Sahara");
+	}
+
+	@Test
+	void findByNameWhenNameIsSharedReturnsLastHotel() {
+		assertThat(this.store.findByName("PARIS").geographicOrder()).isEqualTo("South Strip");
+	}
+
+	@Test
+	void findByNameWhenNoMatchReturnsNull() {
+		assertThat(this.store.findByName("Luxor")).isNull();
+	}
+
+	@Test
+	void findByNameWhenEmptyReturnsNull() {
+		assertThat(new HotelStore(List.of()).findByName("Luxor")).isNull();
+	}
+
+	@Test
+	void findByNameWhenManyHotelsFindsEachHotel() {
+		List<Hotel> hotels = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			hotels.add(createHotel("Hotel " + i, "South Strip"));
+		}
+		HotelStore store = new HotelStore(hotels);
+		assertThat(hotels).allSatisfy((hotel) -> assertThat(store.findByName(hotel.name())).isSameAs(hotel));
+	}
+
+	@Test
+	void findByGeographicOrderIgnoresCase() {
+		assertThat(this.store.findByGeographicOrder("CENTER STRIP")).extracting(Hotel::name)
+			.containsExactly("Bellagio", "Paris", "Flamingo");
+	}
+
+	@Test
+	void findByGeographicOrderWhenNoMatchReturnsEmptyList() {
+		assertThat(this.store.findByGeographicOrder("Downtown")).isEmpty();
+	}
+
+	private static Hotel createHotel(String name, String geographicOrder) {
+		return new Hotel(name, "a", null, 1, "1990", "o", null, List.of(), geographicOrder);
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.data.HotelProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link HotelsReloader}.
+ */
+class HotelsReloaderTests {
+
+	@TempDir
+	private Path temp;
+
+	private Path file;
+
+	private HotelsService service;
+
+	private final MockEnvironment environment = new MockEnvironment();
+
+	private final List<Object> events = new ArrayList<>();
+
+	@BeforeEach
+	void setup() throws IOException {
+		this.file = this.temp.resolve("hotels.yml");
+		write(1, "n1", 0);
+		this.service = new HotelsService(
+				new HotelProperties(1, List.of(new Hotel("n1", "a", null, 1, "1990", "o", null, null, "south"))),
+				new SimpleMeterRegistry());
+	}
+
+	@Test
+	void createWhenIntervalIsNotPositiveThrowsException() {
+		HotelsReloadProperties properties = new HotelsReloadProperties(true, "file:" + this.file, Duration.ZERO);
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> new HotelsReloader(properties, this.service, this.environment, this.events::add))
+			.withMessage("'interval' must be positive");
+	}
+
+	@Test
+	void checkForChangesWhenFileUnchangedDoesNotReload() {
+		HotelsReloader reloader = createReloader();
+		String checksum = this.service.getChecksum();
+		assertThat(reloader.checkForChanges()).isFalse();
+		assertThat(this.service.getChecksum()).isEqualTo(checksum);
+		assertThat(this.events).isEmpty();
+	}
+
+	@Test
+	void checkForChangesWhenFileChangedReloads() throws IOException {
+		HotelsReloader reloader = createReloader();
+		write(1, "n2", 1);
+		assertThat(reloader.checkForChanges()).isTrue();
+		assertThat(this.service.findByName("n2")).isNotNull();
+		assertThat(this.service.findByName("n1")).isNull();
+	}
+
+	@Test
+	void checkForChangesWhenFileChangedPublishesEvent() throws IOException {
+		HotelsReloader reloader = createReloader();
+		write(1, "n2", 1);
+		assertThat(reloader.checkForChanges()).isTrue();
+		assertThat(this.events).singleElement()
+			.isInstanceOfSatisfying(HotelsReloadedEvent.class,
+					(event) -> assertThat(event.getView()).isSameAs(this.service.getCurrent()));
+	}
+
+	@Test
+	void checkForChangesWhenFileIsInvalidKeepsCurrentData() throws IOException {
+		HotelsReloader reloader = createReloader();
+		String checksum = this.service.getChecksum();
+		write(2, "n2", 1);
+		assertThat(reloader.checkForChanges()).isFalse();
+		assertThat(this.service.getChecksum()).isEqualTo(checksum);
+		assertThat(this.service.findByName("n1")).isNotNull();
+	}
+
+	@Test
+	void checkForChangesReplacesImportedYaml() throws IOException {
+		String name = "Config resource '" + new ClassPathResource("hotels.yml").getDescription() + "'";
+		Map<String, Object> imported = Map.of("treasures.hotels[0].name", "Packaged", "treasures.hotels[0].address",
+				"a", "treasures.hotels[0].opened", "1990", "treasures.hotels[0].operator", "o",
+				"treasures.hotels[0].geographic-order", "south");
+		this.environment.getPropertySources().addLast(new MapPropertySource(name, imported));
+		HotelsReloader reloader = createReloader();
+		write(1, "n2", 1);
+		assertThat(reloader.checkForChanges()).isTrue();
+		assertThat(this.service.findByName("n2")).isNotNull();
+		assertThat(this.service.findByName("Packaged")).isNull();
+	}
+
+	@Test
+	void checkForChangesWhenPropertiesAreOverriddenKeepsOverrides() throws IOException {
+		this.environment.setProperty("treasures.hotels[0].name", "Stardust");
+		this.environment.setProperty("treasures.hotels[0].address", "a");
+		this.environment.setProperty("treasures.hotels[0].opened", "1958");
+		this.environment.setProperty("treasures.hotels[0].operator", "o");
+		this.environment.setProperty("treasures.hotels[0].geographic-order", "north");
+		HotelsReloader reloader = createReloader();
+		write(1, "n2", 1);
+		assertThat(reloader.checkForChanges()).isTrue();
+		assertThat(this.service.findByName("Stardust")).isNotNull();
+		assertThat(this.service.findByName("n2")).isNull();
+	}
+
+	@Test
+	void afterPropertiesSetWhenEnabledLoadsFile() throws Exception {
+		write(1, "n3", 1);
+		HotelsReloader reloader = createReloader();
+		try {
+			reloader.afterPropertiesSet();
+			assertThat(this.service.findByName("n3")).isNotNull();
+		}
+		finally {
+			reloader.destroy();
+		}
+	}
+
+	private HotelsReloader createReloader() {
+		return new HotelsReloader(new HotelsReloadProperties(true, "file:" + this.file, Duration.ofHours(1)),
+				this.service, this.environment, this.events::add);
+	}
+
+	private void write(int fileVersion, String name, int age) throws IOException {
+		String yaml = String.join("\n", "treasures:", "  file-version: " + fileVersion, "  hotels:",
+				"  - name: " + name, "    address: a", "    rooms: 1", "    opened: \"1990\"", "    operator: o",
+				"    geographic-order: south", "");
+		Files.writeString(this.file, yaml);
+		Files.setLastModifiedTime(this.file, FileTime.fromMillis(1_000_000_000_000L + age * 1000L));
+	}
+
+}
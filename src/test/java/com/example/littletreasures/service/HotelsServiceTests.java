@@ -16,14 +16,24 @@
 
 package com.example.littletreasures.service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.example.littletreasures.data.Hotel;
 import com.example.littletreasures.data.HotelProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.env.MockEnvironment;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
@@ -40,14 +50,95 @@ class HotelsServiceTests {
 	@BeforeEach
 	void setup() {
 		this.data = new HotelProperties(1, createSampleHotels());
-		this.service = new HotelsService(this.data);
+		this.service = new HotelsService(this.data, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void loadWhenNotOverriddenUsesCompiledData() throws IOException {
+		Resource source = createYaml("Yaml");
+		MockEnvironment environment = createEnvironment(source);
+		HotelsSnapshot snapshot = HotelsService.load(environment, compile(source, "Compiled"), source);
+		assertThat(snapshot.findByName("Compiled")).isNotNull();
+	}
+
+	@Test
+	void loadWhenOverriddenBindsEnvironment() throws IOException {
+		Resource source = createYaml("Yaml");
+		MockEnvironment environment = createEnvironment(source);
+		environment.setProperty("treasures.hotels[0].name", "Stardust");
+		environment.setProperty("treasures.hotels[0].address", "a");
+		environment.setProperty("treasures.hotels[0].opened", "1958");
+		environment.setProperty("treasures.hotels[0].operator", "o");
+		environment.setProperty("treasures.hotels[0].geographic-order", "north");
+		HotelsSnapshot snapshot = HotelsService.load(environment, compile(source, "Compiled"), source);
+		assertThat(snapshot.findByName("Stardust")).isNotNull();
+		assertThat(snapshot.findByName("Compiled")).isNull();
+	}
+
+	@Test
+	void loadWhenNoCompiledDataBindsEnvironment() throws IOException {
+		Resource source = createYaml("Yaml");
+		MockEnvironment environment = createEnvironment(source);
+		HotelsSnapshot snapshot = HotelsService.load(environment, new ClassPathResource("missing.bin"), source);
+		assertThat(snapshot.findByName("Yaml")).isNotNull();
+	}
+
+	private Resource createYaml(String name) {
+		String yaml = String.join("\n", "treasures:", "  file-version: 1", "  hotels:", "  - name: " + name,
+				"    address: a", "    rooms: 1", "    opened: \"1990\"", "    operator: o",
+				"    geographic-order: south", "");
+		return new ByteArrayResource(yaml.getBytes(StandardCharsets.UTF_8), "hotels");
+	}
+
+	private MockEnvironment createEnvironment(Resource source) throws IOException {
+		MockEnvironment environment = new MockEnvironment();
+		String name = "Config resource '" + source.getDescription() + "' via location 'hotels.yml'";
+		new YamlPropertySourceLoader().load(name, source).forEach(environment.getPropertySources()::addLast);
+		return environment;
+	}
+
+	private Resource compile(Resource source, String name) throws IOException {
+		HotelProperties properties = new HotelProperties(1,
+				List.of(new Hotel(name, "a", null, 1, "1990", "o", null, null, "south")));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		HotelDataFile.write(properties, HotelDataFile.getChecksum(source), outputStream);
+		return new ByteArrayResource(outputStream.toByteArray());
 	}
 
 	@Test
 	void createWhenFileVersionIsNotSupportedThrowsException() {
 		HotelProperties hotels = new HotelProperties(2, createSampleHotels());
-		assertThatIllegalStateException().isThrownBy(() -> new HotelsService(hotels))
-			.withMessage("Only version 1 is supported");
+		assertThatIllegalStateException().isThrownBy(() -> new HotelsService(hotels, new SimpleMeterRegistry()))
+			.withMessage("Only version 1 is supported", new SimpleMeterRegistry());
+	}
+
+	@Test
+	void findByNameCountsHitsAndMisses() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		HotelsService service = new HotelsService(this.data, meterRegistry);
+		service.findByName("n1");
+		service.findByName("n1");
+		service.findByName("missing");
+		assertThat(meterRegistry.get("hotels.lookups").tags("lookup", "name", "result", "hit").counter().count())
+			.isEqualTo(2);
+		assertThat(meterRegistry.get("hotels.lookups").tags("lookup", "name", "result", "miss").counter().count())
+			.isOne();
+	}
+
+	@Test
+	void findByGeographicOrderCountsHitsAndMisses() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		HotelsService service = new HotelsService(this.data, meterRegistry);
+		service.findByGeographicOrder("south");
+		service.findByGeographicOrder("missing");
+		assertThat(meterRegistry.get("hotels.lookups")
+			.tags("lookup", "geographic-order", "result", "hit")
+			.counter()
+			.count()).isOne();
+		assertThat(meterRegistry.get("hotels.lookups")
+			.tags("lookup", "geographic-order", "result", "miss")
+			.counter()
+			.count()).isOne();
 	}
 
 	@Test
@@ -55,6 +146,35 @@ class HotelsServiceTests {
 		assertThat(this.service.getAll()).hasSize(5);
 	}
 
+	@Test
+	void getAllWhenSortedByNameReturnsHotelsInNameOrder() {
+		List<Hotel> hotels = createSampleHotels();
+		hotels.add(0, new Hotel("N6", "a6", null, 6, "1990", "o6", "t6", null, "east"));
+		HotelsService service = new HotelsService(new HotelProperties(1, hotels), new SimpleMeterRegistry());
+		assertThat(service.getAll(HotelSort.NAME, false)).extracting(Hotel::name)
+			.containsExactly("n1", "n2", "n3", "n4", "n5", "N6");
+	}
+
+	@Test
+	void getAllWhenSortedByRoomsDescendingReturnsHotelsInReverseRoomsOrder() {
+		assertThat(this.service.getAll(HotelSort.ROOMS, true)).extracting(Hotel::rooms).containsExactly(5, 4, 3, 2, 1);
+	}
+
+	@Test
+	void getAllWhenSortedByOpenedReturnsUnknownYearsLast() {
+		List<Hotel> hotels = createSampleHotels();
+		hotels.add(0, new Hotel("n0", "a0", null, 0, null, "o0", "t0", null, "east"));
+		HotelsService service = new HotelsService(new HotelProperties(1, hotels), new SimpleMeterRegistry());
+		assertThat(service.getAll(HotelSort.OPENED, false)).extracting(Hotel::opened)
+			.containsExactly("1991", "1992", "1993", "1994", "1995", null);
+	}
+
+	@Test
+	void getAllWhenSortIsNullThrowsException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.service.getAll(null, false))
+			.withMessage("'sort' must not be null");
+	}
+
 	@Test
 	void findByNameWhenNameIsNullThrowsException() {
 		assertThatIllegalArgumentException().isThrownBy(() -> this.service.findByName(null))
@@ -105,6 +225,132 @@ class HotelsServiceTests {
 		assertThat(this.service.findByGeographicOrder("north")).isEmpty();
 	}
 
+	@Test
+	void searchReturnsMatchingHotels() {
+		assertThat(this.service.search("N3", 10)).containsExactly(this.data.hotels().get(2));
+	}
+
+	@Test
+	void searchWhenLimitIsNotPositiveThrowsException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.service.search("n3", 0))
+			.withMessage("'limit' must be positive");
+	}
+
+	@Test
+	void queryReturnsMatchingHotels() {
+		HotelQuery query = new HotelQuery(null, null, null, "south", 2, null, null, 1992);
+		assertThat(this.service.query(query)).containsExactly(this.data.hotels().get(1));
+	}
+
+	@Test
+	void queryWhenQueryIsNullThrowsException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.service.query(null))
+			.withMessage("'query' must not be null");
+	}
+
+	@Test
+	void findNearestReturnsNearestHotels() {
+		List<Hotel> hotels = createSampleHotels();
+		hotels.add(new Hotel("n6", "a6", null, 6, "1996", "o6", "t6", null, "east", 36.1126, -115.1767));
+		hotels.add(new Hotel("n7", "a7", null, 7, "1997", "o7", "t7", null, "east", 36.1475, -115.1566));
+		HotelsService service = new HotelsService(new HotelProperties(1, hotels), new SimpleMeterRegistry());
+		assertThat(service.findNearest(36.15, -115.15, 10)).extracting(Hotel::name).containsExactly("n7", "n6");
+		assertThat(service.findWithin(36.15, -115.15, 1000, 10)).extracting(Hotel::name).containsExactly("n7");
+	}
+
+	@Test
+	void findWithinWhenLatitudeIsInvalidThrowsException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.service.findWithin(91, 0, 1000, 10))
+			.withMessage("'latitude' must be between -90 and 90");
+	}
+
+	@Test
+	void findWithinWhenRadiusIsNotPositiveThrowsException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.service.findWithin(0, 0, 0, 10))
+			.withMessage("'radius' must be positive");
+	}
+
+	@Test
+	void reloadWhenDataChangedPublishesNewData() {
+		List<Hotel> hotels = createSampleHotels();
+		hotels.remove(0);
+		String checksum = this.service.getChecksum();
+		List<Hotel> all = this.service.getAll();
+		assertThat(this.service.reload(new HotelProperties(1, hotels))).isTrue();
+		assertThat(this.service.getChecksum()).isNotEqualTo(checksum);
+		assertThat(this.service.findByName("n1")).isNull();
+		assertThat(this.service.getAll()).hasSize(4);
+		assertThat(this.service.search("n1", 10)).isEmpty();
+		assertThat(all).hasSize(5);
+	}
+
+	@Test
+	void reloadWhenDataUnchangedKeepsCurrentData() {
+		List<Hotel> all = this.service.getAll();
+		assertThat(this.service.reload(new HotelProperties(1, createSampleHotels()))).isFalse();
+		assertThat(this.service.getAll()).isSameAs(all);
+	}
+
+	@Test
+	void reloadWhenFileVersionIsNotSupportedThrowsExceptionAndKeepsCurrentData() {
+		String checksum = this.service.getChecksum();
+		assertThatIllegalStateException().isThrownBy(() -> this.service.reload(new HotelProperties(2, List.of())))
+			.withMessage("Only version 1 is supported");
+		assertThat(this.service.getChecksum()).isEqualTo(checksum);
+	}
+
+	@Test
+	void getCurrentIsNotAffectedByReload() {
+		HotelsView current = this.service.getCurrent();
+		String checksum = current.getChecksum();
+		List<Hotel> hotels = createSampleHotels();
+		hotels.remove(0);
+		assertThat(this.service.reload(new HotelProperties(1, hotels))).isTrue();
+		assertThat(current.getChecksum()).isEqualTo(checksum);
+		assertThat(current.findByName("n1")).isNotNull();
+		assertThat(current.getAll()).hasSize(5);
+		assertThat(this.service.getCurrent().getChecksum()).isEqualTo(this.service.getChecksum());
+	}
+
+	@Test
+	void getCurrentSharesLookupCounters() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		HotelsService service = new HotelsService(this.data, meterRegistry);
+		service.getCurrent().findByName("n1");
+		assertThat(meterRegistry.get("hotels.lookups").tag("lookup", "name").tag("result", "hit").counter().count())
+			.isOne();
+	}
+
+	@Test
+	void getCurrentAfterReloadSharesLookupCounters() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		HotelsService service = new HotelsService(this.data, meterRegistry);
+		List<Hotel> hotels = createSampleHotels();
+		hotels.remove(0);
+		service.reload(new HotelProperties(1, hotels));
+		service.getCurrent().findByName("n2");
+		service.findByName("n1");
+		assertThat(meterRegistry.get("hotels.lookups").tag("lookup", "name").tag("result", "hit").counter().count())
+			.isOne();
+		assertThat(meterRegistry.get("hotels.lookups").tag("lookup", "name").tag("result", "miss").counter().count())
+			.isOne();
+	}
+
+	@Test
+	void getChecksumWhenSameHotelsReturnsSameChecksum() {
+		HotelsService other = new HotelsService(new HotelProperties(1, createSampleHotels()),
+				new SimpleMeterRegistry());
+		assertThat(this.service.getChecksum()).isEqualTo(other.getChecksum());
+	}
+
+	@Test
+	void getChecksumWhenDifferentHotelsReturnsDifferentChecksum() {
+		List<Hotel> hotels = createSampleHotels();
+		hotels.remove(0);
+		HotelsService other = new HotelsService(new HotelProperties(1, hotels), new SimpleMeterRegistry());
+		assertThat(this.service.getChecksum()).isNotEqualTo(other.getChecksum());
+	}
+
 	private List<Hotel> createSampleHotels() {
 		List<Hotel> hotels = new ArrayList<>();
 		hotels.add(new Hotel("n1", "a1", null, 1, "1991", "o1", "t1", null, "south"));
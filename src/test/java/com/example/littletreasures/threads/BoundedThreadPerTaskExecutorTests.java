@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.threads;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link BoundedThreadPerTaskExecutor}.
+ */
+class BoundedThreadPerTaskExecutorTests {
+
+	@Test
+	void createWhenLimitIsNotPositiveThrowsException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new BoundedThreadPerTaskExecutor(Thread::new, 0))
+			.withMessage("'limit' must be positive");
+	}
+
+	@Test
+	void executeRunsTaskOnNewThread() throws InterruptedException {
+		BoundedThreadPerTaskExecutor executor = new BoundedThreadPerTaskExecutor((task) -> new Thread(task, "bounded"),
+				1);
+		CountDownLatch ran = new CountDownLatch(1);
+		executor.execute(() -> {
+			if (Thread.currentThread().getName().equals("bounded")) {
+				ran.countDown();
+			}
+		});
+		assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void executeWhenLimitIsReachedRejectsTask() throws InterruptedException {
+		BoundedThreadPerTaskExecutor executor = new BoundedThreadPerTaskExecutor(Thread::new, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch finished = new CountDownLatch(1);
+		executor.execute(() -> {
+			awaitUninterruptibly(release);
+			finished.countDown();
+		});
+		assertThatExceptionOfType(RejectedExecutionException.class).isThrownBy(() -> executor.execute(() -> {
+		})).withMessage("Limit of 1 concurrent tasks reached");
+		release.countDown();
+		assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+		CountDownLatch ran = new CountDownLatch(1);
+		awaitExecution(executor, ran::countDown);
+		assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	private void awaitExecution(BoundedThreadPerTaskExecutor executor, Runnable task) throws InterruptedException {
+		for (int attempt = 0; attempt < 100; attempt++) {
+			try {
+				executor.execute(task);
+				return;
+			}
+			catch (RejectedExecutionException ex) {
+				Thread.sleep(10);
+			}
+		}
+		throw new IllegalStateException("Permit was not released");
+	}
+
+	private void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
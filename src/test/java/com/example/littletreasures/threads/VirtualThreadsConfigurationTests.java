@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.threads;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link VirtualThreadsConfiguration}.
+ */
+class VirtualThreadsConfigurationTests {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+		.withUserConfiguration(VirtualThreadsConfiguration.class);
+
+	@Test
+	void whenNotEnabledDoesNotCustomizeTomcat() {
+		this.contextRunner.run((context) -> assertThat(context).doesNotHaveBean(TomcatProtocolHandlerCustomizer.class));
+	}
+
+	@Test
+	@EnabledForJreRange(max = JRE.JAVA_20)
+	void whenEnabledBeforeJava21FailsToStart() {
+		this.contextRunner.withPropertyValues("littletreasures.threads.virtual=true")
+			.run((context) -> assertThat(context).getFailure()
+				.rootCause()
+				.hasMessage("Virtual threads require Java 21 or later"));
+	}
+
+	@Test
+	@EnabledForJreRange(min = JRE.JAVA_21)
+	void whenEnabledCustomizesTomcat() {
+		this.contextRunner.withPropertyValues("littletreasures.threads.virtual=true")
+			.run((context) -> assertThat(context).hasSingleBean(TomcatProtocolHandlerCustomizer.class));
+	}
+
+}
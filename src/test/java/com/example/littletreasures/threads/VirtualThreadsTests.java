@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.threads;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link VirtualThreads}.
+ */
+class VirtualThreadsTests {
+
+	@Test
+	@EnabledForJreRange(max = JRE.JAVA_20)
+	void isSupportedWhenBeforeJava21ReturnsFalse() {
+		assertThat(VirtualThreads.isSupported()).isFalse();
+	}
+
+	@Test
+	@EnabledForJreRange(max = JRE.JAVA_20)
+	void newThreadFactoryWhenNotSupportedThrowsException() {
+		assertThatIllegalStateException().isThrownBy(() -> VirtualThreads.newThreadFactory("test-"))
+			.withMessage("Virtual threads require Java 21 or later");
+	}
+
+	@Test
+	@EnabledForJreRange(min = JRE.JAVA_21)
+	void newThreadFactoryCreatesVirtualThreads() {
+		ThreadFactory threadFactory = VirtualThreads.newThreadFactory("test-");
+		Thread thread = threadFactory.newThread(() -> {
+		});
+		assertThat(thread.getName()).isEqualTo("test-0");
+		assertThat(ReflectionUtils.invokeMethod(ReflectionUtils.findMethod(Thread.class, "isVirtual"), thread))
+			.isEqualTo(true);
+	}
+
+	@Test
+	@EnabledForJreRange(min = JRE.JAVA_21)
+	void newExecutorRunsTask() {
+		CompletableFuture<String> name = new CompletableFuture<>();
+		VirtualThreads.newExecutor("test-").execute(() -> name.complete(Thread.currentThread().getName()));
+		assertThat(name.join()).startsWith("test-");
+	}
+
+}
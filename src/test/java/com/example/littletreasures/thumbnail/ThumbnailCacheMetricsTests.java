@@ -0,0 +1,79 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link ThumbnailCacheMetrics}.
+ */
+class ThumbnailCacheMetricsTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final ThumbnailService thumbnailService = mock(ThumbnailService.class);
+
+	@BeforeEach
+	void setup() {
+		given(this.thumbnailService.getCacheStats())
+			.willReturn(new ThumbnailCache.Stats(3, 1, 2, Duration.ofMillis(500), 4, 5, 6000));
+		new ThumbnailCacheMetrics(this.thumbnailService).bindTo(this.meterRegistry);
+	}
+
+	@Test
+	void bindsCacheMetrics() {
+		assertThat(this.meterRegistry.get("cache.gets")
+			.tags("cache", "thumbnails", "result", "hit")
+			.functionCounter()
+			.count()).isEqualTo(3);
+		assertThat(this.meterRegistry.get("cache.gets")
+			.tags("cache", "thumbnails", "result", "miss")
+			.functionCounter()
+			.count()).isOne();
+		assertThat(this.meterRegistry.get("cache.puts").tag("cache", "thumbnails").functionCounter().count())
+			.isEqualTo(2);
+		assertThat(this.meterRegistry.get("cache.evictions").tag("cache", "thumbnails").functionCounter().count())
+			.isEqualTo(4);
+		assertThat(this.meterRegistry.get("cache.size").tag("cache", "thumbnails").gauge().value()).isEqualTo(5);
+	}
+
+	@Test
+	void bindsSizeInBytesAndHitRatio() {
+		assertThat(this.meterRegistry.get("cache.bytes").tag("cache", "thumbnails").gauge().value()).isEqualTo(6000);
+		assertThat(this.meterRegistry.get("cache.hit.ratio").tag("cache", "thumbnails").gauge().value())
+			.isEqualTo(0.75);
+	}
+
+	@Test
+	void bindsLoadDuration() {
+		assertThat(this.meterRegistry.get("cache.load.duration").tag("cache", "thumbnails").functionTimer())
+			.satisfies((timer) -> {
+				assertThat(timer.count()).isEqualTo(2);
+				assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(500);
+			});
+	}
+
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.unit.DataSize;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatRuntimeException;
+
+/**
+ * Tests for {@link ThumbnailCache}.
+ */
+class ThumbnailCacheTests {
+
+	private final AtomicLong ticker = new AtomicLong();
+
+	@Test
+	void createWhenMaxSizeIsNotPositiveThrowsException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> createCache(0, EvictionPolicy.LRU, null))
+			.withMessage("'maxSize' must be positive");
+	}
+
+	@Test
+	void getWhenMissingReturnsNull() {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, null);
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.getStats().missCount()).isOne();
+	}
+
+	@Test
+	void getWhenPresentReturnsValue() {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, null);
+		Thumbnail value = thumbnail(10);
+		cache.put("a", value);
+		assertThat(cache.get("a")).isSameAs(value);
+		assertThat(cache.getStats().hitCount()).isOne();
+	}
+
+	@Test
+	void putWhenValueIsLargerThanMaxSizeDoesNotCache() {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, null);
+		cache.put("a", thumbnail(101));
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.getStats().size()).isZero();
+	}
+
+	@Test
+	void putReplacesExistingValue() {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, null);
+		cache.put("a", thumbnail(10));
+		cache.put("a", thumbnail(20));
+		assertThat(cache.get("a").getContent()).hasSize(20);
+		assertThat(cache.getStats().size()).isEqualTo(20);
+		assertThat(cache.getStats().entryCount()).isOne();
+	}
+
+	@Test
+	void putWhenFullAndLruEvictsLeastRecentlyUsed() {
+		ThumbnailCache cache = createCache(30, EvictionPolicy.LRU, null);
+		cache.put("a", thumbnail(10));
+		cache.put("b", thumbnail(10));
+		cache.put("c", thumbnail(10));
+		cache.get("a");
+		cache.put("d", thumbnail(10));
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.get("a")).isNotNull();
+		assertThat(cache.get("c")).isNotNull();
+		assertThat(cache.get("d")).isNotNull();
+		assertThat(cache.getStats().evictionCount()).isOne();
+	}
+
+	@Test
+	void putWhenFullEvictsUntilWithinMaxSize() {
+		ThumbnailCache cache = createCache(30, EvictionPolicy.LRU, null);
+		cache.put("a", thumbnail(10));
+		cache.put("b", thumbnail(10));
+		cache.put("c", thumbnail(10));
+		cache.put("d", thumbnail(25));
+		assertThat(cache.getStats().entryCount()).isOne();
+		assertThat(cache.getStats().size()).isEqualTo(25);
+		assertThat(cache.getStats().evictionCount()).isEqualTo(3);
+	}
+
+	@Test
+	void putWhenFullAndLfuEvictsLeastFrequentlyUsed() {
+		ThumbnailCache cache = createCache(30, EvictionPolicy.LFU, null);
+		cache.put("a", thumbnail(10));
+		cache.put("b", thumbnail(10));
+		cache.put("c", thumbnail(10));
+		cache.get("a");
+		cache.get("a");
+		cache.get("b");
+		cache.get("c");
+		cache.get("c");
+		cache.put("d", thumbnail(10));
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.get("a")).isNotNull();
+		assertThat(cache.get("c")).isNotNull();
+		assertThat(cache.get("d")).isNotNull();
+	}
+
+	@Test
+	void putWhenFullAndWindowTinyLfuKeepsFrequentlyUsedEntriesDuringScan() {
+		ThumbnailCache cache = createCache(1000, EvictionPolicy.W_TINY_LFU, null);
+		for (int i = 0; i < 5; i++) {
+			cache.put("hot" + i, thumbnail(100));
+		}
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 5; i++) {
+				cache.get("hot" + i);
+			}
+		}
+		for (int i = 0; i < 100; i++) {
+			cache.get("cold" + i);
+			cache.put("cold" + i, thumbnail(100));
+		}
+		for (int i = 0; i < 5; i++) {
+			assertThat(cache.get("hot" + i)).isNotNull();
+		}
+		assertThat(cache.getStats().size()).isLessThanOrEqualTo(1000);
+	}
+
+	@Test
+	void getWhenExpiredReturnsNull() {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, Duration.ofSeconds(10));
+		cache.put("a", thumbnail(10));
+		this.ticker.addAndGet(Duration.ofSeconds(9).toNanos());
+		assertThat(cache.get("a")).isNotNull();
+		this.ticker.addAndGet(Duration.ofSeconds(1).toNanos());
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.getStats().evictionCount()).isOne();
+		assertThat(cache.getStats().size()).isZero();
+	}
+
+	@Test
+	void getWithLoaderWhenMissingLoadsAndCaches() {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, null);
+		Thumbnail value = thumbnail(10);
+		assertThat(cache.get("a", (key) -> {
+			this.ticker.addAndGet(Duration.ofMillis(5).toNanos());
+			return value;
+		})).isSameAs(value);
+		assertThat(cache.get("a", (key) -> thumbnail(20))).isSameAs(value);
+		ThumbnailCache.Stats stats = cache.getStats();
+		assertThat(stats.loadCount()).isOne();
+		assertThat(stats.totalLoadTime()).isEqualTo(Duration.ofMillis(5));
+		assertThat(stats.averageLoadTime()).isEqualTo(Duration.ofMillis(5));
+		assertThat(stats.hitRatio()).isEqualTo(0.5);
+	}
+
+	@Test
+	void getWithLoaderWhenLoaderReturnsNullDoesNotCache() {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, null);
+		assertThat(cache.get("a", (key) -> null)).isNull();
+		assertThat(cache.getStats().entryCount()).isZero();
+		assertThat(cache.getStats().loadCount()).isOne();
+	}
+
+	@Test
+	void getWithLoaderWhenLoaderFailsThrowsException() {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, null);
+		assertThatRuntimeException().isThrownBy(() -> cache.get("a", (key) -> {
+			throw new IOException("bad");
+		})).withCauseInstanceOf(IOException.class);
+		assertThat(cache.getStats().loadCount()).isOne();
+	}
+
+	@Test
+	void getWithLoaderWhenCalledConcurrentlyLoadsOnce() throws Exception {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, null);
+		Thumbnail value = thumbnail(10);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<Thumbnail> leader = executor.submit(() -> cache.get("a", (key) -> {
+				loads.incrementAndGet();
+				loading.countDown();
+				release.await();
+				return value;
+			}));
+			loading.await();
+			Future<Thumbnail> follower = executor.submit(() -> cache.get("a", (key) -> {
+				loads.incrementAndGet();
+				return thumbnail(20);
+			}));
+			release.countDown();
+			assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(value);
+			assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(value);
+			assertThat(loads).hasValue(1);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void getWithLoaderWhenSharedLoadFailsThrowsSameException() throws Exception {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, null);
+		IllegalStateException failure = new IllegalStateException("bad");
+		CompletableFuture<Void> waiting = new CompletableFuture<>();
+		CountDownLatch loading = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Thumbnail> leader = executor.submit(() -> cache.get("a", (key) -> {
+				loading.countDown();
+				waiting.get();
+				throw failure;
+			}));
+			loading.await();
+			CompletableFuture.runAsync(() -> waiting.complete(null),
+					CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+			assertThatExceptionOfType(IllegalStateException.class)
+				.isThrownBy(() -> cache.get("a", (key) -> thumbnail(10)))
+				.isSameAs(failure);
+			assertThat(leader).failsWithin(Duration.ofSeconds(5))
+				.withThrowableOfType(Exception.class)
+				.withCause(failure);
+			assertThat(cache.getStats().loadCount()).isOne();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void getWithLoaderWhenSharedLoadTakesTooLongThrowsException() throws Exception {
+		ThumbnailProperties.Cache properties = new ThumbnailProperties.Cache(DataSize.ofBytes(100), EvictionPolicy.LRU,
+				null, Duration.ofMillis(50));
+		ThumbnailCache cache = new ThumbnailCache(properties, this.ticker::get);
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			executor.submit(() -> cache.get("a", (key) -> {
+				loading.countDown();
+				release.await();
+				return thumbnail(10);
+			}));
+			loading.await();
+			assertThatExceptionOfType(ThumbnailLoadTimeoutException.class)
+				.isThrownBy(() -> cache.get("a", (key) -> thumbnail(10)))
+				.withMessage("Timeout waiting for thumbnail 'a'");
+		}
+		finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void getAsyncWhenCachedReturnsCompletedFutureWithoutUsingExecutor() {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, null);
+		Thumbnail value = thumbnail(10);
+		cache.put("a", value);
+		List<Runnable> tasks = new ArrayList<>();
+		CompletableFuture<Thumbnail> result = cache.getAsync("a", (key) -> thumbnail(20), tasks::add);
+		assertThat(result).isCompletedWithValue(value);
+		assertThat(tasks).isEmpty();
+	}
+
+	@Test
+	void getAsyncWhenNotCachedLoadsOnExecutorAndSharesLoad() {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, null);
+		Thumbnail value = thumbnail(10);
+		List<Runnable> tasks = new ArrayList<>();
+		CompletableFuture<Thumbnail> leader = cache.getAsync("a", (key) -> value, tasks::add);
+		CompletableFuture<Thumbnail> follower = cache.getAsync("a", (key) -> thumbnail(20), tasks::add);
+		assertThat(leader).isNotDone();
+		assertThat(follower).isNotDone();
+		assertThat(tasks).hasSize(1);
+		tasks.get(0).run();
+		assertThat(leader).isCompletedWithValue(value);
+		assertThat(follower).succeedsWithin(Duration.ofSeconds(5)).isSameAs(value);
+		assertThat(cache.get("a")).isSameAs(value);
+		assertThat(cache.getStats().loadCount()).isOne();
+	}
+
+	@Test
+	void getAsyncWhenLoadFailsCompletesExceptionally() {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, null);
+		IllegalStateException failure = new IllegalStateException("bad");
+		CompletableFuture<Thumbnail> result = cache.getAsync("a", (key) -> {
+			throw failure;
+		}, Runnable::run);
+		assertThat(result).failsWithin(Duration.ofSeconds(5))
+			.withThrowableOfType(ExecutionException.class)
+			.withCause(failure);
+	}
+
+	@Test
+	void getAsyncWhenExecutorRejectsThrowsExceptionAndAllowsRetry() {
+		ThumbnailCache cache = createCache(100, EvictionPolicy.LRU, null);
+		Executor rejecting = (task) -> {
+			throw new RejectedExecutionException();
+		};
+		assertThatExceptionOfType(RejectedExecutionException.class)
+			.isThrownBy(() -> cache.getAsync("a", (key) -> thumbnail(10), rejecting));
+		assertThat(cache.getAsync("a", (key) -> thumbnail(10), Runnable::run)).isCompleted();
+	}
+
+	@Test
+	void getAsyncWhenSharedLoadTakesTooLongFailsWithTimeout() {
+		ThumbnailProperties.Cache properties = new ThumbnailProperties.Cache(DataSize.ofBytes(100), EvictionPolicy.LRU,
+				null, Duration.ofMillis(50));
+		ThumbnailCache cache = new ThumbnailCache(properties, this.ticker::get);
+		cache.getAsync("a", (key) -> thumbnail(10), (task) -> {
+		});
+		assertThat(cache.getAsync("a", (key) -> thumbnail(10), Runnable::run)).failsWithin(Duration.ofSeconds(5))
+			.withThrowableOfType(ExecutionException.class)
+			.withCauseInstanceOf(ThumbnailLoadTimeoutException.class);
+	}
+
+	private ThumbnailCache createCache(long maxSize, EvictionPolicy eviction, Duration timeToLive) {
+		ThumbnailProperties.Cache properties = new ThumbnailProperties.Cache(DataSize.ofBytes(maxSize), eviction,
+				timeToLive, Duration.ofSeconds(10));
+		return new ThumbnailCache(properties, this.ticker::get);
+	}
+
+	private Thumbnail thumbnail(int size) {
+		return new Thumbnail(new byte[size], -1, null);
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ThumbnailRenderer}.
+ */
+class ThumbnailRendererTests {
+
+	private final ThumbnailRenderer renderer = new ThumbnailRenderer(new SimpleMeterRegistry());
+
+	@Test
+	void renderWithContainKeepsAspectRatio() throws IOException {
+		BufferedImage thumbnail = render(400, 200, ThumbnailVariant.Fit.CONTAIN, ThumbnailVariant.Format.JPEG);
+		assertThat(thumbnail.getWidth()).isEqualTo(100);
+		assertThat(thumbnail.getHeight()).isEqualTo(50);
+	}
+
+	@Test
+	void renderWithCoverFillsSize() throws IOException {
+		BufferedImage thumbnail = render(400, 200, ThumbnailVariant.Fit.COVER, ThumbnailVariant.Format.JPEG);
+		assertThat(thumbnail.getWidth()).isEqualTo(100);
+		assertThat(thumbnail.getHeight()).isEqualTo(100);
+	}
+
+	@Test
+	void renderWithFillStretchesToSize() throws IOException {
+		BufferedImage thumbnail = render(400, 200, ThumbnailVariant.Fit.FILL, ThumbnailVariant.Format.JPEG);
+		assertThat(thumbnail.getWidth()).isEqualTo(100);
+		assertThat(thumbnail.getHeight()).isEqualTo(100);
+	}
+
+	@Test
+	void renderWhenSourceIsMuchLargerReturnsExactSize() throws IOException {
+		BufferedImage thumbnail = render(4000, 3000, ThumbnailVariant.Fit.CONTAIN, ThumbnailVariant.Format.JPEG);
+		assertThat(thumbnail.getWidth()).isEqualTo(100);
+		assertThat(thumbnail.getHeight()).isEqualTo(75);
+	}
+
+	@Test
+	void renderWhenCalledRepeatedlyReturnsSameContent() throws IOException {
+		ThumbnailVariant variant = new ThumbnailVariant(new ThumbnailVariant.Size(100, 100), ThumbnailVariant.Fit.COVER,
+				75, ThumbnailVariant.Format.JPEG);
+		byte[] source = new ClassPathResource("images/Flamingohotelyay.jpg").getContentAsByteArray();
+		byte[] first = this.renderer.render(source, variant);
+		assertThat(this.renderer.render(source, variant)).isEqualTo(first);
+	}
+
+	@Test
+	void renderRecordsTimeOfEachStage() throws IOException {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ThumbnailVariant variant = new ThumbnailVariant(new ThumbnailVariant.Size(100, 100), ThumbnailVariant.Fit.COVER,
+				75, ThumbnailVariant.Format.JPEG);
+		new ThumbnailRenderer(meterRegistry).render(source(400, 200), variant);
+		assertThat(meterRegistry.get("thumbnails.render").timers()).hasSize(3)
+			.allSatisfy((timer) -> assertThat(timer.count()).isOne());
+		assertThat(meterRegistry.get("thumbnails.render").tag("stage", "decode").timer().count()).isOne();
+	}
+
+	@Test
+	void renderWithPngWritesPng() throws IOException {
+		ThumbnailVariant variant = new ThumbnailVariant(new ThumbnailVariant.Size(100, 100), ThumbnailVariant.Fit.COVER,
+				75, ThumbnailVariant.Format.PNG);
+		byte[] thumbnail = this.renderer.render(source(400, 200), variant);
+		assertThat(thumbnail).startsWith(0x89, 'P', 'N', 'G');
+	}
+
+	@Test
+	void renderWithLowerQualityProducesSmallerJpeg() throws IOException {
+		ThumbnailVariant.Size size = new ThumbnailVariant.Size(100, 100);
+		byte[] source = new ClassPathResource("images/Flamingohotelyay.jpg").getContentAsByteArray();
+		byte[] low = this.renderer.render(source,
+				new ThumbnailVariant(size, ThumbnailVariant.Fit.COVER, 50, ThumbnailVariant.Format.JPEG));
+		byte[] high = this.renderer.render(source,
+				new ThumbnailVariant(size, ThumbnailVariant.Fit.COVER, 90, ThumbnailVariant.Format.JPEG));
+		assertThat(low.length).isLessThan(high.length);
+	}
+
+	private BufferedImage render(int sourceWidth, int sourceHeight, ThumbnailVariant.Fit fit,
+			ThumbnailVariant.Format format) throws IOException {
+		ThumbnailVariant variant = new ThumbnailVariant(new ThumbnailVariant.Size(100, 100), fit, 75, format);
+		byte[] thumbnail = this.renderer.render(source(sourceWidth, sourceHeight), variant);
+		return ImageIO.read(new ByteArrayInputStream(thumbnail));
+	}
+
+	private byte[] source(int width, int height) throws IOException {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import javax.imageio.ImageIO;
+
+import com.example.littletreasures.threads.ThreadsProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link ThumbnailService}.
+ */
+class ThumbnailServiceTests {
+
+	@TempDir
+	Path directory;
+
+	private final ThumbnailService service = createService(Collections.emptyMap());
+
+	@Test
+	void getThumbnailWhenNameIsEmptyThrowsException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.service.getThumbnail(""))
+			.withMessage("'name' must not be empty");
+	}
+
+	@Test
+	void getThumbnailWhenFoundReturnsThumbnail() throws IOException {
+		Thumbnail thumbnail = this.service.getThumbnail("Flamingohotelyay.jpg");
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail.getContent()));
+		assertThat(image.getWidth()).isEqualTo(200);
+		assertThat(image.getHeight()).isEqualTo(200);
+		assertThat(thumbnail.getLastModified())
+			.isEqualTo(this.service.getSourceImage("Flamingohotelyay.jpg").lastModified());
+	}
+
+	@Test
+	void getThumbnailWithVariantReturnsVariant() throws IOException {
+		ThumbnailVariant variant = this.service.getVariant(400, null, ThumbnailVariant.Fit.CONTAIN, null,
+				ThumbnailVariant.Format.PNG);
+		Thumbnail thumbnail = this.service.getThumbnail("Flamingohotelyay.jpg", variant);
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail.getContent()));
+		assertThat(Math.max(image.getWidth(), image.getHeight())).isEqualTo(400);
+		assertThat(image.getWidth()).isNotEqualTo(image.getHeight());
+		assertThat(thumbnail.getETag()).isNotEqualTo(this.service.getThumbnail("Flamingohotelyay.jpg").getETag());
+	}
+
+	@Test
+	void getThumbnailWhenVariantIsNotAllowedThrowsException() {
+		ThumbnailVariant variant = new ThumbnailVariant(new ThumbnailVariant.Size(123, 456), ThumbnailVariant.Fit.COVER,
+				75, ThumbnailVariant.Format.JPEG);
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> this.service.getThumbnail("Flamingohotelyay.jpg", variant))
+			.withMessage("Variant 123x456-cover-q75.jpg is not allowed");
+	}
+
+	@Test
+	void getThumbnailAsyncReturnsThumbnail() {
+		ThumbnailVariant variant = this.service.getVariant(null, null, null, null, ThumbnailVariant.Format.JPEG);
+		CompletableFuture<Thumbnail> thumbnail = this.service.getThumbnailAsync("Flamingohotelyay.jpg", variant);
+		assertThat(thumbnail).succeedsWithin(Duration.ofSeconds(10))
+			.extracting(Thumbnail::getETag)
+			.isEqualTo(this.service.getThumbnail("Flamingohotelyay.jpg").getETag());
+		assertThat(this.service.getThumbnailAsync("Flamingohotelyay.jpg", variant)).isCompleted();
+	}
+
+	@Test
+	void getThumbnailAsyncWhenRenderingIsAtCapacityThrowsException() {
+		ThumbnailService service = createService(Map.of("rendering.threads", 1, "rendering.queue-capacity", 0));
+		try {
+			ThumbnailVariant variant = service.getVariant(null, null, null, null, ThumbnailVariant.Format.JPEG);
+			service.getThumbnailAsync("Flamingohotelyay.jpg", variant);
+			assertThatExceptionOfType(ThumbnailRenderingRejectedException.class)
+				.isThrownBy(() -> service.getThumbnailAsync("Bellagio-front.jpg", variant))
+				.satisfies((ex) -> assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(5)));
+		}
+		finally {
+			service.destroy();
+		}
+	}
+
+	@Test
+	void getThumbnailWhenCachedReturnsCachedThumbnail() {
+		Thumbnail thumbnail = this.service.getThumbnail("Flamingohotelyay.jpg");
+		assertThat(this.service.getThumbnail("Flamingohotelyay.jpg")).isSameAs(thumbnail);
+		assertThat(this.service.getCacheStats().hitCount()).isOne();
+		assertThat(this.service.getCacheStats().loadCount()).isOne();
+	}
+
+	@Test
+	void getThumbnailWhenNotFoundReturnsNull() {
+		assertThat(this.service.getThumbnail("missing.jpg")).isNull();
+	}
+
+	@Test
+	void getThumbnailWhenStoreIsEnabledReusesStoredThumbnail() {
+		Map<String, Object> properties = Map.of("store.enabled", true, "store.directory", this.directory);
+		Thumbnail thumbnail = createService(properties).getThumbnail("Flamingohotelyay.jpg");
+		ThumbnailService service = createService(properties);
+		assertThat(service.getThumbnail("Flamingohotelyay.jpg").getETag()).isEqualTo(thumbnail.getETag());
+		assertThat(service.getCacheStats().totalLoadTime()).isLessThan(Duration.ofSeconds(1));
+	}
+
+	@Test
+	void getThumbnailWhenServingFilesReturnsThumbnailWithFileResource() throws IOException {
+		ThumbnailService service = createService(
+				Map.of("store.enabled", true, "store.directory", this.directory, "store.serve-files", true));
+		Thumbnail thumbnail = service.getThumbnail("Flamingohotelyay.jpg");
+		Resource resource = thumbnail.getResource();
+		assertThat(resource).isInstanceOf(FileSystemResource.class);
+		assertThat(resource.getFile()).hasParent(this.directory.toFile().listFiles()[0]);
+		assertThat(resource.getContentAsByteArray()).isEqualTo(thumbnail.getContent());
+	}
+
+	@Test
+	void getThumbnailWhenNotServingFilesReturnsThumbnailWithByteArrayResource() {
+		ThumbnailService service = createService(Map.of("store.enabled", true, "store.directory", this.directory));
+		assertThat(service.getThumbnail("Flamingohotelyay.jpg").getResource()).isInstanceOf(ByteArrayResource.class);
+	}
+
+	@Test
+	void getSourceImageWhenFoundReturnsResource() {
+		assertThat(this.service.getSourceImage("Flamingohotelyay.jpg").exists()).isTrue();
+	}
+
+	@Test
+	void getSourceImageWhenNotFoundReturnsNull() {
+		assertThat(this.service.getSourceImage("missing.jpg")).isNull();
+	}
+
+	@Test
+	void getSourceImageWhenNameIsOutsideOfImagesReturnsNull() {
+		assertThat(this.service.getSourceImage("..")).isNull();
+		assertThat(this.service.getSourceImage("../application.properties")).isNull();
+	}
+
+	private ThumbnailService createService(Map<String, Object> properties) {
+		MapConfigurationPropertySource source = new MapConfigurationPropertySource();
+		properties.forEach((name, value) -> source.put("littletreasures.thumbnails." + name, value));
+		return new ThumbnailService(
+				new Binder(source).bindOrCreate("littletreasures.thumbnails", ThumbnailProperties.class),
+				new ThreadsProperties(false), new SimpleMeterRegistry());
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ThumbnailStore}.
+ */
+class ThumbnailStoreTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void getWhenNotStoredReturnsNull() {
+		ThumbnailStore store = new ThumbnailStore(this.directory);
+		assertThat(store.get("test.jpg", "abc", "200x200.jpg")).isNull();
+	}
+
+	@Test
+	void getWhenStoredReturnsThumbnail() {
+		byte[] thumbnail = { 1, 2, 3 };
+		new ThumbnailStore(this.directory).put("test.jpg", "abc", "200x200.jpg", thumbnail);
+		ThumbnailStore store = new ThumbnailStore(this.directory);
+		assertThat(store.get("test.jpg", "abc", "200x200.jpg")).containsExactly(thumbnail);
+	}
+
+	@Test
+	void getWhenStoredForDifferentVariantReturnsNull() {
+		ThumbnailStore store = new ThumbnailStore(this.directory);
+		store.put("test.jpg", "abc", "200x200.jpg", new byte[] { 1, 2, 3 });
+		assertThat(store.get("test.jpg", "abc", "100x100.jpg")).isNull();
+	}
+
+	@Test
+	void getWhenSourceHasChangedReturnsNull() {
+		ThumbnailStore store = new ThumbnailStore(this.directory);
+		store.put("test.jpg", "abc", "200x200.jpg", new byte[] { 1, 2, 3 });
+		assertThat(store.get("test.jpg", "def", "200x200.jpg")).isNull();
+	}
+
+	@Test
+	void putWhenSourceHasChangedRemovesStaleThumbnails() throws IOException {
+		ThumbnailStore store = new ThumbnailStore(this.directory);
+		store.put("test.jpg", "abc", "200x200.jpg", new byte[] { 1, 2, 3 });
+		store.put("test.jpg", "abc", "100x100.jpg", new byte[] { 1, 2 });
+		store.put("test.jpg", "def", "200x200.jpg", new byte[] { 4, 5, 6 });
+		assertThat(store.get("test.jpg", "abc", "200x200.jpg")).isNull();
+		assertThat(store.get("test.jpg", "def", "200x200.jpg")).containsExactly(4, 5, 6);
+		try (Stream<Path> files = Files.walk(this.directory)) {
+			assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+		}
+	}
+
+	@Test
+	void putWhenNameIsNotAValidFileNameStoresThumbnail() {
+		ThumbnailStore store = new ThumbnailStore(this.directory);
+		store.put("../Tropicana Resort & Casino.JPG", "abc", "200x200.jpg", new byte[] { 1, 2, 3 });
+		assertThat(store.get("../Tropicana Resort & Casino.JPG", "abc", "200x200.jpg")).containsExactly(1, 2, 3);
+	}
+
+}
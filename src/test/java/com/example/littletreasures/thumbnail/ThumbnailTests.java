@@ -0,0 +1,65 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link Thumbnail}.
+ */
+class ThumbnailTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void getETagReturnsQuotedContentHash() {
+		Thumbnail thumbnail = new Thumbnail("test".getBytes(), -1, null);
+		assertThat(thumbnail.getETag()).isEqualTo("\"098f6bcd4621d373cade4e832627b4f6\"");
+	}
+
+	@Test
+	void getResourceWhenHasNoFileReturnsByteArrayResource() throws IOException {
+		Thumbnail thumbnail = new Thumbnail(new byte[] { 1, 2, 3 }, -1, null);
+		assertThat(thumbnail.getResource()).isInstanceOf(ByteArrayResource.class);
+		assertThat(thumbnail.getResource().getContentAsByteArray()).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	void getResourceWhenHasFileReturnsFileSystemResource() throws IOException {
+		Path file = Files.write(this.directory.resolve("thumbnail.jpg"), new byte[] { 1, 2, 3 });
+		Thumbnail thumbnail = new Thumbnail(new byte[] { 1, 2, 3 }, -1, file);
+		assertThat(thumbnail.getResource()).isInstanceOf(FileSystemResource.class);
+	}
+
+	@Test
+	void getResourceWhenFileIsMissingReturnsByteArrayResource() {
+		Thumbnail thumbnail = new Thumbnail(new byte[] { 1, 2, 3 }, -1, this.directory.resolve("missing.jpg"));
+		assertThat(thumbnail.getResource()).isInstanceOf(ByteArrayResource.class);
+	}
+
+}
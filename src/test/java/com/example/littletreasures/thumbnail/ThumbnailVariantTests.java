@@ -0,0 +1,81 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link ThumbnailVariant}.
+ */
+class ThumbnailVariantTests {
+
+	@Test
+	void createWhenQualityIsOutOfRangeThrowsException() {
+		ThumbnailVariant.Size size = new ThumbnailVariant.Size(200, 200);
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> new ThumbnailVariant(size, ThumbnailVariant.Fit.COVER, 0, ThumbnailVariant.Format.JPEG))
+			.withMessage("'quality' must be between 1 and 100");
+	}
+
+	@Test
+	void keyWhenLossyIncludesQuality() {
+		ThumbnailVariant variant = new ThumbnailVariant(new ThumbnailVariant.Size(200, 100),
+				ThumbnailVariant.Fit.CONTAIN, 75, ThumbnailVariant.Format.JPEG);
+		assertThat(variant.key()).isEqualTo("200x100-contain-q75.jpg");
+	}
+
+	@Test
+	void keyWhenLosslessDoesNotIncludeQuality() {
+		ThumbnailVariant variant = new ThumbnailVariant(new ThumbnailVariant.Size(200, 100), ThumbnailVariant.Fit.COVER,
+				75, ThumbnailVariant.Format.PNG);
+		assertThat(variant.key()).isEqualTo("200x100-cover.png");
+	}
+
+	@Test
+	void keyWhenDefaultLocaleIsTurkishUsesRootLocale() {
+		Locale locale = Locale.getDefault();
+		Locale.setDefault(Locale.forLanguageTag("tr"));
+		try {
+			ThumbnailVariant variant = new ThumbnailVariant(new ThumbnailVariant.Size(200, 100),
+					ThumbnailVariant.Fit.CONTAIN, 75, ThumbnailVariant.Format.JPEG);
+			assertThat(variant.key()).isEqualTo("200x100-contain-q75.jpg");
+		}
+		finally {
+			Locale.setDefault(locale);
+		}
+	}
+
+	@Test
+	void sizeOfParsesWidthAndHeight() {
+		assertThat(ThumbnailVariant.Size.of("640x480")).isEqualTo(new ThumbnailVariant.Size(640, 480));
+		assertThat(ThumbnailVariant.Size.of("640X480")).isEqualTo(new ThumbnailVariant.Size(640, 480));
+	}
+
+	@Test
+	void sizeOfWhenInvalidThrowsException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> ThumbnailVariant.Size.of("640"))
+			.withMessage("'640' is not a valid size");
+		assertThatIllegalArgumentException().isThrownBy(() -> ThumbnailVariant.Size.of("0x480"))
+			.withMessage("'width' must be positive");
+	}
+
+}
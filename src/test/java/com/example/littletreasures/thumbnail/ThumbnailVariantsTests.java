@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ThumbnailVariants}.
+ */
+class ThumbnailVariantsTests {
+
+	private final ThumbnailVariants variants = createVariants(Collections.emptyMap());
+
+	@Test
+	void getDefaultReturnsDefaultVariant() {
+		ThumbnailVariant variant = this.variants.getDefault(ThumbnailVariant.Format.JPEG);
+		assertThat(variant.size()).isEqualTo(new ThumbnailVariant.Size(200, 200));
+		assertThat(variant.fit()).isEqualTo(ThumbnailVariant.Fit.COVER);
+		assertThat(variant.quality()).isEqualTo(75);
+	}
+
+	@Test
+	void getWhenNoSizeIsRequestedReturnsDefaultSize() {
+		assertThat(get(null, null).size()).isEqualTo(new ThumbnailVariant.Size(200, 200));
+	}
+
+	@Test
+	void getReturnsSmallestCoveringSize() {
+		assertThat(get(100, 100).size()).isEqualTo(new ThumbnailVariant.Size(100, 100));
+		assertThat(get(101, null).size()).isEqualTo(new ThumbnailVariant.Size(200, 200));
+		assertThat(get(null, 300).size()).isEqualTo(new ThumbnailVariant.Size(400, 400));
+	}
+
+	@Test
+	void getWhenNoSizeCoversRequestReturnsLargestSize() {
+		assertThat(get(4000, 10).size()).isEqualTo(new ThumbnailVariant.Size(400, 400));
+	}
+
+	@Test
+	void getReturnsNearestQuality() {
+		assertThat(getQuality(null)).isEqualTo(75);
+		assertThat(getQuality(10)).isEqualTo(50);
+		assertThat(getQuality(80)).isEqualTo(75);
+		assertThat(getQuality(83)).isEqualTo(90);
+		assertThat(getQuality(100)).isEqualTo(90);
+	}
+
+	@Test
+	void getUsesConfiguredValues() {
+		ThumbnailVariants variants = createVariants(Map.of("sizes", "64x48", "default-size", "32x24", "qualities", "60",
+				"default-quality", "60", "default-fit", "fill"));
+		ThumbnailVariant variant = variants.get(50, null, null, null, ThumbnailVariant.Format.JPEG);
+		assertThat(variant).isEqualTo(new ThumbnailVariant(new ThumbnailVariant.Size(64, 48), ThumbnailVariant.Fit.FILL,
+				60, ThumbnailVariant.Format.JPEG));
+	}
+
+	@Test
+	void isAllowedWhenAllowedReturnsTrue() {
+		assertThat(this.variants.isAllowed(get(400, 400))).isTrue();
+	}
+
+	@Test
+	void isAllowedWhenSizeIsNotAllowedReturnsFalse() {
+		assertThat(this.variants.isAllowed(new ThumbnailVariant(new ThumbnailVariant.Size(300, 300),
+				ThumbnailVariant.Fit.COVER, 75, ThumbnailVariant.Format.JPEG)))
+			.isFalse();
+	}
+
+	@Test
+	void isAllowedWhenQualityIsNotAllowedReturnsFalseUnlessLossless() {
+		ThumbnailVariant.Size size = new ThumbnailVariant.Size(200, 200);
+		assertThat(this.variants
+			.isAllowed(new ThumbnailVariant(size, ThumbnailVariant.Fit.COVER, 42, ThumbnailVariant.Format.JPEG)))
+			.isFalse();
+		assertThat(this.variants
+			.isAllowed(new ThumbnailVariant(size, ThumbnailVariant.Fit.COVER, 42, ThumbnailVariant.Format.PNG)))
+			.isTrue();
+	}
+
+	private ThumbnailVariant get(Integer width, Integer height) {
+		return this.variants.get(width, height, null, null, ThumbnailVariant.Format.JPEG);
+	}
+
+	private int getQuality(Integer quality) {
+		return this.variants.get(null, null, null, quality, ThumbnailVariant.Format.JPEG).quality();
+	}
+
+	private ThumbnailVariants createVariants(Map<String, Object> properties) {
+		MapConfigurationPropertySource source = new MapConfigurationPropertySource();
+		properties.forEach((name, value) -> source.put("littletreasures.thumbnails.variants." + name, value));
+		return new ThumbnailVariants(
+				new Binder(source).bindOrCreate("littletreasures.thumbnails", ThumbnailProperties.class).variants());
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.thumbnail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.service.HotelsService;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+/**
+ * Tests for {@link ThumbnailWarmer}.
+ */
+class ThumbnailWarmerTests {
+
+	private final HotelsService hotelsService = mock(HotelsService.class);
+
+	private final ThumbnailService thumbnailService = mock(ThumbnailService.class);
+
+	@Test
+	void createWhenConcurrencyIsNotPositiveThrowsException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> createWarmer(true, 0))
+			.withMessage("'concurrency' must be positive");
+	}
+
+	@Test
+	void runWhenDisabledDoesNotCreateThumbnails() {
+		given(this.hotelsService.getAll()).willReturn(createSampleHotels());
+		createWarmer(false, 2).run(new DefaultApplicationArguments());
+		then(this.thumbnailService).shouldHaveNoInteractions();
+	}
+
+	@Test
+	void runWhenEnabledCreatesThumbnailOfEachImage() {
+		given(this.hotelsService.getAll()).willReturn(createSampleHotels());
+		createWarmer(true, 2).run(new DefaultApplicationArguments());
+		then(this.thumbnailService).should().getThumbnail("i1.jpg");
+		then(this.thumbnailService).should().getThumbnail("i2.jpg");
+		then(this.thumbnailService).should(never()).getThumbnail(null);
+	}
+
+	@Test
+	void runWhenThumbnailFailsContinuesWithOtherImages() {
+		given(this.hotelsService.getAll()).willReturn(createSampleHotels());
+		given(this.thumbnailService.getThumbnail("i1.jpg")).willThrow(new IllegalStateException("bad"));
+		createWarmer(true, 1).run(new DefaultApplicationArguments());
+		then(this.thumbnailService).should().getThumbnail("i2.jpg");
+	}
+
+	private ThumbnailWarmer createWarmer(boolean enabled, int concurrency) {
+		MapConfigurationPropertySource source = new MapConfigurationPropertySource();
+		source.put("littletreasures.thumbnails.warmup.enabled", enabled);
+		source.put("littletreasures.thumbnails.warmup.concurrency", concurrency);
+		ThumbnailProperties properties = new Binder(source).bindOrCreate("littletreasures.thumbnails",
+				ThumbnailProperties.class);
+		return new ThumbnailWarmer(properties, this.hotelsService, this.thumbnailService);
+	}
+
+	private List<Hotel> createSampleHotels() {
+		List<Hotel> hotels = new ArrayList<>();
+		hotels.add(new Hotel("n1", "a1", "i1.jpg", 1, "1991", "o1", "t1", null, "south"));
+		hotels.add(new Hotel("n2", "a2", "i2.jpg", 2, "1992", "o2", "t2", null, "south"));
+		hotels.add(new Hotel("n3", "a3", null, 3, "1993", "o3", "t3", null, "south"));
+		hotels.add(new Hotel("n4", "a4", "i1.jpg", 4, "1994", "o4", "t4", null, "east"));
+		return hotels;
+	}
+
+}
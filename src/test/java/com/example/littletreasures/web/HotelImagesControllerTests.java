@@ -16,36 +16,262 @@
 
 package com.example.littletreasures.web;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import com.example.littletreasures.thumbnail.Thumbnail;
+import com.example.littletreasures.thumbnail.ThumbnailLoadTimeoutException;
+import com.example.littletreasures.thumbnail.ThumbnailRenderingRejectedException;
+import com.example.littletreasures.thumbnail.ThumbnailService;
+import com.example.littletreasures.thumbnail.ThumbnailVariant;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * Tests for {@link HotelImagesController}
  */
 @WebMvcTest(HotelImagesController.class)
+@EnableConfigurationProperties(HttpCachingProperties.class)
 class HotelImagesControllerTests {
 
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+	private static final ThumbnailVariant JPEG = variant(ThumbnailVariant.Format.JPEG);
+
+	private static final ThumbnailVariant PNG = variant(ThumbnailVariant.Format.PNG);
+
+	@MockBean
+	private ThumbnailService thumbnailService;
+
 	@Autowired
 	private MockMvc mvc;
 
+	@BeforeEach
+	void setup() {
+		given(this.thumbnailService.getVariant(any(), any(), any(), any(), any()))
+			.willAnswer((invocation) -> variant(invocation.getArgument(4)));
+	}
+
 	@Test
 	void slashImagesSlashNameWhenFoundReturnsImage() throws Exception {
-		this.mvc.perform(get("/images/Flamingohotelyay.jpg"))
+		byte[] thumbnail = { 1, 2, 3 };
+		given(this.thumbnailService.getThumbnailAsync("Flamingohotelyay.jpg", JPEG))
+			.willReturn(CompletableFuture.completedFuture(new Thumbnail(thumbnail, 1000, null)));
+		performAsync(get("/images/Flamingohotelyay.jpg")).andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.IMAGE_JPEG))
+			.andExpect(header().string(HttpHeaders.ETAG, "\"5289df737df57326fcdd22597afb1fac\""))
+			.andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, 1000))
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=86400, public"))
+			.andExpect(content().bytes(thumbnail));
+	}
+
+	@Test
+	void slashImagesSlashNameWithParametersGetsMatchingVariant() throws Exception {
+		byte[] thumbnail = { 1, 2, 3 };
+		given(this.thumbnailService.getThumbnailAsync("Flamingohotelyay.jpg", JPEG))
+			.willReturn(CompletableFuture.completedFuture(new Thumbnail(thumbnail, -1, null)));
+		performAsync(get("/images/Flamingohotelyay.jpg?width=150&height=120&fit=contain&quality=80"))
+			.andExpect(status().isOk())
+			.andExpect(content().bytes(thumbnail));
+		then(this.thumbnailService).should()
+			.getVariant(150, 120, ThumbnailVariant.Fit.CONTAIN, 80, ThumbnailVariant.Format.JPEG);
+	}
+
+	@Test
+	void slashImagesSlashNameWithUnknownFitReturns400() throws Exception {
+		this.mvc.perform(get("/images/Flamingohotelyay.jpg?fit=squash")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void slashImagesSlashNameWhenAcceptsPngReturnsPng() throws Exception {
+		byte[] thumbnail = { 1, 2, 3 };
+		given(this.thumbnailService.getThumbnailAsync("Flamingohotelyay.jpg", PNG))
+			.willReturn(CompletableFuture.completedFuture(new Thumbnail(thumbnail, -1, null)));
+		performAsync(get("/images/Flamingohotelyay.jpg").accept("image/png, image/jpeg;q=0.9"))
 			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.IMAGE_PNG))
+			.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+			.andExpect(content().bytes(thumbnail));
+	}
+
+	@Test
+	void slashImagesSlashNameWhenAcceptsAnyImageReturnsJpeg() throws Exception {
+		byte[] thumbnail = { 1, 2, 3 };
+		given(this.thumbnailService.getThumbnailAsync("Flamingohotelyay.jpg", JPEG))
+			.willReturn(CompletableFuture.completedFuture(new Thumbnail(thumbnail, -1, null)));
+		performAsync(get("/images/Flamingohotelyay.jpg").accept("image/webp, image/*;q=0.8")).andExpect(status().isOk())
 			.andExpect(content().contentType(MediaType.IMAGE_JPEG));
 	}
 
+	@Test
+	void slashImagesSlashNameWhenNoSupportedFormatIsAcceptedReturns406() throws Exception {
+		this.mvc.perform(get("/images/Flamingohotelyay.jpg").accept("image/webp"))
+			.andExpect(status().isNotAcceptable());
+	}
+
 	@Test
 	void slashImagesSlashNameWhenNotFoundReturns404() throws Exception {
-		this.mvc.perform(get("/images/missing.jpg")).andExpect(status().isNotFound());
+		given(this.thumbnailService.getThumbnailAsync("missing.jpg", JPEG))
+			.willReturn(CompletableFuture.completedFuture(null));
+		performAsync(get("/images/missing.jpg")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void slashImagesSlashNameWhenThumbnailLoadTimesOutReturns503() throws Exception {
+		given(this.thumbnailService.getThumbnailAsync("Flamingohotelyay.jpg", JPEG)).willReturn(
+				CompletableFuture.failedFuture(new ThumbnailLoadTimeoutException("Flamingohotelyay.jpg", null)));
+		performAsync(get("/images/Flamingohotelyay.jpg")).andExpect(status().isServiceUnavailable());
+	}
+
+	@Test
+	void slashImagesSlashNameWhenRenderingIsRejectedReturns503WithRetryAfter() throws Exception {
+		given(this.thumbnailService.getThumbnailAsync("Flamingohotelyay.jpg", JPEG))
+			.willThrow(new ThumbnailRenderingRejectedException("Flamingohotelyay.jpg", Duration.ofSeconds(5), null));
+		this.mvc.perform(get("/images/Flamingohotelyay.jpg"))
+			.andExpect(status().isServiceUnavailable())
+			.andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+	}
+
+	@Test
+	void slashImagesSlashNameWhenETagMatchesReturns304() throws Exception {
+		Thumbnail thumbnail = new Thumbnail(new byte[] { 1, 2, 3 }, -1, null);
+		given(this.thumbnailService.getThumbnailAsync("Flamingohotelyay.jpg", JPEG))
+			.willReturn(CompletableFuture.completedFuture(thumbnail));
+		performAsync(get("/images/Flamingohotelyay.jpg").header(HttpHeaders.IF_NONE_MATCH, thumbnail.getETag()))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.ETAG, thumbnail.getETag()))
+			.andExpect(content().bytes(new byte[0]));
+	}
+
+	@Test
+	void slashImagesSlashNameWhenETagDoesNotMatchReturnsImage() throws Exception {
+		Thumbnail thumbnail = new Thumbnail(new byte[] { 1, 2, 3 }, -1, null);
+		given(this.thumbnailService.getThumbnailAsync("Flamingohotelyay.jpg", JPEG))
+			.willReturn(CompletableFuture.completedFuture(thumbnail));
+		performAsync(get("/images/Flamingohotelyay.jpg").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+			.andExpect(status().isOk())
+			.andExpect(content().bytes(thumbnail.getContent()));
+	}
+
+	@Test
+	void slashImagesSlashNameWithRangeReturnsPartialContent() throws Exception {
+		byte[] thumbnail = { 1, 2, 3, 4, 5 };
+		given(this.thumbnailService.getThumbnailAsync("Flamingohotelyay.jpg", JPEG))
+			.willReturn(CompletableFuture.completedFuture(new Thumbnail(thumbnail, -1, null)));
+		performAsync(get("/images/Flamingohotelyay.jpg").header(HttpHeaders.RANGE, "bytes=1-2"))
+			.andExpect(status().isPartialContent())
+			.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 1-2/5"))
+			.andExpect(content().bytes(new byte[] { 2, 3 }));
+	}
+
+	@Test
+	void slashImagesSlashNameWhenStoredAndSendfileIsSupportedDelegatesToContainer() throws Exception {
+		File file = new ClassPathResource("images/Flamingohotelyay.jpg").getFile();
+		Thumbnail thumbnail = new Thumbnail(Files.readAllBytes(file.toPath()), 1000, file.toPath());
+		given(this.thumbnailService.getThumbnailAsync("Flamingohotelyay.jpg", JPEG))
+			.willReturn(CompletableFuture.completedFuture(thumbnail));
+		performAsync(get("/images/Flamingohotelyay.jpg").requestAttr(SENDFILE_SUPPORT, true)).andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, thumbnail.getETag()))
+			.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+			.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, file.length()))
+			.andExpect(request().attribute("org.apache.tomcat.sendfile.filename", file.getAbsolutePath()))
+			.andExpect(request().attribute("org.apache.tomcat.sendfile.end", file.length()))
+			.andExpect(content().bytes(new byte[0]));
+	}
+
+	@Test
+	void slashImagesSlashNameWhenStoredAndETagMatchesReturns304WithoutSendfile() throws Exception {
+		File file = new ClassPathResource("images/Flamingohotelyay.jpg").getFile();
+		Thumbnail thumbnail = new Thumbnail(Files.readAllBytes(file.toPath()), 1000, file.toPath());
+		given(this.thumbnailService.getThumbnailAsync("Flamingohotelyay.jpg", JPEG))
+			.willReturn(CompletableFuture.completedFuture(thumbnail));
+		performAsync(get("/images/Flamingohotelyay.jpg").requestAttr(SENDFILE_SUPPORT, true)
+			.header(HttpHeaders.IF_NONE_MATCH, thumbnail.getETag())).andExpect(status().isNotModified())
+			.andExpect(request().attribute("org.apache.tomcat.sendfile.filename", (Object) null))
+			.andExpect(content().bytes(new byte[0]));
+	}
+
+	@Test
+	void slashImagesSlashNameSlashOriginalWhenFoundReturnsImage() throws Exception {
+		ClassPathResource image = new ClassPathResource("images/Flamingohotelyay.jpg");
+		given(this.thumbnailService.getSourceImage("Flamingohotelyay.jpg")).willReturn(image);
+		this.mvc.perform(get("/images/Flamingohotelyay.jpg/original"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.IMAGE_JPEG))
+			.andExpect(content().bytes(image.getContentAsByteArray()));
+	}
+
+	@Test
+	void slashImagesSlashNameSlashOriginalWhenNotModifiedSinceReturns304() throws Exception {
+		ClassPathResource image = new ClassPathResource("images/Flamingohotelyay.jpg");
+		given(this.thumbnailService.getSourceImage("Flamingohotelyay.jpg")).willReturn(image);
+		this.mvc
+			.perform(get("/images/Flamingohotelyay.jpg/original").header(HttpHeaders.IF_MODIFIED_SINCE,
+					image.lastModified()))
+			.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void slashImagesSlashNameSlashOriginalWhenNotFoundReturns404() throws Exception {
+		this.mvc.perform(get("/images/missing.jpg/original")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void slashImagesSlashNameSlashOriginalWhenSendfileIsSupportedDelegatesToContainer() throws Exception {
+		ClassPathResource image = new ClassPathResource("images/Flamingohotelyay.jpg");
+		File file = image.getFile();
+		given(this.thumbnailService.getSourceImage("Flamingohotelyay.jpg")).willReturn(image);
+		this.mvc.perform(get("/images/Flamingohotelyay.jpg/original").requestAttr(SENDFILE_SUPPORT, true))
+			.andExpect(status().isOk())
+			.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, file.length()))
+			.andExpect(request().attribute("org.apache.tomcat.sendfile.filename", file.getAbsolutePath()))
+			.andExpect(request().attribute("org.apache.tomcat.sendfile.end", file.length()))
+			.andExpect(content().bytes(new byte[0]));
+	}
+
+	@Test
+	void slashImagesSlashNameSlashOriginalWithRangeWhenSendfileIsSupportedReturnsPartialContent() throws Exception {
+		ClassPathResource image = new ClassPathResource("images/Flamingohotelyay.jpg");
+		given(this.thumbnailService.getSourceImage("Flamingohotelyay.jpg")).willReturn(image);
+		this.mvc
+			.perform(get("/images/Flamingohotelyay.jpg/original").requestAttr(SENDFILE_SUPPORT, true)
+				.header(HttpHeaders.RANGE, "bytes=0-9"))
+			.andExpect(status().isPartialContent())
+			.andExpect(request().attribute("org.apache.tomcat.sendfile.filename", (Object) null))
+			.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10));
+	}
+
+	private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+		MvcResult result = this.mvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+		return this.mvc.perform(asyncDispatch(result));
+	}
+
+	private static ThumbnailVariant variant(ThumbnailVariant.Format format) {
+		return new ThumbnailVariant(new ThumbnailVariant.Size(200, 200), ThumbnailVariant.Fit.COVER, 75, format);
 	}
 
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.web;
+
+import java.util.List;
+
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.data.HotelProperties;
+import com.example.littletreasures.service.HotelsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HotelSummaries}.
+ */
+class HotelSummariesTests {
+
+	private final HotelsService service = new HotelsService(
+			new HotelProperties(1, List.of(new Hotel("n1", "a1", "n1.jpg", 1, "1991", "o1", "t1", null, "south"))),
+			new SimpleMeterRegistry());
+
+	private final Hotel hotel = this.service.getAll().get(0);
+
+	@Test
+	void getReturnsSameInstanceForSameHotel() {
+		HotelSummaries summaries = createSummaries(new ImageLinksProperties(null, "http://localhost:8080/images/"));
+		assertThat(summaries.get(this.hotel)).isSameAs(summaries.get(this.hotel));
+	}
+
+	@Test
+	void getAfterGarbageCollectionReturnsSameInstance() {
+		HotelSummaries summaries = createSummaries(new ImageLinksProperties(null, "http://localhost:8080/images/"));
+		HotelSummary summary = summaries.get(this.hotel);
+		System.gc();
+		assertThat(summaries.get(this.hotel)).isSameAs(summary);
+	}
+
+	@Test
+	void getWhenHotelIsNotCurrentCreatesSummary() {
+		HotelSummaries summaries = createSummaries(new ImageLinksProperties(null, "http://localhost:8080/images/"));
+		Hotel other = new Hotel("n2", "a2", null, 2, "1992", "o2", "t2", null, "east");
+		assertThat(summaries.get(other).getName()).isEqualTo("N2");
+		assertThat(summaries.get(other)).isNotSameAs(summaries.get(other));
+	}
+
+	@Test
+	void getWhenReloadedReturnsSummariesOfReloadedHotels() {
+		HotelSummaries summaries = createSummaries(new ImageLinksProperties(null, "http://localhost:8080/images/"));
+		HotelSummary summary = summaries.get(this.hotel);
+		this.service.reload(new HotelProperties(1,
+				List.of(new Hotel("n1", "a1", "n1-new.jpg", 1, "1991", "o1", "t1", null, "south"))));
+		Hotel reloaded = this.service.getAll().get(0);
+		assertThat(summaries.get(reloaded)).isNotSameAs(summary).isSameAs(summaries.get(reloaded));
+		assertThat(summaries.get(reloaded).getImage()).isEqualTo("http://localhost:8080/images/n1-new.jpg");
+	}
+
+	@Test
+	void getWhenNullReturnsNull() {
+		HotelSummaries summaries = createSummaries(new ImageLinksProperties(null, "http://localhost:8080/images/"));
+		assertThat(summaries.get((Hotel) null)).isNull();
+	}
+
+	@Test
+	void getListReturnsSummaries() {
+		HotelSummaries summaries = createSummaries(new ImageLinksProperties(null, "http://localhost:8080/images/"));
+		assertThat(summaries.get(List.of(this.hotel))).containsExactly(summaries.get(this.hotel));
+	}
+
+	@Test
+	void getWhenNoCdnUsesOrigin() {
+		HotelSummaries summaries = createSummaries(new ImageLinksProperties("", "https://origin.example.com/images"));
+		assertThat(summaries.get(this.hotel).getImage()).isEqualTo("https://origin.example.com/images/n1.jpg");
+	}
+
+	@Test
+	void getWhenCdnUsesCdn() {
+		HotelSummaries summaries = createSummaries(
+				new ImageLinksProperties("https://cdn.example.com/images/", "https://origin.example.com/images/"));
+		assertThat(summaries.get(this.hotel).getImage()).isEqualTo("https://cdn.example.com/images/n1.jpg");
+	}
+
+	private HotelSummaries createSummaries(ImageLinksProperties properties) {
+		return new HotelSummaries(properties, this.service);
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.List;
+
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.data.HotelProperties;
+import com.example.littletreasures.service.HotelsService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HotelSummaryEncoder}.
+ */
+class HotelSummaryEncoderTests {
+
+	private final HotelSummaries summaries = new HotelSummaries(
+			new ImageLinksProperties(null, "http://localhost:8080/images/"),
+			new HotelsService(new HotelProperties(1, List.of()), new SimpleMeterRegistry()));
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final HotelSummaryEncoder encoder = new HotelSummaryEncoder(this.summaries);
+
+	private final Hotel hotel = new Hotel("n1", "a1", "n1.jpg", 1, "1991", "o1", "t1", List.of("x", "y"), "south", 36.1,
+			-115.2);
+
+	private final Hotel other = new Hotel("n2", "a2", null, 2, "1992", "o2", "t2", null, "east");
+
+	@Test
+	void encodeCborWritesSummaries() throws IOException {
+		byte[] encoded = this.encoder.encode(HotelSummaryEncoder.Format.CBOR, List.of(this.hotel, this.other),
+				EnumSet.allOf(HotelSummary.Field.class));
+		JsonNode decoded = new CBORMapper().readTree(encoded);
+		assertThat(decoded)
+			.isEqualTo(this.objectMapper.valueToTree(this.summaries.get(List.of(this.hotel, this.other))));
+	}
+
+	@Test
+	void encodeSmileWritesSummaries() throws IOException {
+		byte[] encoded = this.encoder.encode(HotelSummaryEncoder.Format.SMILE, this.hotel);
+		JsonNode decoded = new SmileMapper().readTree(encoded);
+		assertThat(decoded).isEqualTo(this.objectMapper.valueToTree(this.summaries.get(this.hotel)));
+	}
+
+	@Test
+	void encodeProtobufWritesSummariesMessage() throws IOException {
+		byte[] encoded = this.encoder.encode(HotelSummaryEncoder.Format.PROTOBUF, List.of(this.hotel, this.other),
+				EnumSet.allOf(HotelSummary.Field.class));
+		JsonNode decoded = readProtobuf(encoded, "HotelSummaries");
+		assertThat(decoded.get("Hotels")).hasSize(2);
+		JsonNode first = decoded.get("Hotels").get(0);
+		assertThat(first.get("Name").asText()).isEqualTo("N1");
+		assertThat(first.get("Image").asText()).isEqualTo("http://localhost:8080/images/n1.jpg");
+		assertThat(first.get("Architects").asText()).isEqualTo("x | y");
+		assertThat(first.get("Latitude").asDouble()).isEqualTo(36.1);
+		assertThat(first.get("Longitude").asDouble()).isEqualTo(-115.2);
+		JsonNode second = decoded.get("Hotels").get(1);
+		assertThat(second.get("Name").asText()).isEqualTo("N2");
+		assertThat(second.has("Image")).isFalse();
+		assertThat(second.has("Latitude")).isFalse();
+	}
+
+	@Test
+	void encodeProtobufWritesSummaryMessage() throws IOException {
+		byte[] encoded = this.encoder.encode(HotelSummaryEncoder.Format.PROTOBUF, this.hotel);
+		JsonNode decoded = readProtobuf(encoded, "HotelSummary");
+		assertThat(decoded.get("Name").asText()).isEqualTo("N1");
+		assertThat(decoded.get("GeographicOrder").asText()).isEqualTo("south");
+	}
+
+	@Test
+	void encodeWithFieldsWritesProjection() throws IOException {
+		byte[] encoded = this.encoder.encode(HotelSummaryEncoder.Format.CBOR, List.of(this.hotel),
+				EnumSet.of(HotelSummary.Field.NAME, HotelSummary.Field.LATITUDE));
+		JsonNode decoded = new CBORMapper().readTree(encoded).get(0);
+		assertThat(decoded.fieldNames()).toIterable().containsExactly("Name", "Latitude");
+	}
+
+	@Test
+	void encodeIsSmallerThanJson() throws IOException {
+		List<Hotel> hotels = List.of(this.hotel, this.other);
+		byte[] json = this.objectMapper.writeValueAsBytes(this.summaries.get(hotels));
+		for (HotelSummaryEncoder.Format format : HotelSummaryEncoder.Format.values()) {
+			byte[] encoded = this.encoder.encode(format, hotels, EnumSet.allOf(HotelSummary.Field.class));
+			assertThat(encoded).as(format.name()).hasSizeLessThan(json.length);
+		}
+	}
+
+	@Test
+	void formatForMediaTypeReturnsFormat() {
+		assertThat(HotelSummaryEncoder.Format.forMediaType(MediaType.APPLICATION_CBOR))
+			.isEqualTo(HotelSummaryEncoder.Format.CBOR);
+		assertThat(HotelSummaryEncoder.Format.forMediaType(MediaType.parseMediaType("application/x-jackson-smile")))
+			.isEqualTo(HotelSummaryEncoder.Format.SMILE);
+		assertThat(HotelSummaryEncoder.Format.forMediaType(MediaType.parseMediaType("application/x-protobuf")))
+			.isEqualTo(HotelSummaryEncoder.Format.PROTOBUF);
+		assertThat(HotelSummaryEncoder.Format.forMediaType(MediaType.APPLICATION_XML)).isNull();
+	}
+
+	private JsonNode readProtobuf(byte[] encoded, String rootType) throws IOException {
+		ProtobufMapper mapper = new ProtobufMapper();
+		try (InputStream inputStream = new ClassPathResource(HotelSummaryEncoder.SCHEMA_LOCATION).getInputStream()) {
+			ProtobufSchema schema = mapper.schemaLoader().load(inputStream).withRootType(rootType);
+			return mapper.readerFor(JsonNode.class).with(schema).readValue(encoded);
+		}
+	}
+
+}
@@ -40,23 +40,20 @@ class HotelSummaryJsonTests {
 
 	@Test
 	void writeJson() throws IOException {
-		HotelSummary info = new HotelSummary();
-		info.setName("Doge's palace");
-		info.setAddress("Production");
-		info.setArchitects("Madhura Bhave | Phil Webb");
-		info.setGeographicOrder("south");
+		HotelSummary info = new HotelSummary("Doge's palace", "Production", null, "Madhura Bhave | Phil Webb", "south",
+				36.1162, -115.1706);
 		assertThat(this.json.write(info)).isEqualToJson("""
 				{"Name": "Doge's palace",
 				"Address": "Production",
 				"Architects": "Madhura Bhave | Phil Webb",
-				"GeographicOrder": "south"}""");
+				"GeographicOrder": "south",
+				"Latitude": 36.1162,
+				"Longitude": -115.1706}""");
 	}
 
 	@Test
 	void writeJsonWithNulls() throws IOException {
-		HotelSummary info = new HotelSummary();
-		info.setName("Doge's palace");
-		info.setGeographicOrder("south");
+		HotelSummary info = new HotelSummary("Doge's palace", null, null, null, "south", null, null);
 		assertThat(this.json.write(info)).isEqualToJson("""
 				{"Name": "Doge's palace",
 				"GeographicOrder": "south"}""", JSONCompareMode.STRICT);
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.web;
+
+import java.util.List;
+
+import com.example.littletreasures.data.Hotel;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HotelSummary}.
+ */
+class HotelSummaryTests {
+
+	@Test
+	void createMapsHotel() {
+		Hotel hotel = new Hotel("doge's palace", "a1", "doge's palace.jpg", 1, "1991", "o1", "t1",
+				List.of("Madhura Bhave", "Phil Webb"), "south");
+		HotelSummary summary = HotelSummary.create(hotel, "https://cdn.example.com/images/");
+		assertThat(summary.getName()).isEqualTo("Doge's palace");
+		assertThat(summary.getAddress()).isEqualTo("a1");
+		assertThat(summary.getImage()).isEqualTo("https://cdn.example.com/images/doge's%20palace.jpg");
+		assertThat(summary.getArchitects()).isEqualTo("Madhura Bhave | Phil Webb");
+		assertThat(summary.getGeographicOrder()).isEqualTo("south");
+	}
+
+	@Test
+	void createWhenValuesAreNullMapsNulls() {
+		HotelSummary summary = HotelSummary.create(new Hotel(null, null, null, 0, null, null, null, null, null),
+				"https://cdn.example.com/images/");
+		assertThat(summary.getName()).isNull();
+		assertThat(summary.getImage()).isNull();
+		assertThat(summary.getArchitects()).isNull();
+	}
+
+}
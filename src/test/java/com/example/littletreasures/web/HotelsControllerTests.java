@@ -16,33 +16,60 @@
 
 package com.example.littletreasures.web;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.service.HotelQuery;
+import com.example.littletreasures.service.HotelSort;
 import com.example.littletreasures.service.HotelsService;
+import com.example.littletreasures.service.HotelsView;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.util.FileCopyUtils;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * Tests for {@link HotelsController}.
  */
 @WebMvcTest(HotelsController.class)
+@EnableConfigurationProperties({ HttpCachingProperties.class, HotelsJsonProperties.class, ImageLinksProperties.class })
+@Import({ HotelsJsonCache.class, HotelSummaries.class })
+@TestPropertySource(properties = "littletreasures.web.hotels-json.gzip.min-size=0")
 class HotelsControllerTests {
 
 	@MockBean
@@ -51,6 +78,19 @@ class HotelsControllerTests {
 	@Autowired
 	private MockMvc mvc;
 
+	@Autowired
+	private HotelsJsonCache json;
+
+	private final HotelsView current = mock(HotelsView.class);
+
+	@BeforeEach
+	void setup() {
+		this.json.clear();
+		given(this.service.getCurrent()).willReturn(this.current);
+		given(this.service.getChecksum()).willReturn("abc123");
+		given(this.current.getChecksum()).willReturn("abc123");
+	}
+
 	@Test
 	void slashHotelsReturnsAll() throws Exception {
 		assertAllHotelsReturned("/hotels");
@@ -65,7 +105,7 @@ class HotelsControllerTests {
 		List<Hotel> hotels = new ArrayList<>();
 		hotels.add(new Hotel("n1", "a1", null, 1, "1991", "o1", "t1", null, "south"));
 		hotels.add(new Hotel("n2", "a2", null, 2, "1992", "o2", "t2", null, "east"));
-		given(this.service.getAll()).willReturn(hotels);
+		given(this.current.getAll()).willReturn(hotels);
 		this.mvc.perform(get(url))
 			.andExpect(status().isOk())
 			.andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -75,7 +115,7 @@ class HotelsControllerTests {
 	@Test
 	void slashHotelsSlashNameWhenFoundReturnsHotel() throws Exception {
 		Hotel hotel = new Hotel("n1", "a1", null, 1, "1991", "o1", "t1", null, "south");
-		given(this.service.findByName("n1")).willReturn(hotel);
+		given(this.current.findByName("n1")).willReturn(hotel);
 		this.mvc.perform(get("/hotels/n1"))
 			.andExpect(status().isOk())
 			.andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -87,7 +127,7 @@ class HotelsControllerTests {
 		List<Hotel> hotels = new ArrayList<>();
 		hotels.add(new Hotel("n1", "a1", null, 1, "1991", "o1", "t1", null, "south"));
 		hotels.add(new Hotel("n2", "a2", null, 2, "1992", "o2", "t2", null, "south"));
-		given(this.service.findByGeographicOrder("south")).willReturn(hotels);
+		given(this.current.findByGeographicOrder("south")).willReturn(hotels);
 		this.mvc.perform(get("/hotels/search/geographicorder/south"))
 			.andExpect(status().isOk())
 			.andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -96,7 +136,7 @@ class HotelsControllerTests {
 
 	@Test
 	void slashSearchSlashGeographicorderSlashNameWhenNotFoundEmptyJson() throws Exception {
-		given(this.service.findByGeographicOrder("south")).willReturn(Collections.emptyList());
+		given(this.current.findByGeographicOrder("south")).willReturn(Collections.emptyList());
 		this.mvc.perform(get("/hotels/search/geographicorder/south"))
 			.andExpect(status().isOk())
 			.andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -108,6 +148,362 @@ class HotelsControllerTests {
 		this.mvc.perform(get("/hotels/n1")).andExpect(status().isNotFound());
 	}
 
+	@Test
+	void slashHotelsReturnsETag() throws Exception {
+		given(this.current.getAll()).willReturn(Collections.emptyList());
+		this.mvc.perform(get("/hotels"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""));
+	}
+
+	@Test
+	void slashHotelsWhenETagMatchesReturns304() throws Exception {
+		this.mvc.perform(get("/hotels").header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+			.andExpect(status().isNotModified())
+			.andExpect(content().string(""));
+		then(this.current).should(never()).getAll();
+	}
+
+	@Test
+	void slashHotelsSlashNameWhenETagMatchesReturns304() throws Exception {
+		Hotel hotel = new Hotel("n1", "a1", null, 1, "1991", "o1", "t1", null, "south");
+		given(this.current.findByName("n1")).willReturn(hotel);
+		this.mvc.perform(get("/hotels/n1").header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+			.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void slashHotelsWhenAcceptsGzipReturnsGzippedJson() throws Exception {
+		List<Hotel> hotels = new ArrayList<>();
+		hotels.add(new Hotel("n1", "a1", null, 1, "1991", "o1", "t1", null, "south"));
+		hotels.add(new Hotel("n2", "a2", null, 2, "1992", "o2", "t2", null, "east"));
+		given(this.current.getAll()).willReturn(hotels);
+		MvcResult result = this.mvc.perform(get("/hotels").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+			.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andExpect(header().string(HttpHeaders.ETAG, "\"abc123-gzip\""))
+			.andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+			.andReturn();
+		byte[] gzipped = result.getResponse().getContentAsByteArray();
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+			String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			assertThat(json).contains("\"Name\":\"N1\"").contains("\"Name\":\"N2\"");
+		}
+	}
+
+	@Test
+	void slashHotelsWhenGzipRefusedReturnsIdentityJson() throws Exception {
+		given(this.current.getAll()).willReturn(Collections.emptyList());
+		this.mvc.perform(get("/hotels").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+			.andExpect(content().json("[]"));
+	}
+
+	@Test
+	void slashHotelsWhenGzipETagMatchesReturns304() throws Exception {
+		this.mvc
+			.perform(get("/hotels").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"abc123-gzip\""))
+			.andExpect(status().isNotModified());
+		then(this.current).should(never()).getAll();
+	}
+
+	@Test
+	void slashHotelsWithSortReturnsSortedHotels() throws Exception {
+		List<Hotel> hotels = new ArrayList<>();
+		hotels.add(new Hotel("n2", "a2", null, 2, "1992", "o2", "t2", null, "east"));
+		hotels.add(new Hotel("n1", "a1", null, 1, "1991", "o1", "t1", null, "south"));
+		given(this.current.getAll(HotelSort.ROOMS, true)).willReturn(hotels);
+		this.mvc.perform(get("/hotels?sort=-rooms"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[*].Name").value(contains("N2", "N1")))
+			.andExpect(header().doesNotExist(HttpHeaders.LINK));
+	}
+
+	@Test
+	void slashHotelsWithUnknownSortReturns400() throws Exception {
+		this.mvc.perform(get("/hotels?sort=stars")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void slashHotelsWithFieldsReturnsProjection() throws Exception {
+		List<Hotel> hotels = new ArrayList<>();
+		hotels.add(new Hotel("n1", "a1", null, 1, "1991", "o1", "t1", null, "south"));
+		given(this.current.getAll()).willReturn(hotels);
+		this.mvc.perform(get("/hotels?fields=name,geographicOrder"))
+			.andExpect(status().isOk())
+			.andExpect(content().json("[{\"Name\":\"N1\",\"GeographicOrder\":\"south\"}]", true));
+	}
+
+	@Test
+	void slashHotelsWithUnknownFieldReturns400() throws Exception {
+		this.mvc.perform(get("/hotels?fields=name,stars")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void slashHotelsWithLimitReturnsFirstPageAndNextLink() throws Exception {
+		given(this.current.getAll()).willReturn(createHotels(5));
+		MvcResult result = this.mvc.perform(get("/hotels?limit=2&offset=1"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[*].Name").value(contains("N2", "N3")))
+			.andExpect(header().string("X-Total-Count", "5"))
+			.andReturn();
+		String link = result.getResponse().getHeader(HttpHeaders.LINK);
+		assertThat(link).startsWith("<http://localhost/hotels?limit=2&cursor=").endsWith(">; rel=\"next\"");
+		String next = link.substring(link.indexOf("/hotels"), link.indexOf('>'));
+		this.mvc.perform(get(next))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[*].Name").value(contains("N4", "N5")))
+			.andExpect(header().doesNotExist(HttpHeaders.LINK));
+	}
+
+	@Test
+	void slashHotelsWithOffsetBeyondLastReturnsEmptyPage() throws Exception {
+		given(this.current.getAll()).willReturn(createHotels(2));
+		this.mvc.perform(get("/hotels?offset=5"))
+			.andExpect(status().isOk())
+			.andExpect(content().json("[]"))
+			.andExpect(header().string("X-Total-Count", "2"));
+	}
+
+	@Test
+	void slashHotelsWithHugeOffsetReturnsEmptyPageWithoutNextLink() throws Exception {
+		given(this.current.getAll()).willReturn(createHotels(2));
+		this.mvc.perform(get("/hotels?offset=2147483600&limit=100"))
+			.andExpect(status().isOk())
+			.andExpect(content().json("[]"))
+			.andExpect(header().string("X-Total-Count", "2"))
+			.andExpect(header().doesNotExist(HttpHeaders.LINK));
+	}
+
+	@Test
+	void slashHotelsWithLimitAboveMaximumReturns400() throws Exception {
+		this.mvc.perform(get("/hotels?limit=101")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void slashHotelsWithExpiredCursorReturns400() throws Exception {
+		given(this.current.getAll()).willReturn(createHotels(5));
+		MvcResult result = this.mvc.perform(get("/hotels?limit=2")).andReturn();
+		String link = result.getResponse().getHeader(HttpHeaders.LINK);
+		given(this.current.getChecksum()).willReturn("def456");
+		this.mvc.perform(get(link.substring(link.indexOf("/hotels"), link.indexOf('>'))))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void slashHotelsWithInvalidCursorReturns400() throws Exception {
+		this.mvc.perform(get("/hotels?cursor=!!")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void slashHotelsSlashSearchReturnsRankedHotels() throws Exception {
+		given(this.current.search("pal", 20)).willReturn(createHotels(2));
+		this.mvc.perform(get("/hotels/search?q=pal"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[*].Name").value(contains("N1", "N2")));
+	}
+
+	@Test
+	void slashHotelsSlashSearchWithLimitAndFieldsReturnsProjection() throws Exception {
+		given(this.current.search("pal", 1)).willReturn(createHotels(1));
+		this.mvc.perform(get("/hotels/search?q=pal&limit=1&fields=name"))
+			.andExpect(status().isOk())
+			.andExpect(content().json("[{\"Name\":\"N1\"}]", true));
+	}
+
+	@Test
+	void slashHotelsSlashSearchWithoutQueryReturns400() throws Exception {
+		this.mvc.perform(get("/hotels/search")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void slashHotelsSlashQueryReturnsMatchingHotels() throws Exception {
+		HotelQuery query = new HotelQuery("o1", null, null, "south", 1, 100, 1990, null);
+		given(this.current.query(query)).willReturn(createHotels(1));
+		this.mvc.perform(get("/hotels/query?operator=o1&geographicOrder=south&minRooms=1&maxRooms=100&openedFrom=1990"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[*].Name").value(contains("N1")));
+	}
+
+	@Test
+	void slashHotelsSlashQueryWithInvalidNumberReturns400() throws Exception {
+		this.mvc.perform(get("/hotels/query?minRooms=lots")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void slashHotelsSlashNearReturnsHotelsWithinRadius() throws Exception {
+		Hotel hotel = new Hotel("n1", "a1", null, 1, "1991", "o1", "t1", null, "south", 36.1126, -115.1767);
+		given(this.current.findWithin(36.11, -115.17, 500, 20)).willReturn(List.of(hotel));
+		this.mvc.perform(get("/hotels/near?lat=36.11&lon=-115.17&radius=500"))
+			.andExpect(status().isOk())
+			.andExpect(content().json(
+					"[{\"Name\":\"N1\",\"Address\":\"a1\",\"GeographicOrder\":\"south\",\"Latitude\":36.1126,\"Longitude\":-115.1767}]",
+					true));
+	}
+
+	@Test
+	void slashHotelsSlashNearWithInvalidRadiusReturns400() throws Exception {
+		this.mvc.perform(get("/hotels/near?lat=36.11&lon=-115.17&radius=0")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void slashHotelsSlashNearestReturnsNearestHotels() throws Exception {
+		given(this.current.findNearest(36.11, -115.17, 2)).willReturn(createHotels(2));
+		this.mvc.perform(get("/hotels/nearest?lat=36.11&lon=-115.17&limit=2&fields=name"))
+			.andExpect(status().isOk())
+			.andExpect(content().json("[{\"Name\":\"N1\"},{\"Name\":\"N2\"}]", true));
+	}
+
+	@Test
+	void slashHotelsSlashNearestWithInvalidLatitudeReturns400() throws Exception {
+		this.mvc.perform(get("/hotels/nearest?lat=91&lon=-115.17")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void slashHotelsAcceptingNdjsonStreamsHotels() throws Exception {
+		given(this.current.getAll()).willReturn(createHotels(2));
+		MvcResult result = this.mvc.perform(get("/hotels").accept(MediaType.APPLICATION_NDJSON))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		this.mvc.perform(asyncDispatch(result))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+			.andExpect(header().string(HttpHeaders.ETAG, "\"abc123-ndjson\""))
+			.andExpect(content().string("""
+					{"Name":"N1","Address":"a1","GeographicOrder":"south"}
+					{"Name":"N2","Address":"a2","GeographicOrder":"south"}
+					"""));
+	}
+
+	@Test
+	void slashHotelsAcceptingNdjsonWithSortAndFieldsStreamsProjection() throws Exception {
+		List<Hotel> hotels = createHotels(2);
+		Collections.reverse(hotels);
+		given(this.current.getAll(HotelSort.NAME, true)).willReturn(hotels);
+		MvcResult result = this.mvc.perform(get("/hotels?sort=-name&fields=name").accept(MediaType.APPLICATION_NDJSON))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		this.mvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andExpect(content().string("""
+				{"Name":"N2"}
+				{"Name":"N1"}
+				"""));
+	}
+
+	@Test
+	void slashSearchSlashGeographicorderAcceptingNdjsonStreamsHotels() throws Exception {
+		given(this.current.findByGeographicOrder("south")).willReturn(createHotels(1));
+		MvcResult result = this.mvc
+			.perform(get("/hotels/search/geographicorder/south").accept(MediaType.APPLICATION_NDJSON))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		this.mvc.perform(asyncDispatch(result))
+			.andExpect(status().isOk())
+			.andExpect(content().string("{\"Name\":\"N1\",\"Address\":\"a1\",\"GeographicOrder\":\"south\"}\n"));
+	}
+
+	@Test
+	void slashHotelsAcceptingNdjsonWhenETagMatchesReturns304() throws Exception {
+		this.mvc
+			.perform(get("/hotels").accept(MediaType.APPLICATION_NDJSON)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"abc123-ndjson\""))
+			.andExpect(status().isNotModified());
+		then(this.current).should(never()).getAll();
+	}
+
+	@Test
+	void slashHotelsAcceptingCborReturnsCbor() throws Exception {
+		given(this.current.getAll()).willReturn(createHotels(2));
+		byte[] body = this.mvc.perform(get("/hotels").accept(MediaType.APPLICATION_CBOR))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+			.andExpect(header().string(HttpHeaders.ETAG, "\"abc123-cbor\""))
+			.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+			.andReturn()
+			.getResponse()
+			.getContentAsByteArray();
+		JsonNode hotels = new CBORMapper().readTree(body);
+		assertThat(hotels).hasSize(2);
+		assertThat(hotels.get(0).get("Name").asText()).isEqualTo("N1");
+	}
+
+	@Test
+	void slashHotelsSlashNameAcceptingSmileReturnsSmile() throws Exception {
+		given(this.current.findByName("n1")).willReturn(createHotels(1).get(0));
+		byte[] body = this.mvc.perform(get("/hotels/n1").accept("application/x-jackson-smile"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType("application/x-jackson-smile"))
+			.andExpect(header().string(HttpHeaders.ETAG, "\"abc123-smile\""))
+			.andReturn()
+			.getResponse()
+			.getContentAsByteArray();
+		assertThat(new SmileMapper().readTree(body).get("Address").asText()).isEqualTo("a1");
+	}
+
+	@Test
+	void slashHotelsSearchAcceptingProtobufReturnsProtobuf() throws Exception {
+		given(this.current.search("n", 20)).willReturn(createHotels(2));
+		this.mvc.perform(get("/hotels/search?q=n&fields=name").accept("application/x-protobuf"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType("application/x-protobuf"))
+			.andExpect(header().string(HttpHeaders.ETAG, "\"abc123-protobuf\""))
+			.andExpect(content().bytes(new byte[] { 10, 4, 10, 2, 'N', '1', 10, 4, 10, 2, 'N', '2' }));
+	}
+
+	@Test
+	void slashHotelsPrefersJsonWhenAcceptingAnything() throws Exception {
+		given(this.current.getAll()).willReturn(createHotels(1));
+		this.mvc.perform(get("/hotels").accept(MediaType.ALL))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	void slashHotelsUsesQualityToChooseFormat() throws Exception {
+		given(this.current.getAll()).willReturn(createHotels(1));
+		this.mvc.perform(get("/hotels").header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+	}
+
+	@Test
+	void slashHotelsAcceptingUnsupportedTypeReturns406() throws Exception {
+		this.mvc.perform(get("/hotels").accept(MediaType.APPLICATION_XML)).andExpect(status().isNotAcceptable());
+	}
+
+	@Test
+	void slashHotelsAcceptingCborWhenETagMatchesReturns304() throws Exception {
+		this.mvc
+			.perform(get("/hotels").accept(MediaType.APPLICATION_CBOR)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"abc123-cbor\""))
+			.andExpect(status().isNotModified());
+		then(this.current).should(never()).getAll();
+	}
+
+	@Test
+	void slashHotelsTakesETagAndBodyFromSameView() throws Exception {
+		HotelsView other = mock(HotelsView.class);
+		given(other.getChecksum()).willReturn("def456");
+		given(other.findByName("n1")).willReturn(createHotels(1).get(0));
+		given(this.service.getCurrent()).willReturn(other);
+		this.mvc.perform(get("/hotels/n1"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"def456\""))
+			.andExpect(jsonPath("$.Name").value("N1"));
+		then(this.current).should(never()).findByName("n1");
+	}
+
+	private List<Hotel> createHotels(int count) {
+		List<Hotel> hotels = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			hotels.add(new Hotel("n" + i, "a" + i, null, i, "199" + i, "o" + i, "t" + i, null, "south"));
+		}
+		return hotels;
+	}
+
 	private String from(String path) throws IOException {
 		ClassPathResource resource = new ClassPathResource(path, getClass());
 		InputStreamReader reader = new InputStreamReader(resource.getInputStream());
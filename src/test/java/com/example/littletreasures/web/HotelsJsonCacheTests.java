@@ -0,0 +1,229 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.littletreasures.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.GZIPInputStream;
+
+import com.example.littletreasures.data.Hotel;
+import com.example.littletreasures.data.HotelProperties;
+import com.example.littletreasures.service.HotelSort;
+import com.example.littletreasures.service.HotelsReloadedEvent;
+import com.example.littletreasures.service.HotelsService;
+import com.example.littletreasures.service.HotelsView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.unit.DataSize;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+/**
+ * Tests for {@link HotelsJsonCache}.
+ */
+class HotelsJsonCacheTests {
+
+	private final HotelsService service = mock(HotelsService.class);
+
+	private final HotelsView current = mock(HotelsView.class);
+
+	private final HotelSummaries summaries = new HotelSummaries(new ImageLinksProperties(null, "/images/"),
+			new HotelsService(new HotelProperties(1, List.of()), new SimpleMeterRegistry()));
+
+	private final Hotel n1 = new Hotel("n1", "a1", null, 1, "1991", "o1", "t1", null, "south");
+
+	private final Hotel n2 = new Hotel("n2", "a2", null, 2, "1992", "o2", "t2", null, "east");
+
+	private final List<Hotel> all = List.of(this.n1, this.n2);
+
+	private final List<Hotel> south = List.of(this.n1);
+
+	@BeforeEach
+	void setup() {
+		given(this.service.getChecksum()).willReturn("abc123");
+		given(this.service.getCurrent()).willReturn(this.current);
+		given(this.current.getChecksum()).willReturn("abc123");
+		given(this.current.getAll()).willReturn(this.all);
+		given(this.current.findByGeographicOrder("south")).willReturn(this.south);
+		given(this.current.findByGeographicOrder("east")).willReturn(List.of(this.n2));
+	}
+
+	@Test
+	void getWhenAllHotelsReturnsSerializedHotels() {
+		HotelsJsonCache cache = createCache(DataSize.ofKilobytes(1));
+		assertThat(json(cache.get(this.all).content())).isEqualTo(
+				"[{\"Name\":\"N1\",\"Address\":\"a1\",\"GeographicOrder\":\"south\"},{\"Name\":\"N2\",\"Address\":\"a2\",\"GeographicOrder\":\"east\"}]");
+	}
+
+	@Test
+	void getReturnsSameBodyUntilChecksumChanges() {
+		HotelsJsonCache cache = createCache(DataSize.ofKilobytes(1));
+		HotelsJsonCache.Body body = cache.get(this.n1);
+		assertThat(cache.get(this.n1)).isSameAs(body);
+		assertThat(cache.get(this.south)).isSameAs(cache.get(this.south));
+		then(this.current).should(times(1)).getAll();
+		given(this.service.getChecksum()).willReturn("def456");
+		given(this.current.getChecksum()).willReturn("def456");
+		assertThat(cache.get(this.n1)).isNotSameAs(body);
+		then(this.current).should(times(2)).getAll();
+	}
+
+	@Test
+	void getWhenChecksumChangesBuildsBodiesFromCurrentView() {
+		HotelsView other = mock(HotelsView.class);
+		given(other.getChecksum()).willReturn("def456");
+		given(other.getAll()).willReturn(List.of(this.n2));
+		given(other.findByGeographicOrder("east")).willReturn(List.of(this.n2));
+		given(this.service.getCurrent()).willReturn(other);
+		given(this.service.getChecksum()).willReturn("def456");
+		HotelsJsonCache cache = createCache(DataSize.ofKilobytes(1));
+		HotelsJsonCache.Body body = cache.get(this.n2);
+		assertThat(cache.get(this.n2)).isSameAs(body);
+		then(other).should(times(1)).getAll();
+		then(this.current).should(never()).getAll();
+	}
+
+	@Test
+	void onHotelsReloadedBuildsBodiesFromReloadedView() {
+		HotelsView reloaded = mock(HotelsView.class);
+		given(reloaded.getChecksum()).willReturn("def456");
+		given(reloaded.getAll()).willReturn(List.of(this.n2));
+		given(reloaded.findByGeographicOrder("east")).willReturn(List.of(this.n2));
+		HotelsJsonCache cache = createCache(DataSize.ofKilobytes(1));
+		cache.onHotelsReloaded(new HotelsReloadedEvent(this.service, reloaded));
+		given(this.service.getChecksum()).willReturn("def456");
+		HotelsJsonCache.Body body = cache.get(this.n2);
+		assertThat(cache.get(this.n2)).isSameAs(body);
+		then(reloaded).should(times(1)).getAll();
+		then(this.service).should(never()).getCurrent();
+	}
+
+	@Test
+	void getWhileBodiesAreBeingBuiltReturnsPreviousBodies() throws Exception {
+		HotelsJsonCache cache = createCache(DataSize.ofKilobytes(1));
+		HotelsJsonCache.Body body = cache.get(this.n1);
+		CountDownLatch building = new CountDownLatch(1);
+		CountDownLatch built = new CountDownLatch(1);
+		HotelsView reloaded = mock(HotelsView.class);
+		given(reloaded.getChecksum()).willReturn("def456");
+		given(reloaded.getAll()).willAnswer((invocation) -> {
+			building.countDown();
+			built.await();
+			return List.of(this.n1);
+		});
+		given(reloaded.findByGeographicOrder("south")).willReturn(this.south);
+		Thread thread = new Thread(() -> cache.onHotelsReloaded(new HotelsReloadedEvent(this.service, reloaded)));
+		thread.start();
+		building.await();
+		given(this.service.getChecksum()).willReturn("def456");
+		assertThat(cache.get(this.n1)).isSameAs(body);
+		built.countDown();
+		thread.join();
+		assertThat(cache.get(this.n1)).isNotSameAs(body);
+		then(this.service).should(times(1)).getCurrent();
+	}
+
+	@Test
+	void clearRebuildsBodies() {
+		HotelsJsonCache cache = createCache(DataSize.ofKilobytes(1));
+		HotelsJsonCache.Body body = cache.get(this.n1);
+		cache.clear();
+		assertThat(cache.get(this.n1)).isNotSameAs(body);
+	}
+
+	@Test
+	void getWhenHotelNotFromServiceSerializesHotel() {
+		HotelsJsonCache cache = createCache(DataSize.ofKilobytes(1));
+		Hotel hotel = new Hotel("n3", "a3", null, 3, "1993", "o3", "t3", null, "west");
+		assertThat(json(cache.get(hotel).content()))
+			.isEqualTo("{\"Name\":\"N3\",\"Address\":\"a3\",\"GeographicOrder\":\"west\"}");
+	}
+
+	@Test
+	void getWhenEmptyListReturnsEmptyArray() {
+		HotelsJsonCache cache = createCache(DataSize.ofKilobytes(1));
+		assertThat(json(cache.get(Collections.emptyList()).content())).isEqualTo("[]");
+	}
+
+	@Test
+	void getWithFieldsWritesSelectedFields() {
+		HotelsJsonCache cache = createCache(DataSize.ofKilobytes(1));
+		HotelsJsonCache.Body body = cache.get(List.of(this.n1, this.n2),
+				EnumSet.of(HotelSummary.Field.NAME, HotelSummary.Field.IMAGE));
+		assertThat(json(body.content())).isEqualTo("[{\"Name\":\"N1\"},{\"Name\":\"N2\"}]");
+		assertThat(body.gzipped()).isNull();
+	}
+
+	@Test
+	void getWithAllFieldsWhenSortedListReturnsCachedBody() {
+		List<Hotel> sorted = List.of(this.n2, this.n1);
+		given(this.current.getAll(HotelSort.ROOMS, true)).willReturn(sorted);
+		HotelsJsonCache cache = createCache(DataSize.ofKilobytes(1));
+		Set<HotelSummary.Field> fields = EnumSet.allOf(HotelSummary.Field.class);
+		assertThat(cache.get(sorted, fields)).isSameAs(cache.get(sorted, fields));
+		assertThat(json(cache.get(sorted, fields).content())).startsWith("[{\"Name\":\"N2\"");
+	}
+
+	@Test
+	void getWhenSmallerThanMinSizeHasNoGzipVariant() {
+		HotelsJsonCache cache = createCache(DataSize.ofKilobytes(1));
+		assertThat(cache.get(this.all).gzipped()).isNull();
+	}
+
+	@Test
+	void getWhenLargerThanMinSizeHasGzipVariant() throws IOException {
+		HotelsJsonCache cache = createCache(DataSize.ofBytes(0));
+		HotelsJsonCache.Body body = cache.get(this.all);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.gzipped()))) {
+			assertThat(in.readAllBytes()).isEqualTo(body.content());
+		}
+	}
+
+	@Test
+	void getWhenGzipDisabledHasNoGzipVariant() {
+		HotelsJsonProperties properties = new HotelsJsonProperties(
+				new HotelsJsonProperties.Gzip(false, DataSize.ofBytes(0)), new HotelsJsonProperties.Paging(20, 100));
+		HotelsJsonCache cache = new HotelsJsonCache(this.service, this.summaries, new ObjectMapper(), properties);
+		assertThat(cache.isGzipEnabled()).isFalse();
+		assertThat(cache.get(this.all).gzipped()).isNull();
+	}
+
+	private HotelsJsonCache createCache(DataSize minSize) {
+		HotelsJsonProperties properties = new HotelsJsonProperties(new HotelsJsonProperties.Gzip(true, minSize),
+				new HotelsJsonProperties.Paging(20, 100));
+		return new HotelsJsonCache(this.service, this.summaries, new ObjectMapper(), properties);
+	}
+
+	private String json(byte[] content) {
+		return new String(content, StandardCharsets.UTF_8);
+	}
+
+}